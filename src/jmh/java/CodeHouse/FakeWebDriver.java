@@ -0,0 +1,309 @@
+package CodeHouse;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.logging.Logs;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * In-memory WebDriver and JavascriptExecutor for benchmarks.
+ * Every method that would be a wire command on a real driver increments {@link #getCommands()},
+ * so benchmarks can report how many round trips a Page helper issues.
+ * Scripts are answered by handlers registered with {@link #onScript(String, Function)}.
+ */
+class FakeWebDriver implements WebDriver, JavascriptExecutor {
+
+    private final Map<String, Function<Object[], Object>> scripts = new LinkedHashMap<String, Function<Object[], Object>>();
+    private final Map<String, Cookie> cookies = new LinkedHashMap<String, Cookie>();
+    private final Set<String> windows = new LinkedHashSet<String>();
+    private final List<FakeWebElement> elements = new ArrayList<FakeWebElement>();
+    private String currentWindow;
+    private String url = "about:blank";
+    private long commands;
+
+    FakeWebDriver(){
+        openWindow("window-0");
+        onScript("document.readyState", args -> "complete");
+        onScript("innerHeight", args -> 768L);
+        onScript("innerWidth", args -> 1024L);
+    }
+
+    /**
+     *
+     * @param snippet is matched against the script source.
+     * @param handler answers scripts containing the snippet. The first matching handler wins.
+     */
+    void onScript(String snippet, Function<Object[], Object> handler){
+        scripts.put(snippet, handler);
+    }
+
+    void openWindow(String handle){
+        windows.add(handle);
+        if(currentWindow == null){
+            currentWindow = handle;
+        }
+    }
+
+    FakeWebElement element(String tagName){
+        FakeWebElement element = new FakeWebElement(this, tagName);
+        elements.add(element);
+        return element;
+    }
+
+    void command(){
+        commands++;
+    }
+
+    long getCommands(){
+        return commands;
+    }
+
+    @Override
+    public Object executeScript(String script, Object... args){
+        command();
+        for(Map.Entry<String, Function<Object[], Object>> handler : scripts.entrySet()){
+            if(script.contains(handler.getKey())){
+                return handler.getValue().apply(args);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Object executeAsyncScript(String script, Object... args){
+        return executeScript(script, args);
+    }
+
+    @Override
+    public void get(String url){
+        command();
+        this.url = url;
+    }
+
+    @Override
+    public String getCurrentUrl(){
+        command();
+        return url;
+    }
+
+    @Override
+    public String getTitle(){
+        command();
+        return "Fake";
+    }
+
+    @Override
+    public List<WebElement> findElements(By by){
+        command();
+        List<WebElement> found = new ArrayList<WebElement>();
+        for(FakeWebElement element : elements){
+            if(by.toString().endsWith(": " + element.tag())){
+                found.add(element);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public WebElement findElement(By by){
+        List<WebElement> found = findElements(by);
+        if(found.isEmpty()){
+            throw new NoSuchElementException("No fake element for " + by);
+        }
+        return found.get(0);
+    }
+
+    @Override
+    public String getPageSource(){
+        command();
+        return "<html></html>";
+    }
+
+    @Override
+    public void close(){
+        command();
+        windows.remove(currentWindow);
+    }
+
+    @Override
+    public void quit(){
+        command();
+        windows.clear();
+    }
+
+    @Override
+    public Set<String> getWindowHandles(){
+        command();
+        return new LinkedHashSet<String>(windows);
+    }
+
+    @Override
+    public String getWindowHandle(){
+        command();
+        return currentWindow;
+    }
+
+    @Override
+    public TargetLocator switchTo(){
+        return new FakeTargetLocator();
+    }
+
+    @Override
+    public Navigation navigate(){
+        return new FakeNavigation();
+    }
+
+    @Override
+    public Options manage(){
+        return new FakeOptions();
+    }
+
+    private class FakeTargetLocator implements TargetLocator {
+
+        public WebDriver frame(int index){
+            command();
+            return FakeWebDriver.this;
+        }
+
+        public WebDriver frame(String nameOrId){
+            command();
+            return FakeWebDriver.this;
+        }
+
+        public WebDriver frame(WebElement frameElement){
+            command();
+            return FakeWebDriver.this;
+        }
+
+        public WebDriver parentFrame(){
+            command();
+            return FakeWebDriver.this;
+        }
+
+        public WebDriver window(String nameOrHandle){
+            command();
+            if(!windows.contains(nameOrHandle)){
+                throw new NoSuchWindowException(nameOrHandle);
+            }
+            currentWindow = nameOrHandle;
+            return FakeWebDriver.this;
+        }
+
+        public WebDriver defaultContent(){
+            command();
+            return FakeWebDriver.this;
+        }
+
+        public WebElement activeElement(){
+            command();
+            return elements.isEmpty() ? null : elements.get(0);
+        }
+
+        public Alert alert(){
+            throw new UnsupportedOperationException("Alerts are not faked");
+        }
+    }
+
+    private class FakeNavigation implements Navigation {
+
+        public void back(){
+            command();
+        }
+
+        public void forward(){
+            command();
+        }
+
+        public void to(String url){
+            get(url);
+        }
+
+        public void to(URL url){
+            get(url.toString());
+        }
+
+        public void refresh(){
+            command();
+        }
+    }
+
+    private class FakeOptions implements Options {
+
+        public void addCookie(Cookie cookie){
+            command();
+            cookies.put(cookie.getName(), cookie);
+        }
+
+        public void deleteCookieNamed(String name){
+            command();
+            cookies.remove(name);
+        }
+
+        public void deleteCookie(Cookie cookie){
+            command();
+            cookies.remove(cookie.getName());
+        }
+
+        public void deleteAllCookies(){
+            command();
+            cookies.clear();
+        }
+
+        public Set<Cookie> getCookies(){
+            command();
+            return new HashSet<Cookie>(cookies.values());
+        }
+
+        public Cookie getCookieNamed(String name){
+            command();
+            return cookies.get(name);
+        }
+
+        public Timeouts timeouts(){
+            return new Timeouts() {
+                public Timeouts implicitlyWait(long time, TimeUnit unit){
+                    command();
+                    return this;
+                }
+
+                public Timeouts setScriptTimeout(long time, TimeUnit unit){
+                    command();
+                    return this;
+                }
+
+                public Timeouts pageLoadTimeout(long time, TimeUnit unit){
+                    command();
+                    return this;
+                }
+            };
+        }
+
+        public ImeHandler ime(){
+            throw new UnsupportedOperationException("IME is not faked");
+        }
+
+        public Window window(){
+            throw new UnsupportedOperationException("Window sizing is not faked");
+        }
+
+        public Logs logs(){
+            throw new UnsupportedOperationException("Logs are not faked");
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package CodeHouse;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory WebElement for benchmarks. Every call counts as one driver command on its {@link FakeWebDriver}.
+ * Supports what the Select based helpers need: options found by tag name or by value/text XPath.
+ */
+class FakeWebElement implements WebElement {
+
+    private static final Pattern XPATH_VALUE = Pattern.compile("@value = \"(.*)\"");
+    private static final Pattern XPATH_TEXT = Pattern.compile("normalize-space\\(\\.\\) = \"(.*)\"");
+
+    private final FakeWebDriver driver;
+    private final String tagName;
+    private final Map<String, String> attributes = new HashMap<String, String>();
+    private final List<FakeWebElement> children = new ArrayList<FakeWebElement>();
+    private StringBuilder value = new StringBuilder();
+    private String text = "";
+    private boolean selected;
+
+    FakeWebElement(FakeWebDriver driver, String tagName){
+        this.driver = driver;
+        this.tagName = tagName;
+    }
+
+    FakeWebElement attribute(String name, String value){
+        attributes.put(name, value);
+        return this;
+    }
+
+    FakeWebElement text(String text){
+        this.text = text;
+        return this;
+    }
+
+    FakeWebElement child(FakeWebElement child){
+        children.add(child);
+        return this;
+    }
+
+    String tag(){
+        return tagName;
+    }
+
+    List<FakeWebElement> children(){
+        return children;
+    }
+
+    String value(){
+        return value.toString();
+    }
+
+    String text(){
+        return text;
+    }
+
+    boolean selected(){
+        return selected;
+    }
+
+    String attribute(String name){
+        return attributes.get(name);
+    }
+
+    void setSelected(boolean selected){
+        this.selected = selected;
+    }
+
+    @Override
+    public void click(){
+        driver.command();
+        if("option".equals(tagName)){
+            selected = !selected;
+        }
+    }
+
+    @Override
+    public void submit(){
+        driver.command();
+    }
+
+    @Override
+    public void sendKeys(CharSequence... keysToSend){
+        driver.command();
+        for(CharSequence keys : keysToSend){
+            value.append(keys);
+        }
+    }
+
+    @Override
+    public void clear(){
+        driver.command();
+        value = new StringBuilder();
+    }
+
+    @Override
+    public String getTagName(){
+        driver.command();
+        return tagName;
+    }
+
+    @Override
+    public String getAttribute(String name){
+        driver.command();
+        if("value".equals(name) && !attributes.containsKey(name)){
+            return value.toString();
+        }
+        return attributes.get(name);
+    }
+
+    @Override
+    public boolean isSelected(){
+        driver.command();
+        return selected;
+    }
+
+    @Override
+    public boolean isEnabled(){
+        driver.command();
+        return true;
+    }
+
+    @Override
+    public String getText(){
+        driver.command();
+        return text;
+    }
+
+    @Override
+    public List<WebElement> findElements(By by){
+        driver.command();
+        String locator = by.toString();
+        Matcher byValue = XPATH_VALUE.matcher(locator);
+        Matcher byText = XPATH_TEXT.matcher(locator);
+        List<WebElement> found = new ArrayList<WebElement>();
+        for(FakeWebElement child : children){
+            if(byValue.find(0) ? byValue.group(1).equals(child.attributes.get("value"))
+                    : byText.find(0) ? byText.group(1).equals(child.text)
+                    : locator.endsWith(": " + child.tagName)){
+                found.add(child);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public WebElement findElement(By by){
+        List<WebElement> found = findElements(by);
+        if(found.isEmpty()){
+            throw new NoSuchElementException("No fake element for " + by);
+        }
+        return found.get(0);
+    }
+
+    @Override
+    public boolean isDisplayed(){
+        driver.command();
+        return true;
+    }
+
+    @Override
+    public Point getLocation(){
+        driver.command();
+        return new Point(0, 0);
+    }
+
+    @Override
+    public Dimension getSize(){
+        driver.command();
+        return new Dimension(100, 20);
+    }
+
+    @Override
+    public Rectangle getRect(){
+        driver.command();
+        return new Rectangle(0, 0, 20, 100);
+    }
+
+    @Override
+    public String getCssValue(String propertyName){
+        driver.command();
+        return "";
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target){
+        driver.command();
+        return target.convertFromPngBytes(new byte[0]);
+    }
+
+    @Override
+    public String toString(){
+        return "FakeWebElement<" + tagName + ">";
+    }
+}
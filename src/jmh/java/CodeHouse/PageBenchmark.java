@@ -0,0 +1,211 @@
+package CodeHouse;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openqa.selenium.Cookie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Measures the overhead Page adds on top of the driver, using an in-memory driver so that no browser time is included.
+ * Besides time per operation, every benchmark reports the driver commands it issued ({@code driverCalls})
+ * next to the number of operations, so driverCalls / operations is the round trips per helper call.
+ * Run with {@code mvn -Pbenchmarks test-compile exec:exec}; add {@code -Djmh.args="CodeHouse.*Benchmark -prof gc"}
+ * for allocations per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PageBenchmark {
+
+    private static final int OPTIONS = 50;
+
+    private FakeWebDriver driver;
+    private Page page;
+    private FakeWebElement select;
+    private FakeWebElement input;
+
+    @Setup(Level.Iteration)
+    public void setUp(){
+        driver = new FakeWebDriver();
+        driver.openWindow("window-1");
+        driver.openWindow("window-2");
+        Logger silent = Logger.getLogger("CodeHouse.benchmark");
+        silent.setLevel(java.util.logging.Level.OFF);
+        page = new Page(new PageSession(driver, silent));
+        select = driver.element("select");
+        for(int i = 0; i < OPTIONS; i++){
+            FakeWebElement option = driver.element("option").attribute("value", "v" + i).text("Option " + i);
+            option.setSelected(i % 5 == 0);
+            select.child(option);
+        }
+        input = driver.element("input");
+        driver.onScript("options.map(textOf)", args -> {
+            List<Object> options = new ArrayList<Object>();
+            List<Object> texts = new ArrayList<Object>();
+            for(FakeWebElement option : ((FakeWebElement) args[0]).children()){
+                if(option.selected()){
+                    options.add(option);
+                    texts.add(option.text());
+                }
+            }
+            Map<String, Object> result = new HashMap<String, Object>();
+            result.put("options", options);
+            result.put("texts", texts);
+            return result;
+        });
+        driver.onScript("__codeBreezeSelectIndex = token", args -> {
+            List<Object> values = new ArrayList<Object>();
+            List<Object> texts = new ArrayList<Object>();
+            for(FakeWebElement option : ((FakeWebElement) args[0]).children()){
+                values.add(option.attribute("value"));
+                texts.add(option.text());
+            }
+            Map<String, Object> result = new HashMap<String, Object>();
+            result.put("multiple", true);
+            result.put("values", values);
+            result.put("texts", texts);
+            return result;
+        });
+        driver.onScript("return 'stale'", args -> {
+            List<FakeWebElement> options = ((FakeWebElement) args[0]).children();
+            for(Object index : (List<?>) args[2]){
+                options.get((Integer) index).setSelected((Boolean) args[3]);
+            }
+            return null;
+        });
+        driver.onScript("__codeBreezeHandle = arguments[0]", args -> Arrays.<Object>asList("Title of " + args[0], "about:blank", null));
+        driver.onScript("onlySelected", args -> {
+            List<Object> rows = new ArrayList<Object>();
+            List<FakeWebElement> options = ((FakeWebElement) args[0]).children();
+            for(int i = 0; i < options.size(); i++){
+                FakeWebElement option = options.get(i);
+                if(!Boolean.TRUE.equals(args[1]) || option.selected()){
+                    rows.add(Arrays.<Object>asList((long) i, option.attribute("value"), option.text(), option.selected(), false));
+                }
+            }
+            return rows;
+        });
+    }
+
+    /**
+     * Counts driver commands per iteration, reported by JMH next to the benchmark score.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Commands {
+
+        public long driverCalls;
+        public long operations;
+
+        private long before;
+
+        @Setup(Level.Iteration)
+        public void reset(){
+            driverCalls = 0;
+            operations = 0;
+        }
+
+        void start(FakeWebDriver driver){
+            before = driver.getCommands();
+        }
+
+        void stop(FakeWebDriver driver){
+            driverCalls += driver.getCommands() - before;
+            operations++;
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown(){
+        driver.quit();
+    }
+
+    @Benchmark
+    public void selectByValue(Commands commands){
+        commands.start(driver);
+        page.selectByValue(select, "v" + (OPTIONS - 1));
+        commands.stop(driver);
+    }
+
+    @Benchmark
+    public void fastSelectByValue(Commands commands){
+        commands.start(driver);
+        page.fastSelectByValue(select, "v" + (OPTIONS - 1));
+        commands.stop(driver);
+    }
+
+    @Benchmark
+    public void setValueInInputField(Commands commands){
+        commands.start(driver);
+        page.setValueInInputField(input, "benchmark value");
+        commands.stop(driver);
+    }
+
+    @Benchmark
+    public void getAllSelectedOptions(Commands commands, Blackhole blackhole){
+        commands.start(driver);
+        blackhole.consume(page.getAllSelectedOptions(select, true));
+        commands.stop(driver);
+    }
+
+    @Benchmark
+    public void getDropdownOptions(Commands commands, Blackhole blackhole){
+        commands.start(driver);
+        blackhole.consume(page.getDropdownOptions(select));
+        commands.stop(driver);
+    }
+
+    @Benchmark
+    public void waitForPageLoadToComplete(Commands commands){
+        commands.start(driver);
+        page.waitForPageLoadToComplete();
+        commands.stop(driver);
+    }
+
+    @Benchmark
+    public void windowHandles(Commands commands, Blackhole blackhole){
+        commands.start(driver);
+        blackhole.consume(page.getCurrentWindowHandle());
+        blackhole.consume(page.getWindowHandles());
+        commands.stop(driver);
+    }
+
+    @Benchmark
+    public void selectWindowHandle(Commands commands){
+        commands.start(driver);
+        page.selectWindowHandle("window-2");
+        page.selectWindowHandle("window-1");
+        commands.stop(driver);
+    }
+
+    @Benchmark
+    public void cookies(Commands commands){
+        commands.start(driver);
+        driver.manage().addCookie(new Cookie("session", "value"));
+        page.deleteCookiesByCookieName("session");
+        page.deleteAllCookies();
+        commands.stop(driver);
+    }
+}
@@ -0,0 +1,250 @@
+package CodeHouse;
+
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Runs the helpers of a {@link Page} without blocking the caller, so one JVM can drive hundreds of sessions.
+ * Every call returns a CompletableFuture. Calls on the same AsyncPage run one after the other, in the order they
+ * were made, because a WebDriver cannot be used by two threads at once; calls on different AsyncPages run at the
+ * same time. Delays and the pauses between wait checks are timer events, so a waiting session holds no thread.
+ * Helpers run on virtual threads when the JVM has them (Java 21 and later), and on a small shared pool otherwise.
+ *
+ * <pre>
+ *     AsyncPage page = new AsyncPage(new Page(session));
+ *     CompletableFuture&lt;String&gt; url = page.run(p -&gt; p.simpleClick(login))
+ *             .thenCompose(ignored -&gt; page.waitForVisible(dashboard, 30))
+ *             .thenCompose(ignored -&gt; page.supply(Page::getCurrentURL));
+ * </pre>
+ */
+public class AsyncPage {
+
+    private static final Logger LOGGER = Logger.getLogger(AsyncPage.class.getName());
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(daemonThreads("codebreeze-async-timer"));
+    private static volatile Executor defaultExecutor;
+
+    private final Page page;
+    private final Executor executor;
+    private CompletableFuture<?> tail = CompletableFuture.completedFuture(null);
+
+    /**
+     *
+     * @param page is the page whose helpers are run. It must not be used directly while async calls are pending.
+     */
+    public AsyncPage(Page page){
+        this(page, defaultExecutor());
+    }
+
+    /**
+     *
+     * @param page is the page whose helpers are run. It must not be used directly while async calls are pending.
+     * @param executor runs the helpers.
+     */
+    public AsyncPage(Page page, Executor executor){
+        this.page = page;
+        this.executor = executor;
+    }
+
+    /**
+     *
+     * @return a virtual thread per task executor when the JVM has virtual threads, or else a shared pool of
+     * daemon threads, two per processor.
+     */
+    public static Executor defaultExecutor(){
+        Executor executor = defaultExecutor;
+        if(executor == null){
+            synchronized (AsyncPage.class){
+                executor = defaultExecutor;
+                if(executor == null){
+                    executor = createDefaultExecutor();
+                    defaultExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    private static Executor createDefaultExecutor(){
+        try {
+            // looked up by name so that the library still builds and runs on Java 8.
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }catch (ReflectiveOperationException | RuntimeException e){
+            LOGGER.fine("Virtual threads are not available, using a bounded pool: " + e);
+        }
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), daemonThreads("codebreeze-async"));
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     *
+     * @return the page the helpers run on.
+     */
+    public Page getPage(){
+        return page;
+    }
+
+    /**
+     *
+     * @param action calls one or more helpers of the page.
+     * @return a future that completes when the action has run.
+     */
+    public CompletableFuture<Void> run(Consumer<Page> action){
+        return supply(p -> {
+            action.accept(p);
+            return null;
+        });
+    }
+
+    /**
+     *
+     * @param action calls one or more helpers of the page and returns a value.
+     * @param <T> is the type of the value.
+     * @return a future of the value.
+     */
+    public <T> CompletableFuture<T> supply(Function<Page, T> action){
+        return enqueue(() -> CompletableFuture.supplyAsync(() -> action.apply(page), executor));
+    }
+
+    /**
+     * The non blocking form of {@link Page#deadWait(int)}.
+     * @param millis is the time to wait.
+     * @return a future that completes after the delay, once the calls made before it are done.
+     */
+    public CompletableFuture<Void> delay(long millis){
+        return enqueue(() -> {
+            CompletableFuture<Void> done = new CompletableFuture<Void>();
+            // completed on the executor, so that stages chained on it never run on, and block, the shared timer.
+            TIMER.schedule(() -> executor.execute(() -> done.complete(null)), millis, TimeUnit.MILLISECONDS);
+            return done;
+        });
+    }
+
+    /**
+     * Waits with the default policy of the wait engine of the session.
+     * @param description names the condition in errors.
+     * @param condition is checked until it returns something other than null or false.
+     * @param <T> is the type returned by the condition.
+     * @return a future of the value returned by the condition.
+     */
+    public <T> CompletableFuture<T> waitUntil(String description, Function<? super WebDriver, T> condition){
+        return waitUntil(description, condition, page.getWaitEngine().getDefaultPolicy());
+    }
+
+    /**
+     * Checks the condition like {@link WaitEngine#until(String, Function, WaitPolicy)} does, with the same backoff
+     * and retryable errors, but sleeps between checks on a timer instead of in a thread.
+     * @param description names the condition in errors.
+     * @param condition is checked until it returns something other than null or false.
+     * @param policy is the timeout and backoff of the wait.
+     * @param <T> is the type returned by the condition.
+     * @return a future of the value returned by the condition. It fails with a TimeoutException if the condition is not met in time.
+     */
+    public <T> CompletableFuture<T> waitUntil(String description, Function<? super WebDriver, T> condition, WaitPolicy policy){
+        return enqueue(() -> {
+            CompletableFuture<T> result = new CompletableFuture<T>();
+            long start = System.currentTimeMillis();
+            executor.execute(() -> check(description, condition, policy, start, policy.getInitialPollMillis(), 1, null, result));
+            return result;
+        });
+    }
+
+    /**
+     *
+     * @param element is the element to wait for.
+     * @param timeInSeconds is the time after which the wait gives up.
+     * @return a future that completes once the element is visible.
+     */
+    public CompletableFuture<WebElement> waitForVisible(WebElement element, int timeInSeconds){
+        return waitUntil("element to be visible", driver -> element.isDisplayed() ? element : null,
+                page.getWaitEngine().getDefaultPolicy().withTimeoutInSeconds(timeInSeconds));
+    }
+
+    /**
+     *
+     * @param element is the element to click.
+     * @return a future that completes after the click.
+     */
+    public CompletableFuture<Void> click(WebElement element){
+        return run(p -> p.simpleClick(element));
+    }
+
+    /**
+     *
+     * @param element is the input to fill.
+     * @param value is the value to type.
+     * @return a future that completes once the value is typed.
+     */
+    public CompletableFuture<Void> setValue(WebElement element, String value){
+        return run(p -> p.setValueInInputField(element, value));
+    }
+
+    /**
+     * Starts the step once every step queued before it has finished, whether it passed or failed.
+     */
+    private synchronized <T> CompletableFuture<T> enqueue(Supplier<CompletableFuture<T>> step){
+        CompletableFuture<T> next = tail.handle((value, error) -> null).thenCompose(ignored -> step.get());
+        tail = next;
+        return next;
+    }
+
+    private <T> void check(String description, Function<? super WebDriver, T> condition, WaitPolicy policy, long start,
+                           long poll, int attempts, RuntimeException lastError, CompletableFuture<T> result){
+        RuntimeException error = lastError;
+        try {
+            T value = condition.apply(page.getDriver());
+            if(value != null && !Boolean.FALSE.equals(value)){
+                result.complete(value);
+                return;
+            }
+        }catch (NotFoundException | StaleElementReferenceException retryable){
+            error = retryable;
+        }catch (RuntimeException hard){
+            if(!WaitEngine.isRetryable(hard)){
+                result.completeExceptionally(hard);
+                return;
+            }
+            error = hard;
+        }
+        long remaining = start + policy.getTimeoutMillis() - System.currentTimeMillis();
+        if(remaining <= 0 || attempts >= policy.getMaxAttempts()){
+            result.completeExceptionally(new TimeoutException("Expected condition failed: waiting for " + description + " (tried "
+                    + attempts + " time(s) over " + (System.currentTimeMillis() - start) + " ms with " + policy + ")", error));
+            return;
+        }
+        final RuntimeException last = error;
+        TIMER.schedule(() -> executor.execute(() -> check(description, condition, policy, start, policy.nextPoll(poll), attempts + 1, last, result)),
+                Math.min(poll, remaining), TimeUnit.MILLISECONDS);
+    }
+
+    private static ThreadFactory daemonThreads(final String name){
+        final AtomicInteger count = new AtomicInteger();
+        return new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+}
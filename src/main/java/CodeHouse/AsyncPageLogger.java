@@ -0,0 +1,116 @@
+package CodeHouse;
+
+import java.io.Closeable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * Hands Page messages to a background thread that writes them to another PageLogger.
+ * Messages wait in a bounded buffer. When the buffer is full new messages are dropped and counted
+ * instead of blocking the test thread, so slow log I/O never slows a test down.
+ *
+ * <pre>
+ *     PageLogger logger = new AsyncPageLogger(new JulPageLogger(Logger.getLogger("tests")), 8192);
+ *     Page page = new Page(new PageSession(driver, logger));
+ * </pre>
+ */
+public class AsyncPageLogger implements PageLogger, Closeable {
+
+    private static final long CLOSE_TIMEOUT_MILLIS = 5000;
+
+    private final PageLogger delegate;
+    private final BlockingQueue<Entry> buffer;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread drainer;
+    private volatile boolean closed;
+
+    /**
+     *
+     * @param delegate is the logger the background thread writes to.
+     * @param capacity is the number of messages the buffer holds before it starts dropping.
+     */
+    public AsyncPageLogger(PageLogger delegate, int capacity){
+        this.delegate = delegate;
+        this.buffer = new ArrayBlockingQueue<Entry>(capacity);
+        this.drainer = new Thread(new Runnable() {
+            public void run() {
+                drain();
+            }
+        }, "codebreeze-log-drainer");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+    }
+
+    @Override
+    public boolean isEnabled(Level level){
+        return !closed && delegate.isEnabled(level);
+    }
+
+    /**
+     * Queues the message. Never blocks; if the buffer is full the message is dropped.
+     */
+    @Override
+    public void log(Level level, String message){
+        if(closed || !buffer.offer(new Entry(level, message))){
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     *
+     * @return the number of messages dropped because the buffer was full or the logger was closed.
+     */
+    public long getDropped(){
+        return dropped.get();
+    }
+
+    /**
+     *
+     * @return the number of messages waiting to be written.
+     */
+    public int getPending(){
+        return buffer.size();
+    }
+
+    /**
+     * Stops accepting messages and waits up to five seconds for the buffered ones to be written.
+     */
+    @Override
+    public void close(){
+        closed = true;
+        try {
+            drainer.join(CLOSE_TIMEOUT_MILLIS);
+        }catch (InterruptedException ie){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain(){
+        while(!closed || !buffer.isEmpty()){
+            try {
+                Entry entry = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if(entry != null){
+                    delegate.log(entry.level, entry.message);
+                }
+            }catch (InterruptedException ie){
+                return;
+            }catch (RuntimeException re){
+                dropped.incrementAndGet();
+            }
+        }
+    }
+
+    private static class Entry {
+
+        private final Level level;
+        private final String message;
+
+        Entry(Level level, String message){
+            this.level = level;
+            this.message = message;
+        }
+    }
+}
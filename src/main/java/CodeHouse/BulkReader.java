@@ -0,0 +1,207 @@
+package CodeHouse;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.UnexpectedTagNameException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads dropdown options and the text and attributes of element lists in one executeScript call each,
+ * and returns them as plain value objects. Reading the same data through Select or getText costs
+ * one or more driver calls per option or element.
+ */
+public class BulkReader {
+
+    /**
+     * A JavaScript function declaration textOf(element) that returns the text like getText, trimmed.
+     */
+    static final String TEXT_FUNCTION =
+            "function textOf(el) {\n" +
+            "  if (el.tagName === 'OPTION') return el.text.replace(/\\s+/g, ' ').trim();\n" +
+            "  if (!el.getClientRects().length) return '';\n" +
+            "  return (el.innerText || '').trim();\n" +
+            "}\n";
+
+    private static final String OPTIONS_SCRIPT =
+            "var el = arguments[0], onlySelected = arguments[1], out = [];\n" +
+            "if (el.tagName !== 'SELECT') return el.tagName.toLowerCase();\n" +
+            "for (var i = 0; i < el.options.length; i++) {\n" +
+            "  var o = el.options[i];\n" +
+            "  if (onlySelected && !o.selected) continue;\n" +
+            "  out.push([i, o.value, o.text.replace(/\\s+/g, ' ').trim(), o.selected, o.disabled]);\n" +
+            "}\n" +
+            "return out;";
+
+    private static final String ELEMENTS_SCRIPT = JsLocator.RESOLVE_ALL_FUNCTION + TEXT_FUNCTION +
+            "function attr(el, n) {\n" +
+            "  var p = el[n];\n" +
+            "  if (typeof p === 'boolean') return p ? 'true' : null;\n" +
+            "  if (p != null && typeof p !== 'object' && typeof p !== 'function') return String(p);\n" +
+            "  return el.getAttribute(n);\n" +
+            "}\n" +
+            "var target = arguments[0], names = arguments[1], withText = arguments[2];\n" +
+            "var els = Array.isArray(target) ? target : resolveAll(target);\n" +
+            "return els.map(function (el) {\n" +
+            "  var row = [el.tagName.toLowerCase(), withText ? textOf(el) : null];\n" +
+            "  for (var j = 0; j < names.length; j++) row.push(attr(el, names[j]));\n" +
+            "  return row;\n" +
+            "});";
+
+    private final WebDriver driver;
+
+    /**
+     *
+     * @param driver is the driver to read with. It must implement JavascriptExecutor.
+     */
+    public BulkReader(WebDriver driver){
+        this.driver = driver;
+    }
+
+    /**
+     *
+     * @param selectElement is the dropdown element.
+     * @return all options of the dropdown.
+     */
+    public List<DropdownOption> readOptions(WebElement selectElement){
+        return readOptions(selectElement, false);
+    }
+
+    /**
+     *
+     * @param selectElement is the dropdown element.
+     * @return the selected options of the dropdown.
+     */
+    public List<DropdownOption> readSelectedOptions(WebElement selectElement){
+        return readOptions(selectElement, true);
+    }
+
+    /**
+     *
+     * @param elements are the elements to read.
+     * @return the text of each element, like getText returns it.
+     */
+    public List<String> readTexts(List<? extends WebElement> elements){
+        return texts(read(elements, true, new String[0]));
+    }
+
+    /**
+     *
+     * @param locator finds the elements to read in the whole page.
+     * @return the text of each element, like getText returns it.
+     */
+    public List<String> readTexts(By locator){
+        return texts(read(locator, true, new String[0]));
+    }
+
+    /**
+     *
+     * @param elements are the elements to read.
+     * @param attributes are the names of the attributes to read from each element.
+     * @return the tag name, text and attributes of each element.
+     */
+    public List<ElementData> readElements(List<? extends WebElement> elements, String... attributes){
+        return read(elements, true, attributes);
+    }
+
+    /**
+     *
+     * @param locator finds the elements to read in the whole page.
+     * @param attributes are the names of the attributes to read from each element.
+     * @return the tag name, text and attributes of each element.
+     */
+    public List<ElementData> readElements(By locator, String... attributes){
+        return read(locator, true, attributes);
+    }
+
+    /**
+     *
+     * @param elements are the elements to read.
+     * @param attribute is the name of the attribute to read.
+     * @return the attribute value of each element, like getAttribute returns it.
+     */
+    public List<String> readAttribute(List<? extends WebElement> elements, String attribute){
+        return attributeValues(read(elements, false, attribute), attribute);
+    }
+
+    /**
+     *
+     * @param locator finds the elements to read in the whole page.
+     * @param attribute is the name of the attribute to read.
+     * @return the attribute value of each element, like getAttribute returns it.
+     */
+    public List<String> readAttribute(By locator, String attribute){
+        return attributeValues(read(locator, false, attribute), attribute);
+    }
+
+    private List<DropdownOption> readOptions(WebElement selectElement, boolean onlySelected){
+        Object result = js().executeScript(OPTIONS_SCRIPT, selectElement, onlySelected);
+        if(result instanceof String){
+            throw new UnexpectedTagNameException("select", (String) result);
+        }
+        List<?> rows = (List<?>) result;
+        List<DropdownOption> options = new ArrayList<DropdownOption>(rows.size());
+        for(Object row : rows){
+            List<?> cells = (List<?>) row;
+            options.add(new DropdownOption(((Number) cells.get(0)).intValue(), (String) cells.get(1), (String) cells.get(2),
+                    Boolean.TRUE.equals(cells.get(3)), Boolean.TRUE.equals(cells.get(4))));
+        }
+        return options;
+    }
+
+    private List<ElementData> read(List<? extends WebElement> elements, boolean withText, String... attributes){
+        if(elements.isEmpty()){
+            return new ArrayList<ElementData>();
+        }
+        return toElementData(js().executeScript(ELEMENTS_SCRIPT, new ArrayList<WebElement>(elements), Arrays.asList(attributes), withText), attributes);
+    }
+
+    private List<ElementData> read(By locator, boolean withText, String... attributes){
+        Map<String, Object> translated = JsLocator.toScriptArgument(locator);
+        if(translated == null){
+            return read(driver.findElements(locator), withText, attributes);
+        }
+        return toElementData(js().executeScript(ELEMENTS_SCRIPT, translated, Arrays.asList(attributes), withText), attributes);
+    }
+
+    private static List<ElementData> toElementData(Object result, String[] attributes){
+        List<?> rows = (List<?>) result;
+        List<ElementData> data = new ArrayList<ElementData>(rows.size());
+        for(Object row : rows){
+            List<?> cells = (List<?>) row;
+            Map<String, String> values = new LinkedHashMap<String, String>();
+            for(int i = 0; i < attributes.length; i++){
+                Object value = cells.get(i + 2);
+                values.put(attributes[i], value == null ? null : String.valueOf(value));
+            }
+            data.add(new ElementData((String) cells.get(0), (String) cells.get(1), values));
+        }
+        return data;
+    }
+
+    private static List<String> texts(List<ElementData> data){
+        List<String> texts = new ArrayList<String>(data.size());
+        for(ElementData element : data){
+            texts.add(element.getText());
+        }
+        return texts;
+    }
+
+    private static List<String> attributeValues(List<ElementData> data, String attribute){
+        List<String> values = new ArrayList<String>(data.size());
+        for(ElementData element : data){
+            values.add(element.getAttribute(attribute));
+        }
+        return values;
+    }
+
+    private JavascriptExecutor js(){
+        return (JavascriptExecutor) driver;
+    }
+}
@@ -0,0 +1,198 @@
+package CodeHouse;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.internal.Coordinates;
+import org.openqa.selenium.internal.WrapsElement;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A WebElement that remembers how it was found.
+ * The element is looked up once and reused until its {@link ElementCache} is invalidated.
+ * If a call fails with StaleElementReferenceException, the element is found again with the same
+ * locator and the call is repeated once, so page objects keep working on pages that re-render.
+ * Get instances from {@link Page#findCachedElement(By)}.
+ */
+// Locatable is deprecated, but the Actions of Selenium 3.6 still need it to move to an element.
+@SuppressWarnings("deprecation")
+public class CachedElement implements WebElement, WrapsElement, org.openqa.selenium.internal.Locatable {
+
+    private final ElementCache cache;
+    private final SearchContext context;
+    private final By locator;
+    private WebElement element;
+    private long generation = -1;
+
+    CachedElement(ElementCache cache, SearchContext context, By locator){
+        this.cache = cache;
+        this.context = context;
+        this.locator = locator;
+    }
+
+    /**
+     *
+     * @return the locator this element is found with.
+     */
+    public By getLocator(){
+        return locator;
+    }
+
+    /**
+     *
+     * @return the driver or element this element is searched in.
+     */
+    public SearchContext getSearchContext(){
+        return context;
+    }
+
+    /**
+     * Finds the element again on next use.
+     */
+    public synchronized void refresh(){
+        element = null;
+    }
+
+    /**
+     *
+     * @return the live element, finding it first if the cached one is missing or outdated.
+     */
+    @Override
+    public synchronized WebElement getWrappedElement(){
+        long current = cache.generation();
+        if(element == null || generation != current){
+            element = context.findElement(locator);
+            generation = current;
+            cache.recordResolution();
+        }
+        return element;
+    }
+
+    private <T> T call(Function<WebElement, T> action){
+        try {
+            return action.apply(getWrappedElement());
+        }catch (StaleElementReferenceException sere){
+            cache.invalidate();
+            refresh();
+            return action.apply(getWrappedElement());
+        }
+    }
+
+    private void run(final Consumer<WebElement> action){
+        call(e -> {
+            action.accept(e);
+            return null;
+        });
+    }
+
+    @Override
+    public void click(){
+        run(WebElement::click);
+    }
+
+    @Override
+    public void submit(){
+        run(WebElement::submit);
+    }
+
+    @Override
+    public void sendKeys(final CharSequence... keysToSend){
+        run(e -> e.sendKeys(keysToSend));
+    }
+
+    @Override
+    public void clear(){
+        run(WebElement::clear);
+    }
+
+    @Override
+    public String getTagName(){
+        return call(WebElement::getTagName);
+    }
+
+    @Override
+    public String getAttribute(final String name){
+        return call(e -> e.getAttribute(name));
+    }
+
+    @Override
+    public boolean isSelected(){
+        return call(WebElement::isSelected);
+    }
+
+    @Override
+    public boolean isEnabled(){
+        return call(WebElement::isEnabled);
+    }
+
+    @Override
+    public String getText(){
+        return call(WebElement::getText);
+    }
+
+    @Override
+    public List<WebElement> findElements(final By by){
+        return call(e -> e.findElements(by));
+    }
+
+    /**
+     *
+     * @param by is the locator of the child element.
+     * @return a cached handle for the child, found right away so a missing child fails here like with a plain WebElement.
+     */
+    @Override
+    public WebElement findElement(By by){
+        CachedElement child = cache.get(this, by);
+        child.getWrappedElement();
+        return child;
+    }
+
+    @Override
+    public boolean isDisplayed(){
+        return call(WebElement::isDisplayed);
+    }
+
+    @Override
+    public Point getLocation(){
+        return call(WebElement::getLocation);
+    }
+
+    @Override
+    public Dimension getSize(){
+        return call(WebElement::getSize);
+    }
+
+    @Override
+    public Rectangle getRect(){
+        return call(WebElement::getRect);
+    }
+
+    @Override
+    public String getCssValue(final String propertyName){
+        return call(e -> e.getCssValue(propertyName));
+    }
+
+    @Override
+    public <X> X getScreenshotAs(final OutputType<X> target) throws WebDriverException {
+        return call(e -> e.getScreenshotAs(target));
+    }
+
+    @Override
+    public Coordinates getCoordinates(){
+        return call(e -> ((org.openqa.selenium.internal.Locatable) e).getCoordinates());
+    }
+
+    @Override
+    public String toString(){
+        return "CachedElement{" + locator + "}";
+    }
+}
@@ -0,0 +1,173 @@
+package CodeHouse;
+
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stops a test from talking to a browser that is gone. After a number of session failures in a row, such as
+ * a deleted session, an unreachable browser or a command that timed out on the wire, the breaker opens and every
+ * Page helper fails at once with {@link CircuitOpenException} instead of waiting for its own timeout.
+ * After the open period one helper is let through to probe the browser; it closes the breaker if it works
+ * and opens it again if it does not. Any answer from the browser, even an error like a missing element,
+ * counts as a sign of life and resets the count. There is one breaker per driver.
+ */
+public class CircuitBreaker {
+
+    /**
+     * The default number of session failures in a row that open the breaker.
+     */
+    public static final int DEFAULT_FAILURE_THRESHOLD = 3;
+
+    /**
+     * The default time the breaker stays open before it lets a probe through.
+     */
+    public static final long DEFAULT_OPEN_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final Map<WebDriver, CircuitBreaker> BREAKERS = new WeakHashMap<WebDriver, CircuitBreaker>();
+
+    /**
+     * The states of a breaker.
+     */
+    public enum State {
+        /** helpers run normally. */
+        CLOSED,
+        /** helpers fail at once. */
+        OPEN,
+        /** one helper is probing the browser; the others fail at once. */
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+    private RuntimeException lastFailure;
+
+    /**
+     *
+     * @param failureThreshold is the number of session failures in a row that open the breaker.
+     * @param openMillis is the time the breaker stays open before it lets a probe through.
+     */
+    public CircuitBreaker(int failureThreshold, long openMillis){
+        if(failureThreshold < 1 || openMillis < 0){
+            throw new IllegalArgumentException("Invalid circuit breaker : failureThreshold=" + failureThreshold + " openMillis=" + openMillis);
+        }
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     *
+     * @param driver is a driver.
+     * @return the breaker of the driver, shared by every session and Page that uses it.
+     */
+    public static CircuitBreaker forDriver(WebDriver driver){
+        synchronized (BREAKERS){
+            CircuitBreaker breaker = BREAKERS.get(driver);
+            if(breaker == null){
+                breaker = new CircuitBreaker(DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_MILLIS);
+                BREAKERS.put(driver, breaker);
+            }
+            return breaker;
+        }
+    }
+
+    /**
+     *
+     * @param error is an error thrown by a driver command.
+     * @return true if the error, or one of its causes, means the session or the connection to the browser is broken.
+     */
+    public static boolean isSessionFailure(Throwable error){
+        for(Throwable t = error; t != null; t = t.getCause() == t ? null : t.getCause()){
+            if(t instanceof NoSuchSessionException || t instanceof SessionNotCreatedException || t instanceof UnreachableBrowserException
+                    || t instanceof SocketTimeoutException || t instanceof ConnectException){
+                return true;
+            }
+            String message = t.getMessage();
+            if(message != null && (message.contains("not reachable") || message.contains("tab crashed") || message.contains("page crash"))){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Called before a helper runs.
+     * @throws CircuitOpenException if the breaker is open, or another helper is probing the browser.
+     */
+    public synchronized void acquire(){
+        if(state == State.CLOSED){
+            return;
+        }
+        if(state == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis){
+            state = State.HALF_OPEN;
+            return;
+        }
+        throw new CircuitOpenException("The browser session failed " + failures + " time(s) in a row; failing fast until "
+                + (state == State.HALF_OPEN ? "the running probe succeeds" : (openMillis - (System.currentTimeMillis() - openedAt)) + " ms from now"),
+                lastFailure);
+    }
+
+    /**
+     * Called after a helper ran without a session failure.
+     */
+    public synchronized void onSuccess(){
+        failures = 0;
+        state = State.CLOSED;
+    }
+
+    /**
+     * Called after a helper failed.
+     * @param error is the error of the helper. Errors that are not session failures count as a success.
+     */
+    public synchronized void onFailure(RuntimeException error){
+        if(error instanceof CircuitOpenException){
+            return;
+        }
+        if(!isSessionFailure(error)){
+            onSuccess();
+            return;
+        }
+        failures++;
+        lastFailure = error;
+        if(state == State.HALF_OPEN || failures >= failureThreshold){
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Closes the breaker, for example after the driver was restarted.
+     */
+    public synchronized void reset(){
+        failures = 0;
+        lastFailure = null;
+        state = State.CLOSED;
+    }
+
+    public synchronized State getState(){
+        return state;
+    }
+
+    /**
+     *
+     * @return the last session failure, or null.
+     */
+    public synchronized RuntimeException getLastFailure(){
+        return lastFailure;
+    }
+
+    @Override
+    public synchronized String toString(){
+        return "CircuitBreaker{" + state + ", failures=" + failures + "/" + failureThreshold + ", open=" + openMillis + "ms}";
+    }
+}
@@ -0,0 +1,14 @@
+package CodeHouse;
+
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * Thrown by Page helpers while the {@link CircuitBreaker} of their driver is open.
+ * The cause is the last session failure that was seen.
+ */
+public class CircuitOpenException extends WebDriverException {
+
+    public CircuitOpenException(String message, Throwable cause){
+        super(message, cause);
+    }
+}
@@ -0,0 +1,387 @@
+package CodeHouse;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.interactions.Encodable;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes and reads the values of the binary command log of {@link CommandRecorder} and {@link CommandReplay}.
+ * Every value is a tag byte followed by its payload; numbers and lengths are variable length integers.
+ * Drivers, elements and the objects returned by manage(), switchTo() and friends are written by the
+ * {@link Handles} of the codec, because the recorder and the replay know them by different objects.
+ */
+final class CommandCodec {
+
+    static final int MAGIC = 0x43424C47;
+    static final int VERSION = 1;
+
+    static final int NULL = 0;
+    static final int TRUE = 1;
+    static final int FALSE = 2;
+    static final int INT = 3;
+    static final int LONG = 4;
+    static final int DOUBLE = 5;
+    static final int STRING = 6;
+    static final int LIST = 7;
+    static final int SET = 8;
+    static final int MAP = 9;
+    static final int BYTES = 10;
+    static final int DIMENSION = 11;
+    static final int POINT = 12;
+    static final int RECTANGLE = 13;
+    static final int COOKIE = 14;
+    static final int BY = 15;
+    static final int CAPABILITIES = 16;
+    static final int FILE = 17;
+    static final int OTHER = 18;
+    static final int DRIVER = 19;
+    static final int ELEMENT = 20;
+    static final int OBJECT = 21;
+    static final int COORDINATES = 22;
+
+    /**
+     * Writes and reads the driver objects of a log: the driver, its elements, the objects of its
+     * sub-interfaces and the coordinates of its elements.
+     */
+    interface Handles {
+
+        /**
+         *
+         * @return true if the value is a driver object and was written, with one of the tags DRIVER, ELEMENT, OBJECT or COORDINATES.
+         */
+        boolean write(Object value, DataOutputStream out) throws IOException;
+
+        /**
+         *
+         * @return the driver object for the tag, after reading its payload.
+         */
+        Object read(int tag, DataInputStream in) throws IOException;
+    }
+
+    private final Handles handles;
+
+    CommandCodec(Handles handles){
+        this.handles = handles;
+    }
+
+    /**
+     *
+     * @return the target and arguments of a command, which identify it in the log.
+     */
+    byte[] encodeCommand(Object target, Object[] args){
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            write(out, target);
+            writeVarLong(out, args.length);
+            for(Object arg : args){
+                write(out, arg);
+            }
+        }catch (IOException ioe){
+            throw new UncheckedIOException(ioe);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     *
+     * @return the target of the command first, then its arguments.
+     */
+    Object[] decodeCommand(byte[] encoded){
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded))) {
+            Object target = read(in);
+            Object[] command = new Object[(int) readVarLong(in) + 1];
+            command[0] = target;
+            for(int i = 1; i < command.length; i++){
+                command[i] = read(in);
+            }
+            return command;
+        }catch (IOException ioe){
+            throw new UncheckedIOException(ioe);
+        }
+    }
+
+    byte[] encode(Object value){
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            write(out, value);
+        }catch (IOException ioe){
+            throw new UncheckedIOException(ioe);
+        }
+        return bytes.toByteArray();
+    }
+
+    Object decode(byte[] encoded){
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded))) {
+            return read(in);
+        }catch (IOException ioe){
+            throw new UncheckedIOException(ioe);
+        }
+    }
+
+    void write(DataOutputStream out, Object value) throws IOException {
+        if(value == null){
+            out.writeByte(NULL);
+        }else if(handles.write(value, out)){
+            return;
+        }else if(value instanceof Boolean){
+            out.writeByte((Boolean) value ? TRUE : FALSE);
+        }else if(value instanceof Integer || value instanceof Short || value instanceof Byte){
+            out.writeByte(INT);
+            writeVarLong(out, ((Number) value).intValue());
+        }else if(value instanceof Long){
+            out.writeByte(LONG);
+            writeVarLong(out, (Long) value);
+        }else if(value instanceof Number){
+            out.writeByte(DOUBLE);
+            out.writeDouble(((Number) value).doubleValue());
+        }else if(value instanceof CharSequence){
+            out.writeByte(STRING);
+            writeString(out, value.toString());
+        }else if(value instanceof byte[]){
+            out.writeByte(BYTES);
+            writeBytes(out, (byte[]) value);
+        }else if(value instanceof Object[]){
+            Object[] array = (Object[]) value;
+            out.writeByte(LIST);
+            writeVarLong(out, array.length);
+            for(Object item : array){
+                write(out, item);
+            }
+        }else if(value instanceof Collection){
+            Collection<?> collection = (Collection<?>) value;
+            out.writeByte(value instanceof Set ? SET : LIST);
+            writeVarLong(out, collection.size());
+            for(Object item : collection){
+                write(out, item);
+            }
+        }else if(value instanceof Map){
+            writeMap(out, MAP, (Map<?, ?>) value);
+        }else if(value instanceof Dimension){
+            Dimension dimension = (Dimension) value;
+            out.writeByte(DIMENSION);
+            writeVarLong(out, dimension.getWidth());
+            writeVarLong(out, dimension.getHeight());
+        }else if(value instanceof Point){
+            Point point = (Point) value;
+            out.writeByte(POINT);
+            writeVarLong(out, point.getX());
+            writeVarLong(out, point.getY());
+        }else if(value instanceof Rectangle){
+            Rectangle rectangle = (Rectangle) value;
+            out.writeByte(RECTANGLE);
+            writeVarLong(out, rectangle.getX());
+            writeVarLong(out, rectangle.getY());
+            writeVarLong(out, rectangle.getWidth());
+            writeVarLong(out, rectangle.getHeight());
+        }else if(value instanceof Cookie){
+            Cookie cookie = (Cookie) value;
+            out.writeByte(COOKIE);
+            writeString(out, cookie.getName());
+            writeString(out, cookie.getValue());
+            writeString(out, cookie.getDomain());
+            writeString(out, cookie.getPath());
+            writeVarLong(out, cookie.getExpiry() == null ? -1 : cookie.getExpiry().getTime());
+            out.writeBoolean(cookie.isSecure());
+            out.writeBoolean(cookie.isHttpOnly());
+        }else if(value instanceof By){
+            out.writeByte(BY);
+            writeString(out, value.toString());
+        }else if(value instanceof Capabilities){
+            writeMap(out, CAPABILITIES, ((Capabilities) value).asMap());
+        }else if(value instanceof File){
+            out.writeByte(FILE);
+            writeBytes(out, Files.readAllBytes(((File) value).toPath()));
+        }else if(value instanceof Encodable){
+            write(out, ((Encodable) value).encode());
+        }else if(value instanceof Enum){
+            out.writeByte(OTHER);
+            writeString(out, value.getClass().getName());
+            writeString(out, ((Enum<?>) value).name());
+        }else {
+            out.writeByte(OTHER);
+            writeString(out, value.getClass().getName());
+            // the default toString holds an identity hash, which would differ between a recording and its replay.
+            writeString(out, hasOwnToString(value) ? value.toString() : null);
+        }
+    }
+
+    Object read(DataInputStream in) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag){
+            case NULL:
+                return null;
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case INT:
+                return (int) readVarLong(in);
+            case LONG:
+                return readVarLong(in);
+            case DOUBLE:
+                return in.readDouble();
+            case STRING:
+                return readString(in);
+            case BYTES:
+                return readBytes(in);
+            case LIST:
+            case SET:
+                int size = (int) readVarLong(in);
+                Collection<Object> collection = tag == SET ? new LinkedHashSet<Object>() : new ArrayList<Object>(size);
+                for(int i = 0; i < size; i++){
+                    collection.add(read(in));
+                }
+                return collection;
+            case MAP:
+                return readMap(in);
+            case DIMENSION:
+                return new Dimension((int) readVarLong(in), (int) readVarLong(in));
+            case POINT:
+                return new Point((int) readVarLong(in), (int) readVarLong(in));
+            case RECTANGLE:
+                int x = (int) readVarLong(in);
+                int y = (int) readVarLong(in);
+                int width = (int) readVarLong(in);
+                int height = (int) readVarLong(in);
+                return new Rectangle(x, y, height, width);
+            case COOKIE:
+                String name = readString(in);
+                String value = readString(in);
+                String domain = readString(in);
+                String path = readString(in);
+                long expiry = readVarLong(in);
+                boolean secure = in.readBoolean();
+                return new Cookie(name, value, domain, path, expiry < 0 ? null : new Date(expiry), secure, in.readBoolean());
+            case BY:
+                return readString(in);
+            case CAPABILITIES:
+                return new DesiredCapabilities(readMap(in));
+            case FILE:
+                File file = File.createTempFile("replay", ".png");
+                file.deleteOnExit();
+                Files.write(file.toPath(), readBytes(in));
+                return file;
+            case OTHER:
+                String type = readString(in);
+                String text = readString(in);
+                return text != null ? text : type;
+            case DRIVER:
+            case ELEMENT:
+            case OBJECT:
+            case COORDINATES:
+                return handles.read(tag, in);
+            default:
+                throw new IOException("Unknown value tag " + tag + " in the command log");
+        }
+    }
+
+    private void writeMap(DataOutputStream out, int tag, Map<?, ?> map) throws IOException {
+        out.writeByte(tag);
+        writeVarLong(out, map.size());
+        for(Map.Entry<?, ?> entry : map.entrySet()){
+            write(out, entry.getKey());
+            write(out, entry.getValue());
+        }
+    }
+
+    private Map<String, Object> readMap(DataInputStream in) throws IOException {
+        int size = (int) readVarLong(in);
+        Map<String, Object> map = new LinkedHashMap<String, Object>();
+        for(int i = 0; i < size; i++){
+            map.put(String.valueOf(read(in)), read(in));
+        }
+        return map;
+    }
+
+    private static boolean hasOwnToString(Object value){
+        try {
+            return value.getClass().getMethod("toString").getDeclaringClass() != Object.class;
+        }catch (NoSuchMethodException nsme){
+            return false;
+        }
+    }
+
+    /**
+     * Writes a zigzag encoded variable length integer: small numbers of either sign take one byte.
+     */
+    static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while((zigzag & ~0x7FL) != 0){
+            out.writeByte((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.writeByte((int) zigzag);
+    }
+
+    static long readVarLong(DataInputStream in) throws IOException {
+        long zigzag = 0;
+        for(int shift = 0; shift < 64; shift += 7){
+            int b = in.readUnsignedByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if((b & 0x80) == 0){
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new IOException("Malformed number in the command log");
+    }
+
+    /**
+     * Writes a string, or null, as its UTF-8 length plus one and its bytes.
+     */
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        if(value == null){
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        long length = readVarLong(in);
+        if(length == 0){
+            return null;
+        }
+        byte[] bytes = new byte[(int) (length - 1)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    static byte[] readBytes(DataInputStream in) throws IOException {
+        long length = readVarLong(in);
+        if(length < 0 || length > Integer.MAX_VALUE){
+            throw new IOException("Malformed length " + length + " in the command log");
+        }
+        byte[] bytes = new byte[(int) length];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,73 @@
+package CodeHouse;
+
+import java.lang.reflect.Method;
+
+/**
+ * One WebDriver command seen by a {@link CommandInterceptor}.
+ */
+public class CommandEvent {
+
+    private final Object target;
+    private final Method method;
+    private final Object[] args;
+    private final Object result;
+    private final Throwable error;
+    private final long nanos;
+
+    CommandEvent(Object target, Method method, Object[] args, Object result, Throwable error, long nanos){
+        this.target = target;
+        this.method = method;
+        this.args = args;
+        this.result = result;
+        this.error = error;
+        this.nanos = nanos;
+    }
+
+    /**
+     *
+     * @return the command name as Interface.method, for example WebElement.click or Options.deleteAllCookies.
+     */
+    public String getCommand(){
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+
+    /**
+     *
+     * @return the real driver, element or sub-interface object the command ran on.
+     */
+    public Object getTarget(){
+        return target;
+    }
+
+    public Method getMethod(){
+        return method;
+    }
+
+    /**
+     *
+     * @return the arguments as passed to the real driver, never null.
+     */
+    public Object[] getArgs(){
+        return args;
+    }
+
+    /**
+     *
+     * @return the value returned by the real driver, or null.
+     */
+    public Object getResult(){
+        return result;
+    }
+
+    /**
+     *
+     * @return the error thrown by the real driver, or null.
+     */
+    public Throwable getError(){
+        return error;
+    }
+
+    public long getNanos(){
+        return nanos;
+    }
+}
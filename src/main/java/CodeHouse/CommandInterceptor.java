@@ -0,0 +1,186 @@
+package CodeHouse;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.Keyboard;
+import org.openqa.selenium.interactions.Mouse;
+import org.openqa.selenium.internal.WrapsDriver;
+import org.openqa.selenium.internal.WrapsElement;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Wraps a WebDriver in a dynamic proxy that reports every command to a {@link CommandListener}.
+ * The proxy keeps all public interfaces of the driver, such as JavascriptExecutor and TakesScreenshot.
+ * Elements, alerts and the objects returned by manage(), switchTo() and navigate() are wrapped as well,
+ * so element and cookie commands are seen too. Wrapped elements implement WrapsElement and are unwrapped
+ * before they are handed back to the real driver, for example as executeScript arguments.
+ */
+public final class CommandInterceptor {
+
+    static final Class<?>[] WRAPPED_TYPES = {
+            WebElement.class, Alert.class, WebDriver.Options.class, WebDriver.TargetLocator.class,
+            WebDriver.Navigation.class, WebDriver.Timeouts.class, WebDriver.Window.class,
+            Keyboard.class, Mouse.class
+    };
+
+    private CommandInterceptor(){
+    }
+
+    /**
+     *
+     * @param driver is the driver to wrap.
+     * @param listener is told about every command.
+     * @return a driver with the same public interfaces that reports to the listener.
+     */
+    public static WebDriver wrap(WebDriver driver, CommandListener listener){
+        Context context = new Context(driver, listener);
+        context.driverProxy = (WebDriver) context.proxy(driver, WrapsDriver.class);
+        return context.driverProxy;
+    }
+
+    /**
+     *
+     * @param value is a value that may be a wrapped driver object, or a list, map or array holding some.
+     * @return the value with every wrapped object replaced by the real one.
+     */
+    public static Object unwrap(Object value){
+        if(value != null && Proxy.isProxyClass(value.getClass()) && Proxy.getInvocationHandler(value) instanceof Handler){
+            return ((Handler) Proxy.getInvocationHandler(value)).target;
+        }
+        if(value instanceof Object[]){
+            Object[] array = (Object[]) value;
+            Object[] copy = (Object[]) Array.newInstance(array.getClass().getComponentType(), array.length);
+            for(int i = 0; i < array.length; i++){
+                copy[i] = unwrap(array[i]);
+            }
+            return copy;
+        }
+        if(value instanceof List){
+            List<Object> copy = new ArrayList<Object>();
+            for(Object item : (List<?>) value){
+                copy.add(unwrap(item));
+            }
+            return copy;
+        }
+        if(value instanceof Map){
+            Map<Object, Object> copy = new LinkedHashMap<Object, Object>();
+            for(Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()){
+                copy.put(entry.getKey(), unwrap(entry.getValue()));
+            }
+            return copy;
+        }
+        return value;
+    }
+
+    private static final class Context {
+
+        private final WebDriver driver;
+        private final CommandListener listener;
+        private WebDriver driverProxy;
+
+        Context(WebDriver driver, CommandListener listener){
+            this.driver = driver;
+            this.listener = listener;
+        }
+
+        Object proxy(Object target, Class<?> wrapsInterface){
+            Set<Class<?>> interfaces = new LinkedHashSet<Class<?>>();
+            for(Class<?> type = target.getClass(); type != null; type = type.getSuperclass()){
+                collectPublicInterfaces(type, interfaces);
+            }
+            if(wrapsInterface != null){
+                interfaces.add(wrapsInterface);
+            }
+            return Proxy.newProxyInstance(CommandInterceptor.class.getClassLoader(),
+                    interfaces.toArray(new Class<?>[interfaces.size()]), new Handler(this, target));
+        }
+
+        Object wrapResult(Object result){
+            if(result == null){
+                return null;
+            }
+            if(result == driver){
+                return driverProxy;
+            }
+            if(result instanceof List){
+                List<Object> wrapped = new ArrayList<Object>();
+                for(Object item : (List<?>) result){
+                    wrapped.add(wrapResult(item));
+                }
+                return wrapped;
+            }
+            if(result instanceof Map){
+                Map<Object, Object> wrapped = new LinkedHashMap<Object, Object>();
+                for(Map.Entry<?, ?> entry : ((Map<?, ?>) result).entrySet()){
+                    wrapped.put(entry.getKey(), wrapResult(entry.getValue()));
+                }
+                return wrapped;
+            }
+            for(Class<?> type : WRAPPED_TYPES){
+                if(type.isInstance(result)){
+                    return proxy(result, result instanceof WebElement ? WrapsElement.class : null);
+                }
+            }
+            return result;
+        }
+
+        private static void collectPublicInterfaces(Class<?> type, Set<Class<?>> interfaces){
+            for(Class<?> candidate : type.getInterfaces()){
+                if(Modifier.isPublic(candidate.getModifiers())){
+                    interfaces.add(candidate);
+                }
+                collectPublicInterfaces(candidate, interfaces);
+            }
+        }
+    }
+
+    private static final class Handler implements InvocationHandler {
+
+        private final Context context;
+        private final Object target;
+
+        Handler(Context context, Object target){
+            this.context = context;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object[] realArgs = args == null ? new Object[0] : (Object[]) unwrap(args);
+            if(method.getDeclaringClass() == Object.class){
+                return method.invoke(target, realArgs);
+            }
+            if(method.getDeclaringClass() == WrapsElement.class && !(target instanceof WrapsElement)){
+                return target;
+            }
+            if(method.getDeclaringClass() == WrapsDriver.class && !(target instanceof WrapsDriver)){
+                return target;
+            }
+            long start = System.nanoTime();
+            Object result = null;
+            Throwable error = null;
+            try {
+                result = method.invoke(target, realArgs);
+                return context.wrapResult(result);
+            }catch (InvocationTargetException ite){
+                error = ite.getCause();
+                throw error;
+            }finally {
+                context.listener.onCommand(new CommandEvent(target, method, realArgs, result, error, System.nanoTime() - start));
+            }
+        }
+    }
+}
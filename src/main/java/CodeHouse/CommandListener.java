@@ -0,0 +1,13 @@
+package CodeHouse;
+
+/**
+ * Receives every WebDriver command run through a driver wrapped by {@link CommandInterceptor}.
+ */
+public interface CommandListener {
+
+    /**
+     * Called after the command has run, on the thread that ran it.
+     * @param event describes the command, its result or error, and its latency.
+     */
+    void onCommand(CommandEvent event);
+}
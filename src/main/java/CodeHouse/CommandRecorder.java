@@ -0,0 +1,224 @@
+package CodeHouse;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.internal.Coordinates;
+import org.openqa.selenium.internal.WrapsDriver;
+import org.openqa.selenium.internal.WrapsElement;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Records every command a driver runs, with its arguments and its result or error, into a compact binary log
+ * that a {@link CommandReplay} can serve back without a browser. The log is gzipped, names each command once,
+ * and refers to elements by number, so a flow of a few thousand commands takes a few kilobytes.
+ * Close the recorder when the flow is done; the log is complete only after that.
+ *
+ * <pre>
+ *     CommandRecorder recorder = new CommandRecorder(Paths.get("target/recordings/checkout.cmdlog"), new ChromeDriver());
+ *     new CheckoutFlow(new Page(new PageSession(recorder.getDriver()))).run();
+ *     recorder.close();
+ * </pre>
+ */
+public class CommandRecorder implements CommandListener, Closeable {
+
+    private final DataOutputStream out;
+    private final WebDriver driver;
+    private final WebDriver recordingDriver;
+    private final CommandCodec codec = new CommandCodec(new RecordingHandles());
+    private final Map<String, Integer> names = new HashMap<String, Integer>();
+    private final Map<Object, Integer> elements = new HashMap<Object, Integer>();
+    private final Map<Object, Integer> coordinates = new IdentityHashMap<Object, Integer>();
+    private int count;
+    private IOException failure;
+    private boolean closed;
+
+    /**
+     *
+     * @param file is where the log is written. Missing directories are created and an existing file is replaced.
+     * @param driver is the driver to record.
+     * @throws IOException if the file cannot be created.
+     */
+    public CommandRecorder(Path file, WebDriver driver) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        this.out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(file), 8192), 8192));
+        this.driver = driver;
+        Set<Class<?>> interfaces = new LinkedHashSet<Class<?>>();
+        for(Class<?> type = driver.getClass(); type != null; type = type.getSuperclass()){
+            collectPublicInterfaces(type, interfaces);
+        }
+        out.writeInt(CommandCodec.MAGIC);
+        out.writeByte(CommandCodec.VERSION);
+        CommandCodec.writeVarLong(out, interfaces.size());
+        for(Class<?> type : interfaces){
+            CommandCodec.writeString(out, type.getName());
+        }
+        this.recordingDriver = CommandInterceptor.wrap(driver, this);
+    }
+
+    /**
+     *
+     * @return the driver to run the flow with. Every command it runs is recorded.
+     */
+    public WebDriver getDriver(){
+        return recordingDriver;
+    }
+
+    /**
+     *
+     * @return the number of commands recorded so far.
+     */
+    public synchronized int getCount(){
+        return count;
+    }
+
+    @Override
+    public synchronized void onCommand(CommandEvent event){
+        Class<?> type = event.getMethod().getDeclaringClass();
+        if(closed || failure != null || type == WrapsDriver.class || type == WrapsElement.class){
+            return;
+        }
+        if(event.getResult() instanceof Coordinates && event.getTarget() instanceof WebElement){
+            coordinates.put(event.getResult(), elementId(event.getTarget()));
+        }
+        try {
+            writeName(event.getCommand());
+            CommandCodec.writeBytes(out, codec.encodeCommand(event.getTarget(), event.getArgs()));
+            Throwable error = event.getError();
+            if(error == null){
+                out.writeByte(0);
+                CommandCodec.writeBytes(out, codec.encode(event.getResult()));
+            }else {
+                out.writeByte(1);
+                writeName(error.getClass().getName());
+                CommandCodec.writeString(out, messageOf(error));
+            }
+            CommandCodec.writeVarLong(out, TimeUnit.NANOSECONDS.toMicros(event.getNanos()));
+            count++;
+        }catch (IOException | RuntimeException e){
+            // the flow goes on; the recorder reports the failure when it is closed.
+            failure = e instanceof IOException ? (IOException) e : new IOException("Could not record " + event.getCommand(), e);
+        }
+    }
+
+    /**
+     * Finishes the log. Commands run after this are not recorded.
+     * @throws IOException if the log could not be written completely.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if(closed){
+            return;
+        }
+        closed = true;
+        try {
+            out.close();
+        }catch (IOException ioe){
+            if(failure == null){
+                failure = ioe;
+            }
+        }
+        if(failure != null){
+            throw failure;
+        }
+    }
+
+    private void writeName(String name) throws IOException {
+        Integer index = names.get(name);
+        if(index != null){
+            CommandCodec.writeVarLong(out, index);
+            return;
+        }
+        CommandCodec.writeVarLong(out, names.size());
+        CommandCodec.writeString(out, name);
+        names.put(name, names.size());
+    }
+
+    private int elementId(Object element){
+        Integer id = elements.get(element);
+        if(id == null){
+            id = elements.size() + 1;
+            elements.put(element, id);
+        }
+        return id;
+    }
+
+    /**
+     *
+     * @return the message the error was created with, without the build and system information Selenium adds to it.
+     */
+    private static String messageOf(Throwable error){
+        String message = error.getMessage();
+        if(message == null || !(error instanceof WebDriverException)){
+            return message;
+        }
+        for(String marker : new String[]{"\nFor documentation on this error", "\nBuild info: "}){
+            int end = message.indexOf(marker);
+            if(end >= 0){
+                return message.substring(0, end);
+            }
+        }
+        return message;
+    }
+
+    private static void collectPublicInterfaces(Class<?> type, Set<Class<?>> interfaces){
+        for(Class<?> candidate : type.getInterfaces()){
+            if(Modifier.isPublic(candidate.getModifiers())){
+                interfaces.add(candidate);
+            }
+            collectPublicInterfaces(candidate, interfaces);
+        }
+    }
+
+    /**
+     * Writes the real driver, its elements and its sub-interface objects as handles.
+     */
+    private final class RecordingHandles implements CommandCodec.Handles {
+
+        public boolean write(Object value, DataOutputStream out) throws IOException {
+            if(value == driver){
+                out.writeByte(CommandCodec.DRIVER);
+                return true;
+            }
+            if(value instanceof WebElement){
+                out.writeByte(CommandCodec.ELEMENT);
+                CommandCodec.writeVarLong(out, elementId(value));
+                return true;
+            }
+            Integer element = coordinates.get(value);
+            if(element != null){
+                out.writeByte(CommandCodec.COORDINATES);
+                CommandCodec.writeVarLong(out, element);
+                return true;
+            }
+            for(Class<?> type : CommandInterceptor.WRAPPED_TYPES){
+                if(type.isInstance(value)){
+                    out.writeByte(CommandCodec.OBJECT);
+                    CommandCodec.writeString(out, type.getName());
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public Object read(int tag, DataInputStream in) throws IOException {
+            throw new IOException("A recorder does not read logs");
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package CodeHouse;
+
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.internal.Coordinates;
+import org.openqa.selenium.internal.WrapsDriver;
+import org.openqa.selenium.internal.WrapsElement;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Serves a log written by a {@link CommandRecorder} through a WebDriver that needs no browser. Every command
+ * run on the replay driver, its elements and its sub-interfaces must be the next command of the recording;
+ * it then returns the recorded result or throws the recorded error at once. A flow that runs other commands
+ * than it did while recording fails with a {@link ReplayMismatchException} naming the first difference.
+ * The replay driver implements the same public interfaces as the recorded driver.
+ * Waits and helpers that compute their arguments from the clock, such as observer waits, only replay with
+ * {@link #setMatchArguments(boolean)} turned off.
+ *
+ * <pre>
+ *     CommandReplay replay = CommandReplay.load(Paths.get("target/recordings/checkout.cmdlog"));
+ *     new CheckoutFlow(new Page(new PageSession(replay.getDriver()))).run();
+ *     replay.verifyComplete();
+ * </pre>
+ */
+public class CommandReplay {
+
+    // Locatable is deprecated, but the Actions of Selenium 3.6 still need it to move to an element.
+    @SuppressWarnings("deprecation")
+    private static final Class<?>[] ELEMENT_TYPES = {WebElement.class, org.openqa.selenium.internal.Locatable.class,
+            TakesScreenshot.class, WrapsDriver.class};
+
+    private final List<RecordedCommand> commands;
+    private final ReplayHandles handles = new ReplayHandles();
+    private final CommandCodec codec = new CommandCodec(handles);
+    private final Map<Long, Object> elements = new HashMap<Long, Object>();
+    private final Map<String, Object> objects = new HashMap<String, Object>();
+    private final WebDriver driver;
+    private boolean matchArguments = true;
+    private int position;
+
+    private CommandReplay(List<RecordedCommand> commands, List<Class<?>> interfaces){
+        this.commands = Collections.unmodifiableList(commands);
+        Set<Class<?>> types = new LinkedHashSet<Class<?>>(interfaces);
+        types.add(WebDriver.class);
+        types.add(WrapsDriver.class);
+        this.driver = (WebDriver) proxy(types, new Handle(CommandCodec.DRIVER, 0, null));
+    }
+
+    /**
+     *
+     * @param file is a log written by a {@link CommandRecorder}.
+     * @return a replay positioned at the first command.
+     * @throws IOException if the file cannot be read or is not a command log.
+     */
+    public static CommandReplay load(Path file) throws IOException {
+        try (InputStream raw = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(raw, 8192), 8192))) {
+            if(in.readInt() != CommandCodec.MAGIC){
+                throw new IOException(file + " is not a command log");
+            }
+            int version = in.readUnsignedByte();
+            if(version != CommandCodec.VERSION){
+                throw new IOException(file + " is a command log of version " + version + ", only version " + CommandCodec.VERSION + " can be read");
+            }
+            List<Class<?>> interfaces = new ArrayList<Class<?>>();
+            for(long i = CommandCodec.readVarLong(in); i > 0; i--){
+                String name = CommandCodec.readString(in);
+                try {
+                    interfaces.add(Class.forName(name, false, CommandReplay.class.getClassLoader()));
+                }catch (ClassNotFoundException cnfe){
+                    // an interface of a driver library that is not on this classpath cannot be used by the flow either.
+                }
+            }
+            List<String> names = new ArrayList<String>();
+            List<RecordedCommand> commands = new ArrayList<RecordedCommand>();
+            while(true){
+                in.mark(1);
+                if(in.read() == -1){
+                    break;
+                }
+                in.reset();
+                String command = readName(in, names);
+                byte[] key = CommandCodec.readBytes(in);
+                byte[] result = null;
+                String errorType = null;
+                String errorMessage = null;
+                if(in.readUnsignedByte() == 0){
+                    result = CommandCodec.readBytes(in);
+                }else {
+                    errorType = readName(in, names);
+                    errorMessage = CommandCodec.readString(in);
+                }
+                commands.add(new RecordedCommand(commands.size(), command, key, result, errorType, errorMessage, CommandCodec.readVarLong(in)));
+            }
+            return new CommandReplay(commands, interfaces);
+        }
+    }
+
+    /**
+     *
+     * @return the driver that serves the recording.
+     */
+    public WebDriver getDriver(){
+        return driver;
+    }
+
+    /**
+     *
+     * @return all commands of the recording, in order.
+     */
+    public List<RecordedCommand> getCommands(){
+        return commands;
+    }
+
+    /**
+     *
+     * @param matchArguments is false to match commands by name and target only, for flows whose arguments change
+     *                       from run to run. Defaults to true.
+     */
+    public synchronized void setMatchArguments(boolean matchArguments){
+        this.matchArguments = matchArguments;
+    }
+
+    /**
+     *
+     * @return the number of commands served so far.
+     */
+    public synchronized int getPosition(){
+        return position;
+    }
+
+    /**
+     *
+     * @return the number of recorded commands not served yet.
+     */
+    public synchronized int getRemaining(){
+        return commands.size() - position;
+    }
+
+    /**
+     * Starts the recording over, for example to replay it with another version of the flow.
+     */
+    public synchronized void rewind(){
+        position = 0;
+    }
+
+    /**
+     * Checks that the flow ran every recorded command.
+     * @throws ReplayMismatchException naming the first command that was not run.
+     */
+    public synchronized void verifyComplete(){
+        if(position < commands.size()){
+            throw new ReplayMismatchException(position, commands.get(position), null);
+        }
+    }
+
+    private synchronized Object replay(Handle target, Method method, Object[] args){
+        byte[] key = codec.encodeCommand(target, args);
+        RecordedCommand expected = position < commands.size() ? commands.get(position) : null;
+        if(expected == null || !expected.getMethodName().equals(method.getName())
+                || !(matchArguments ? Arrays.equals(key, expected.getKey()) : sameTarget(key, expected.getKey()))){
+            Object[] decoded = RecordedCommand.labels().decodeCommand(key);
+            throw new ReplayMismatchException(position, expected,
+                    RecordedCommand.describe(method.getDeclaringClass().getSimpleName() + "." + method.getName(), decoded));
+        }
+        position++;
+        if(expected.isFailed()){
+            throw rebuild(expected.getErrorType(), expected.getErrorMessage());
+        }
+        return coerce(codec.decode(expected.getResult()), method.getReturnType());
+    }
+
+    private boolean sameTarget(byte[] actual, byte[] expected){
+        Object[] a = RecordedCommand.labels().decodeCommand(actual);
+        Object[] e = RecordedCommand.labels().decodeCommand(expected);
+        return String.valueOf(a[0]).equals(String.valueOf(e[0])) && a.length == e.length;
+    }
+
+    private static String readName(DataInputStream in, List<String> names) throws IOException {
+        long index = CommandCodec.readVarLong(in);
+        if(index == names.size()){
+            names.add(CommandCodec.readString(in));
+        }else if(index < 0 || index > names.size()){
+            throw new IOException("Malformed name reference " + index + " in the command log");
+        }
+        return names.get((int) index);
+    }
+
+    /**
+     *
+     * @return the recorded error, as its own class when it has a message constructor.
+     */
+    private static RuntimeException rebuild(String type, String message){
+        try {
+            Class<?> errorClass = Class.forName(type, false, CommandReplay.class.getClassLoader());
+            if(RuntimeException.class.isAssignableFrom(errorClass)){
+                return (RuntimeException) errorClass.getConstructor(String.class).newInstance(message);
+            }
+        }catch (ReflectiveOperationException | LinkageError e){
+            // fall through to a plain WebDriverException that names the recorded class.
+        }
+        return new WebDriverException(type + ": " + message);
+    }
+
+    private static Object coerce(Object value, Class<?> type){
+        if(value == null || type == void.class){
+            return null;
+        }
+        if(value instanceof Number && (type == int.class || type == Integer.class)){
+            return ((Number) value).intValue();
+        }
+        if(value instanceof Number && (type == long.class || type == Long.class)){
+            return ((Number) value).longValue();
+        }
+        if(value instanceof Collection && type == Set.class && !(value instanceof Set)){
+            return new LinkedHashSet<Object>((Collection<?>) value);
+        }
+        return value;
+    }
+
+    private Object proxy(Collection<Class<?>> interfaces, Handle handle){
+        return Proxy.newProxyInstance(CommandReplay.class.getClassLoader(), interfaces.toArray(new Class<?>[interfaces.size()]),
+                new ReplayHandler(handle));
+    }
+
+    private Object element(long id){
+        Object element = elements.get(id);
+        if(element == null){
+            element = proxy(Arrays.asList(ELEMENT_TYPES), new Handle(CommandCodec.ELEMENT, id, null));
+            elements.put(id, element);
+        }
+        return element;
+    }
+
+    private Object object(String typeName) throws IOException {
+        Object object = objects.get(typeName);
+        if(object == null){
+            try {
+                Class<?> type = Class.forName(typeName, false, CommandReplay.class.getClassLoader());
+                object = proxy(Collections.<Class<?>>singletonList(type), new Handle(CommandCodec.OBJECT, 0, typeName));
+            }catch (ClassNotFoundException cnfe){
+                throw new IOException("The recording uses " + typeName + ", which is not on the classpath", cnfe);
+            }
+            objects.put(typeName, object);
+        }
+        return object;
+    }
+
+    /**
+     * What a replay proxy stands for: the driver, element number id, an object of a sub-interface, or the
+     * coordinates of element number id.
+     */
+    private static final class Handle {
+
+        private final int tag;
+        private final long id;
+        private final String type;
+
+        Handle(int tag, long id, String type){
+            this.tag = tag;
+            this.id = id;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object other){
+            return other instanceof Handle && ((Handle) other).tag == tag && ((Handle) other).id == id
+                    && String.valueOf(((Handle) other).type).equals(String.valueOf(type));
+        }
+
+        @Override
+        public int hashCode(){
+            return (tag * 31 + (int) id) * 31 + String.valueOf(type).hashCode();
+        }
+
+        @Override
+        public String toString(){
+            return tag == CommandCodec.DRIVER ? "replay driver" : tag == CommandCodec.ELEMENT ? "element#" + id
+                    : tag == CommandCodec.COORDINATES ? "coordinates of element#" + id : type;
+        }
+    }
+
+    /**
+     * Writes replay proxies as the handles they stand for, and reads handles as replay proxies.
+     */
+    private final class ReplayHandles implements CommandCodec.Handles {
+
+        public boolean write(Object value, DataOutputStream out) throws IOException {
+            Handle handle = value instanceof Handle ? (Handle) value : handleOf(value);
+            if(handle == null){
+                return false;
+            }
+            out.writeByte(handle.tag);
+            if(handle.tag == CommandCodec.OBJECT){
+                CommandCodec.writeString(out, handle.type);
+            }else if(handle.tag != CommandCodec.DRIVER){
+                CommandCodec.writeVarLong(out, handle.id);
+            }
+            return true;
+        }
+
+        public Object read(int tag, DataInputStream in) throws IOException {
+            switch (tag){
+                case CommandCodec.DRIVER:
+                    return driver;
+                case CommandCodec.ELEMENT:
+                    return element(CommandCodec.readVarLong(in));
+                case CommandCodec.COORDINATES:
+                    return proxy(Collections.<Class<?>>singletonList(Coordinates.class),
+                            new Handle(CommandCodec.COORDINATES, CommandCodec.readVarLong(in), null));
+                default:
+                    return object(CommandCodec.readString(in));
+            }
+        }
+
+        private Handle handleOf(Object value){
+            if(value != null && Proxy.isProxyClass(value.getClass()) && Proxy.getInvocationHandler(value) instanceof ReplayHandler){
+                return ((ReplayHandler) Proxy.getInvocationHandler(value)).handle;
+            }
+            return null;
+        }
+    }
+
+    private final class ReplayHandler implements InvocationHandler {
+
+        private final Handle handle;
+
+        ReplayHandler(Handle handle){
+            this.handle = handle;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if(method.getDeclaringClass() == Object.class){
+                switch (method.getName()){
+                    case "equals":
+                        return args[0] != null && Proxy.isProxyClass(args[0].getClass())
+                                && handle.equals(handles.handleOf(args[0]));
+                    case "hashCode":
+                        return handle.hashCode();
+                    default:
+                        return handle.toString();
+                }
+            }
+            if(method.getDeclaringClass() == WrapsDriver.class){
+                return driver;
+            }
+            if(method.getDeclaringClass() == WrapsElement.class){
+                return proxy;
+            }
+            if(handle.tag == CommandCodec.COORDINATES){
+                if(method.getName().equals("getAuxiliary")){
+                    return "element#" + handle.id;
+                }
+                throw new WebDriverException("Coordinates are not recorded, only the commands that use them");
+            }
+            return replay(handle, method, args == null ? new Object[0] : args);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package CodeHouse;
+
+import org.apache.commons.logging.Log;
+
+import java.util.logging.Level;
+
+/**
+ * Writes Page messages to a commons-logging Log, for example a Log4JLogger.
+ * SEVERE maps to error, WARNING to warn, INFO and CONFIG to info, FINE to debug and anything finer to trace.
+ */
+public class CommonsPageLogger implements PageLogger {
+
+    private final Log log;
+
+    /**
+     *
+     * @param log is the commons-logging Log to write to.
+     */
+    public CommonsPageLogger(Log log){
+        this.log = log;
+    }
+
+    @Override
+    public boolean isEnabled(Level level){
+        int value = level.intValue();
+        if(value >= Level.SEVERE.intValue()){
+            return log.isErrorEnabled();
+        }else if(value >= Level.WARNING.intValue()){
+            return log.isWarnEnabled();
+        }else if(value >= Level.CONFIG.intValue()){
+            return log.isInfoEnabled();
+        }else if(value >= Level.FINE.intValue()){
+            return log.isDebugEnabled();
+        }
+        return log.isTraceEnabled();
+    }
+
+    @Override
+    public void log(Level level, String message){
+        int value = level.intValue();
+        if(value >= Level.SEVERE.intValue()){
+            log.error(message);
+        }else if(value >= Level.WARNING.intValue()){
+            log.warn(message);
+        }else if(value >= Level.CONFIG.intValue()){
+            log.info(message);
+        }else if(value >= Level.FINE.intValue()){
+            log.debug(message);
+        }else{
+            log.trace(message);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package CodeHouse;
+
+import org.openqa.selenium.InvalidSelectorException;
+
+/**
+ * Translates CSS selectors into XPath 1.0 expressions, so that {@link DomSnapshot} can answer CSS queries
+ * with the XPath engine of the JDK. Supported are type, universal, id, class and attribute selectors with
+ * the =, ~=, |=, ^=, $= and *= operators, the descendant, child, next sibling and subsequent sibling combinators,
+ * selector lists, and the pseudo classes first-child, last-child, only-child, nth-child(n|odd|even), first-of-type
+ * and last-of-type after a type selector, empty and not(compound selector).
+ */
+final class CssToXPath {
+
+    private final String css;
+    private int pos;
+
+    private CssToXPath(String css){
+        this.css = css;
+    }
+
+    /**
+     *
+     * @param css is the selector list.
+     * @return an XPath expression that selects the matching elements below the context node, in document order.
+     * @throws InvalidSelectorException if the selector uses syntax that is not supported.
+     */
+    static String translate(String css){
+        return new CssToXPath(css.trim()).selectorList();
+    }
+
+    private String selectorList(){
+        StringBuilder xpath = new StringBuilder();
+        while(true){
+            xpath.append(selector());
+            skipSpaces();
+            if(pos >= css.length()){
+                return xpath.toString();
+            }
+            expect(',');
+            xpath.append(" | ");
+        }
+    }
+
+    private String selector(){
+        skipSpaces();
+        StringBuilder xpath = new StringBuilder("descendant::").append(compound());
+        while(true){
+            boolean space = skipSpaces();
+            if(pos >= css.length() || peek() == ','){
+                return xpath.toString();
+            }
+            char c = peek();
+            if(c == '>'){
+                pos++;
+                skipSpaces();
+                xpath.append("/").append(compound());
+            }else if(c == '+'){
+                pos++;
+                skipSpaces();
+                xpath.append("/following-sibling::*[1]/self::").append(compound());
+            }else if(c == '~'){
+                pos++;
+                skipSpaces();
+                xpath.append("/following-sibling::").append(compound());
+            }else if(space){
+                xpath.append("/descendant::").append(compound());
+            }else {
+                throw invalid("Unexpected character '" + c + "'");
+            }
+        }
+    }
+
+    private String compound(){
+        int start = pos;
+        String tag = "*";
+        if(pos < css.length() && (peek() == '*' || isNameChar(peek()))){
+            tag = peek() == '*' ? consume("*") : identifier().toLowerCase();
+        }
+        StringBuilder conditions = new StringBuilder();
+        while(pos < css.length()){
+            char c = peek();
+            if(c == '#'){
+                pos++;
+                conditions.append("[@id=").append(literal(identifier())).append("]");
+            }else if(c == '.'){
+                pos++;
+                conditions.append("[").append(containsWord("@class", identifier())).append("]");
+            }else if(c == '['){
+                conditions.append("[").append(attribute()).append("]");
+            }else if(c == ':'){
+                conditions.append("[").append(pseudo(tag)).append("]");
+            }else {
+                break;
+            }
+        }
+        if(pos == start){
+            throw invalid("Expected a selector");
+        }
+        return tag + conditions;
+    }
+
+    private String attribute(){
+        expect('[');
+        skipSpaces();
+        String name = "@" + identifier();
+        skipSpaces();
+        if(peek() == ']'){
+            pos++;
+            return name;
+        }
+        String operator = peek() == '=' ? consume("=") : consume(css.substring(pos, Math.min(pos + 2, css.length())));
+        skipSpaces();
+        String value = peek() == '"' || peek() == '\'' ? quoted() : identifier();
+        skipSpaces();
+        expect(']');
+        String literal = literal(value);
+        switch (operator){
+            case "=": return name + "=" + literal;
+            case "~=": return containsWord(name, value);
+            case "|=": return "(" + name + "=" + literal + " or starts-with(" + name + ", " + literal(value + "-") + "))";
+            case "^=": return "starts-with(" + name + ", " + literal + ")";
+            case "$=": return "substring(" + name + ", string-length(" + name + ") - " + value.length() + " + 1)=" + literal;
+            case "*=": return "contains(" + name + ", " + literal + ")";
+            default: throw invalid("Unsupported attribute operator " + operator);
+        }
+    }
+
+    private String pseudo(String tag){
+        expect(':');
+        String name = identifier().toLowerCase();
+        switch (name){
+            case "first-child": return "not(preceding-sibling::*)";
+            case "last-child": return "not(following-sibling::*)";
+            case "only-child": return "not(preceding-sibling::*) and not(following-sibling::*)";
+            case "first-of-type": return "not(preceding-sibling::" + typed(tag, name) + ")";
+            case "last-of-type": return "not(following-sibling::" + typed(tag, name) + ")";
+            case "empty": return "not(node())";
+            case "nth-child": return nthChild(argument());
+            case "not":
+                expect('(');
+                skipSpaces();
+                String inner = compound();
+                skipSpaces();
+                expect(')');
+                return "not(self::" + inner + ")";
+            default: throw invalid("Unsupported pseudo class :" + name);
+        }
+    }
+
+    /**
+     * @return the type of the compound selector. XPath 1.0 cannot compare the name of a sibling with the name
+     * of the element being tested, so the of-type classes are only supported after a type selector.
+     */
+    private String typed(String tag, String pseudo){
+        if(tag.equals("*")){
+            throw invalid(":" + pseudo + " needs a type selector, as in li:" + pseudo);
+        }
+        return tag;
+    }
+
+    private String nthChild(String argument){
+        String position = "count(preceding-sibling::*) + 1";
+        if(argument.equals("odd")){
+            return "(" + position + ") mod 2 = 1";
+        }
+        if(argument.equals("even")){
+            return "(" + position + ") mod 2 = 0";
+        }
+        try {
+            return position + " = " + Integer.parseInt(argument);
+        }catch (NumberFormatException nfe){
+            throw invalid("Unsupported :nth-child argument " + argument);
+        }
+    }
+
+    private String argument(){
+        expect('(');
+        int end = css.indexOf(')', pos);
+        if(end < 0){
+            throw invalid("Missing )");
+        }
+        String argument = css.substring(pos, end).trim().toLowerCase();
+        pos = end + 1;
+        return argument;
+    }
+
+    private String identifier(){
+        int start = pos;
+        StringBuilder name = new StringBuilder();
+        while(pos < css.length()){
+            char c = peek();
+            if(c == '\\' && pos + 1 < css.length()){
+                name.append(css.charAt(pos + 1));
+                pos += 2;
+            }else if(isNameChar(c)){
+                name.append(c);
+                pos++;
+            }else {
+                break;
+            }
+        }
+        if(pos == start){
+            throw invalid("Expected a name");
+        }
+        return name.toString();
+    }
+
+    private String quoted(){
+        char quote = css.charAt(pos++);
+        StringBuilder value = new StringBuilder();
+        while(pos < css.length() && peek() != quote){
+            if(peek() == '\\' && pos + 1 < css.length()){
+                pos++;
+            }
+            value.append(css.charAt(pos++));
+        }
+        expect(quote);
+        return value.toString();
+    }
+
+    private static String containsWord(String attribute, String word){
+        return "contains(concat(' ', normalize-space(" + attribute + "), ' '), " + literal(" " + word + " ") + ")";
+    }
+
+    /**
+     * @return the value as an XPath string literal, using concat when it holds both kinds of quotes.
+     */
+    static String literal(String value){
+        if(value.indexOf('\'') < 0){
+            return "'" + value + "'";
+        }
+        if(value.indexOf('"') < 0){
+            return "\"" + value + "\"";
+        }
+        return "concat('" + value.replace("'", "', \"'\", '") + "')";
+    }
+
+    private boolean skipSpaces(){
+        int start = pos;
+        while(pos < css.length() && Character.isWhitespace(peek())){
+            pos++;
+        }
+        return pos > start;
+    }
+
+    private void expect(char c){
+        if(pos >= css.length() || peek() != c){
+            throw invalid("Expected '" + c + "'");
+        }
+        pos++;
+    }
+
+    private String consume(String token){
+        pos += token.length();
+        return token;
+    }
+
+    private char peek(){
+        return pos < css.length() ? css.charAt(pos) : '\0';
+    }
+
+    private static boolean isNameChar(char c){
+        return Character.isLetterOrDigit(c) || c == '-' || c == '_' || c > 127;
+    }
+
+    private InvalidSelectorException invalid(String reason){
+        return new InvalidSelectorException(reason + " at position " + pos + " of CSS selector: " + css);
+    }
+}
@@ -0,0 +1,458 @@
+package CodeHouse;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.InvalidSelectorException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebElement;
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A copy of the DOM of the page, or of one element, taken with one script call.
+ * CSS, XPath and By queries, texts and attributes are then answered in the JVM without touching the browser,
+ * which makes long verification passes over a page that does not change fast. The copy does not follow
+ * later changes of the page; take a new snapshot after interacting with it, and use the live elements for interaction.
+ * A snapshot is not thread safe.
+ */
+public class DomSnapshot {
+
+    private static final String CAPTURE_SCRIPT =
+            "var root = arguments[0] || document.documentElement;\n" +
+            "function ser(n) {\n" +
+            "  if (n.nodeType === 3) { var t = n.nodeValue.replace(/\\s+/g, ' '); return t.length ? t : null; }\n" +
+            "  if (n.nodeType !== 1) return null;\n" +
+            "  var a = [], c = [], tag = n.tagName.toLowerCase();\n" +
+            "  for (var i = 0; i < n.attributes.length; i++) a.push(n.attributes[i].name, n.attributes[i].value);\n" +
+            "  var kids = tag === 'template' ? [] : n.childNodes;\n" +
+            "  for (var j = 0; j < kids.length; j++) { var s = ser(kids[j]); if (s !== null) c.push(s); }\n" +
+            "  var hidden = tag === 'option' || tag === 'optgroup' ? 0 : n.getClientRects().length ? 0 : 1;\n" +
+            "  var state = null;\n" +
+            "  if (tag === 'input' || tag === 'textarea' || tag === 'select' || tag === 'option') state = [String(n.value), !!(n.checked || n.selected)];\n" +
+            "  return [tag, a, c, hidden, state];\n" +
+            "}\n" +
+            "return ser(root);";
+
+    private static final Set<String> SKIPPED_TEXT = new HashSet<String>(Arrays.asList("script", "style", "noscript", "template", "head"));
+    private static final Set<String> BLOCKS = new HashSet<String>(Arrays.asList(
+            "address", "article", "aside", "blockquote", "dd", "div", "dl", "dt", "fieldset", "figcaption", "figure", "footer",
+            "form", "h1", "h2", "h3", "h4", "h5", "h6", "header", "hr", "li", "main", "nav", "ol", "p", "pre", "section",
+            "table", "tr", "ul", "option", "caption", "thead", "tbody", "tfoot"));
+    private static final String HIDDEN = "codebreeze.hidden";
+    private static final String VALUE = "codebreeze.value";
+    private static final String CHECKED = "codebreeze.checked";
+    private static final String TAG = "codebreeze.tag";
+    private static final String UNNAMED = "codebreeze.unnamed";
+
+    private final Document document;
+    private final XPath xpath = XPathFactory.newInstance().newXPath();
+    private final Map<String, XPathExpression> compiled = new HashMap<String, XPathExpression>();
+    private final Map<Element, Node> nodes = new HashMap<Element, Node>();
+    private int size;
+
+    private DomSnapshot(Object serialized){
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            document = factory.newDocumentBuilder().newDocument();
+        }catch (ParserConfigurationException pce){
+            throw new IllegalStateException("No XML document builder available", pce);
+        }
+        if(serialized != null){
+            document.appendChild(build((List<?>) serialized));
+        }
+    }
+
+    /**
+     *
+     * @param executor is the driver to read the DOM with.
+     * @return a snapshot of the whole document.
+     */
+    public static DomSnapshot capture(JavascriptExecutor executor){
+        return new DomSnapshot(executor.executeScript(CAPTURE_SCRIPT, (Object) null));
+    }
+
+    /**
+     *
+     * @param executor is the driver to read the DOM with.
+     * @param root is the element whose subtree is copied.
+     * @return a snapshot of the element and everything below it.
+     */
+    public static DomSnapshot capture(JavascriptExecutor executor, WebElement root){
+        return new DomSnapshot(executor.executeScript(CAPTURE_SCRIPT, root));
+    }
+
+    /**
+     *
+     * @return the number of elements in the snapshot.
+     */
+    public int size(){
+        return size;
+    }
+
+    /**
+     *
+     * @return the element the snapshot was taken of, usually html.
+     * @throws NoSuchElementException if the snapshot is empty.
+     */
+    public Node getRoot(){
+        if(document.getDocumentElement() == null){
+            throw new NoSuchElementException("The snapshot is empty");
+        }
+        return node(document.getDocumentElement());
+    }
+
+    /**
+     *
+     * @param cssSelector is the CSS selector to match, for example {@code table.results td:first-child}.
+     * @return the matching elements in document order.
+     */
+    public List<Node> findElements(String cssSelector){
+        return query(document, CssToXPath.translate(cssSelector));
+    }
+
+    /**
+     *
+     * @param cssSelector is the CSS selector to match.
+     * @return the first matching element.
+     * @throws NoSuchElementException if nothing matches.
+     */
+    public Node findElement(String cssSelector){
+        return first(findElements(cssSelector), cssSelector);
+    }
+
+    /**
+     *
+     * @param locator is an id, name, class name, tag name, CSS, XPath or link text locator.
+     * @return the matching elements in document order.
+     */
+    public List<Node> findElements(By locator){
+        return query(document, toXPath(locator));
+    }
+
+    /**
+     *
+     * @param locator is an id, name, class name, tag name, CSS, XPath or link text locator.
+     * @return the first matching element.
+     * @throws NoSuchElementException if nothing matches.
+     */
+    public Node findElement(By locator){
+        return first(findElements(locator), locator.toString());
+    }
+
+    /**
+     *
+     * @param expression is an XPath 1.0 expression that selects elements. Element names are lower case.
+     * @return the matching elements in document order.
+     */
+    public List<Node> findByXPath(String expression){
+        return query(document, expression);
+    }
+
+    /**
+     *
+     * @param cssSelector is the CSS selector to match.
+     * @return the text of every matching element.
+     */
+    public List<String> getTexts(String cssSelector){
+        List<String> texts = new ArrayList<String>();
+        for(Node node : findElements(cssSelector)){
+            texts.add(node.getText());
+        }
+        return texts;
+    }
+
+    private Element build(List<?> serialized){
+        String tag = (String) serialized.get(0);
+        Element element;
+        try {
+            element = document.createElement(tag);
+        }catch (DOMException de){
+            // tag names like a@b are valid in HTML but not in XML; the element keeps its place and its children,
+            // but type selectors cannot match it.
+            element = document.createElement(UNNAMED);
+            element.setUserData(TAG, tag, null);
+        }
+        size++;
+        List<?> attributes = (List<?>) serialized.get(1);
+        for(int i = 0; i + 1 < attributes.size(); i += 2){
+            try {
+                element.setAttribute((String) attributes.get(i), (String) attributes.get(i + 1));
+            }catch (DOMException de){
+                // attribute names like @click are valid in HTML but not in XML; they cannot be queried anyway.
+            }
+        }
+        for(Object child : (List<?>) serialized.get(2)){
+            if(child instanceof String){
+                element.appendChild(document.createTextNode((String) child));
+            }else {
+                element.appendChild(build((List<?>) child));
+            }
+        }
+        if(((Number) serialized.get(3)).intValue() == 1){
+            element.setUserData(HIDDEN, Boolean.TRUE, null);
+        }
+        List<?> state = (List<?>) serialized.get(4);
+        if(state != null){
+            element.setUserData(VALUE, state.get(0), null);
+            element.setUserData(CHECKED, state.get(1), null);
+        }
+        return element;
+    }
+
+    private List<Node> query(Object context, String expression){
+        try {
+            XPathExpression xpathExpression = compiled.get(expression);
+            if(xpathExpression == null){
+                xpathExpression = xpath.compile(expression);
+                compiled.put(expression, xpathExpression);
+            }
+            NodeList matches = (NodeList) xpathExpression.evaluate(context, XPathConstants.NODESET);
+            List<Node> found = new ArrayList<Node>(matches.getLength());
+            for(int i = 0; i < matches.getLength(); i++){
+                if(matches.item(i) instanceof Element){
+                    found.add(node((Element) matches.item(i)));
+                }
+            }
+            return found;
+        }catch (XPathExpressionException xee){
+            throw new InvalidSelectorException("Invalid XPath expression: " + expression, xee);
+        }
+    }
+
+    private Node node(Element element){
+        Node node = nodes.get(element);
+        if(node == null){
+            node = new Node(element);
+            nodes.put(element, node);
+        }
+        return node;
+    }
+
+    private static Node first(List<Node> found, String description){
+        if(found.isEmpty()){
+            throw new NoSuchElementException("Cannot locate an element in the DOM snapshot using " + description);
+        }
+        return found.get(0);
+    }
+
+    private static String toXPath(By locator){
+        Map<String, Object> translated = JsLocator.toScriptArgument(locator);
+        if(translated == null){
+            throw new InvalidSelectorException("DOM snapshots cannot be searched with " + locator);
+        }
+        String value = (String) translated.get("value");
+        switch ((String) translated.get("using")){
+            case "id": return "descendant::*[@id=" + CssToXPath.literal(value) + "]";
+            case "name": return "descendant::*[@name=" + CssToXPath.literal(value) + "]";
+            case "class name": return "descendant::*[contains(concat(' ', normalize-space(@class), ' '), " + CssToXPath.literal(" " + value + " ") + ")]";
+            case "tag name": return "descendant::" + value.toLowerCase();
+            case "css selector": return CssToXPath.translate(value);
+            case "link text": return "descendant::a[normalize-space(.)=" + CssToXPath.literal(value.trim()) + "]";
+            case "partial link text": return "descendant::a[contains(normalize-space(.), " + CssToXPath.literal(value) + ")]";
+            default: return value;
+        }
+    }
+
+    private static void appendText(org.w3c.dom.Node node, StringBuilder text){
+        if(node.getNodeType() == org.w3c.dom.Node.TEXT_NODE){
+            text.append(node.getNodeValue());
+            return;
+        }
+        if(!(node instanceof Element)){
+            return;
+        }
+        String tag = ((Element) node).getTagName();
+        if(SKIPPED_TEXT.contains(tag) || node.getUserData(HIDDEN) != null){
+            return;
+        }
+        if(tag.equals("br")){
+            text.append('\n');
+            return;
+        }
+        boolean block = BLOCKS.contains(tag);
+        if(block){
+            text.append('\n');
+        }
+        for(org.w3c.dom.Node child = node.getFirstChild(); child != null; child = child.getNextSibling()){
+            appendText(child, text);
+            if(tag.equals("tr") && child instanceof Element){
+                text.append(' ');
+            }
+        }
+        if(block){
+            text.append('\n');
+        }
+    }
+
+    private static String normalizeText(CharSequence raw){
+        StringBuilder text = new StringBuilder();
+        for(String line : raw.toString().split("\n")){
+            String collapsed = line.replaceAll("[ \\t\\u00a0]+", " ").trim();
+            if(!collapsed.isEmpty()){
+                text.append(text.length() == 0 ? "" : "\n").append(collapsed);
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * One element of a {@link DomSnapshot}. Reading it never talks to the browser.
+     */
+    public class Node {
+
+        private final Element element;
+        private String text;
+
+        Node(Element element){
+            this.element = element;
+        }
+
+        /**
+         *
+         * @return the tag name in lower case.
+         */
+        public String getTagName(){
+            Object tag = element.getUserData(TAG);
+            return tag != null ? (String) tag : element.getTagName();
+        }
+
+        /**
+         *
+         * @return the visible text like getText returns it, with line breaks between block elements.
+         */
+        public String getText(){
+            if(text == null){
+                StringBuilder raw = new StringBuilder();
+                if(element.getUserData(HIDDEN) == null || getTagName().equals("option")){
+                    for(org.w3c.dom.Node child = element.getFirstChild(); child != null; child = child.getNextSibling()){
+                        appendText(child, raw);
+                    }
+                }
+                text = normalizeText(raw);
+            }
+            return text;
+        }
+
+        /**
+         *
+         * @param name is the attribute name.
+         * @return the attribute value, or null. For value, checked and selected the state of the control
+         * at the time of the snapshot is returned, like WebElement.getAttribute does.
+         */
+        public String getAttribute(String name){
+            Object value = element.getUserData(VALUE);
+            if(value != null){
+                if(name.equals("value")){
+                    return (String) value;
+                }
+                if(name.equals("checked") || name.equals("selected")){
+                    return Boolean.TRUE.equals(element.getUserData(CHECKED)) ? "true" : null;
+                }
+            }
+            return element.hasAttribute(name) ? element.getAttribute(name) : null;
+        }
+
+        /**
+         *
+         * @return true if the element took up space on the page when the snapshot was taken.
+         */
+        public boolean isDisplayed(){
+            for(org.w3c.dom.Node node = element; node instanceof Element; node = node.getParentNode()){
+                if(node.getUserData(HIDDEN) != null){
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         *
+         * @return true for checked checkboxes and radios and selected options, at the time of the snapshot.
+         */
+        public boolean isSelected(){
+            return Boolean.TRUE.equals(element.getUserData(CHECKED));
+        }
+
+        /**
+         *
+         * @param cssSelector is the CSS selector to match below this element.
+         * @return the matching elements in document order.
+         */
+        public List<Node> findElements(String cssSelector){
+            return query(element, CssToXPath.translate(cssSelector));
+        }
+
+        /**
+         *
+         * @param cssSelector is the CSS selector to match below this element.
+         * @return the first matching element.
+         * @throws NoSuchElementException if nothing matches.
+         */
+        public Node findElement(String cssSelector){
+            return first(findElements(cssSelector), cssSelector);
+        }
+
+        /**
+         *
+         * @param locator is the locator to match below this element. XPath locators are evaluated with this element as context.
+         * @return the matching elements in document order.
+         */
+        public List<Node> findElements(By locator){
+            return query(element, toXPath(locator));
+        }
+
+        /**
+         *
+         * @param locator is the locator to match below this element.
+         * @return the first matching element.
+         * @throws NoSuchElementException if nothing matches.
+         */
+        public Node findElement(By locator){
+            return first(findElements(locator), locator.toString());
+        }
+
+        /**
+         *
+         * @return the parent element, or null for the root of the snapshot.
+         */
+        public Node getParent(){
+            return element.getParentNode() instanceof Element ? node((Element) element.getParentNode()) : null;
+        }
+
+        /**
+         *
+         * @return the child elements in document order.
+         */
+        public List<Node> getChildren(){
+            List<Node> children = new ArrayList<Node>();
+            for(org.w3c.dom.Node child = element.getFirstChild(); child != null; child = child.getNextSibling()){
+                if(child instanceof Element){
+                    children.add(node((Element) child));
+                }
+            }
+            return children;
+        }
+
+        @Override
+        public String toString(){
+            return "<" + getTagName() + (element.hasAttribute("id") ? " id=\"" + element.getAttribute("id") + "\"" : "") + ">";
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package CodeHouse;
+
+/**
+ * A copy of one option of a select element, read by {@link BulkReader} together with all other options.
+ * It holds plain values, so reading them costs no driver calls and cannot go stale.
+ */
+public class DropdownOption {
+
+    private final int index;
+    private final String value;
+    private final String text;
+    private final boolean selected;
+    private final boolean disabled;
+
+    DropdownOption(int index, String value, String text, boolean selected, boolean disabled){
+        this.index = index;
+        this.value = value;
+        this.text = text;
+        this.selected = selected;
+        this.disabled = disabled;
+    }
+
+    /**
+     *
+     * @return the index of the option in the select element, as used by selectByIndex.
+     */
+    public int getIndex(){
+        return index;
+    }
+
+    /**
+     *
+     * @return the value attribute, as used by selectByValue.
+     */
+    public String getValue(){
+        return value;
+    }
+
+    /**
+     *
+     * @return the text with white space collapsed, as used by selectByVisibleText.
+     */
+    public String getText(){
+        return text;
+    }
+
+    public boolean isSelected(){
+        return selected;
+    }
+
+    public boolean isDisabled(){
+        return disabled;
+    }
+
+    @Override
+    public String toString(){
+        return "[" + index + "] " + value + " \"" + text + "\"" + (selected ? " selected" : "") + (disabled ? " disabled" : "");
+    }
+}
@@ -0,0 +1,101 @@
+package CodeHouse;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per session cache of {@link CachedElement} handles, keyed by search context and locator.
+ * Handles resolve their element once and reuse it until the cache is invalidated.
+ * The cache is invalidated when the page navigates through a Page helper, or when any handle
+ * runs into a StaleElementReferenceException, which means the document it was found in is gone.
+ */
+public class ElementCache {
+
+    private final SearchContext root;
+    private final ConcurrentMap<List<Object>, CachedElement> handles = new ConcurrentHashMap<List<Object>, CachedElement>();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong resolutions = new AtomicLong();
+
+    /**
+     *
+     * @param root is the context used when no other one is given, usually the driver.
+     */
+    public ElementCache(SearchContext root){
+        this.root = root;
+    }
+
+    /**
+     *
+     * @param locator is the locator of the element in the whole page.
+     * @return the cached handle for the locator.
+     */
+    public CachedElement get(By locator){
+        return get(root, locator);
+    }
+
+    /**
+     *
+     * @param context is the driver or element to search in.
+     * @param locator is the locator of the element inside the context.
+     * @return the cached handle for the context and locator.
+     */
+    public CachedElement get(SearchContext context, By locator){
+        lookups.incrementAndGet();
+        List<Object> key = Arrays.<Object>asList(context, locator);
+        CachedElement handle = handles.get(key);
+        if(handle == null){
+            CachedElement created = new CachedElement(this, context, locator);
+            handle = handles.putIfAbsent(key, created);
+            if(handle == null){
+                handle = created;
+            }
+        }
+        return handle;
+    }
+
+    /**
+     * Makes every handle find its element again on next use. Call this after navigating outside of Page helpers.
+     */
+    public void invalidate(){
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Drops all handles.
+     */
+    public void clear(){
+        handles.clear();
+        invalidate();
+    }
+
+    /**
+     *
+     * @return the number of handles served from the cache.
+     */
+    public long getLookups(){
+        return lookups.get();
+    }
+
+    /**
+     *
+     * @return the number of findElement calls made to resolve handles.
+     */
+    public long getResolutions(){
+        return resolutions.get();
+    }
+
+    long generation(){
+        return generation.get();
+    }
+
+    void recordResolution(){
+        resolutions.incrementAndGet();
+    }
+}
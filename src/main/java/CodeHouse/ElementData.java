@@ -0,0 +1,59 @@
+package CodeHouse;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A copy of the tag name, text and some attributes of one element, read by {@link BulkReader}
+ * together with the other elements of a list.
+ */
+public class ElementData {
+
+    private final String tagName;
+    private final String text;
+    private final Map<String, String> attributes;
+
+    ElementData(String tagName, String text, Map<String, String> attributes){
+        this.tagName = tagName;
+        this.text = text;
+        this.attributes = Collections.unmodifiableMap(attributes);
+    }
+
+    /**
+     *
+     * @return the tag name in lower case.
+     */
+    public String getTagName(){
+        return tagName;
+    }
+
+    /**
+     *
+     * @return the rendered text of the element, trimmed. Like getText it is empty for hidden elements.
+     */
+    public String getText(){
+        return text;
+    }
+
+    /**
+     *
+     * @param name is one of the attribute names that were asked for.
+     * @return the value like WebElement.getAttribute returns it, or null.
+     */
+    public String getAttribute(String name){
+        return attributes.get(name);
+    }
+
+    /**
+     *
+     * @return all attributes that were asked for, by name.
+     */
+    public Map<String, String> getAttributes(){
+        return attributes;
+    }
+
+    @Override
+    public String toString(){
+        return "<" + tagName + "> \"" + text + "\" " + attributes;
+    }
+}
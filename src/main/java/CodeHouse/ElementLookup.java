@@ -0,0 +1,46 @@
+package CodeHouse;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+
+/**
+ * Finds the elements of the locator accessors that {@link LocatorProcessor} generates for Page subclasses.
+ * Pass one to the constructor of a generated Locators class to choose how that page caches its elements.
+ */
+public interface ElementLookup {
+
+    /**
+     * Caches the elements of fields annotated with @CacheLookup in the {@link ElementCache} of the session,
+     * and finds the others on every access, like PageFactory does.
+     */
+    ElementLookup DEFAULT = StandardLookup.DEFAULT;
+
+    /**
+     * Caches every element in the {@link ElementCache} of the session, for pages that do not re-render.
+     */
+    ElementLookup CACHE_ALL = StandardLookup.CACHE_ALL;
+
+    /**
+     * Finds every element on every access, ignoring @CacheLookup.
+     */
+    ElementLookup NO_CACHE = StandardLookup.NO_CACHE;
+
+    /**
+     *
+     * @param page is the page the element belongs to.
+     * @param locator is the locator of the field.
+     * @param cacheLookup is true if the field is annotated with @CacheLookup.
+     * @return the element.
+     */
+    WebElement find(Page page, By locator, boolean cacheLookup);
+
+    /**
+     *
+     * @param page is the page the elements belong to.
+     * @param locator is the locator of the field.
+     * @return the elements, found when the accessor is called.
+     */
+    List<WebElement> findAll(Page page, By locator);
+}
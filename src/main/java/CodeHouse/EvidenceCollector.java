@@ -0,0 +1,278 @@
+package CodeHouse;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Captures screenshots and page sources as test evidence without making the test thread wait for the disk.
+ * The test thread only asks the browser for the screenshot, as the base64 text the driver already sends, and
+ * for the page source. Decoding, hashing, gzipping the source and writing run on a small pool of background
+ * threads. Files are named by the hash of their content, so a page that looks the same twice is stored once.
+ * Every capture adds a line to index.tsv with its name, time and files.
+ * When the queue of pending captures is full, the test thread does the work itself, so a slow disk slows
+ * the tests down instead of piling up memory.
+ *
+ * <pre>
+ *     EvidenceCollector evidence = new EvidenceCollector(Paths.get("target/evidence"), 2, 32);
+ *     session.setEvidenceCollector(evidence); // captures after every failed helper
+ *     page.captureEvidence("checkout-summary");
+ *     ...
+ *     evidence.close();
+ * </pre>
+ */
+public class EvidenceCollector implements Closeable {
+
+    private static final long CLOSE_TIMEOUT_SECONDS = 30;
+    private static final String INDEX_FILE = "index.tsv";
+
+    private final Path directory;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> stored = ConcurrentHashMap.newKeySet();
+    private final AtomicLong captured = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile boolean screenshots = true;
+    private volatile boolean pageSources = true;
+
+    /**
+     *
+     * @param directory is where the evidence is written. It is created when needed.
+     * @param threads is the number of background threads.
+     * @param queueCapacity is the number of captures that may wait for a thread before the test thread helps out.
+     */
+    public EvidenceCollector(Path directory, int threads, int queueCapacity){
+        this.directory = directory;
+        final AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity), new ThreadFactory() {
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "codebreeze-evidence-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     *
+     * @param screenshots is false to stop taking screenshots.
+     */
+    public void setScreenshots(boolean screenshots){
+        this.screenshots = screenshots;
+    }
+
+    /**
+     *
+     * @param pageSources is false to stop saving page sources.
+     */
+    public void setPageSources(boolean pageSources){
+        this.pageSources = pageSources;
+    }
+
+    /**
+     * Reads the screenshot and page source from the browser and stores them in the background.
+     * @param driver is the driver to capture.
+     * @param name names the capture in the index, for example the test or helper name.
+     * @return the stored evidence, available once the background write is done.
+     * @throws WebDriverException if the browser cannot be read.
+     * @throws IllegalStateException if the collector is closed.
+     */
+    public Future<Evidence> capture(WebDriver driver, String name){
+        if(executor.isShutdown()){
+            throw new IllegalStateException("The evidence collector is closed");
+        }
+        final long capturedAt = System.currentTimeMillis();
+        final String screenshot = screenshots && driver instanceof TakesScreenshot
+                ? ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64) : null;
+        final String source = pageSources ? driver.getPageSource() : null;
+        return executor.submit(new Callable<Evidence>() {
+            public Evidence call() throws IOException {
+                try {
+                    return store(name, capturedAt, screenshot, source);
+                }catch (IOException | RuntimeException e){
+                    failed.incrementAndGet();
+                    throw e;
+                }
+            }
+        });
+    }
+
+    /**
+     *
+     * @return the number of captures stored so far.
+     */
+    public long getCaptured(){
+        return captured.get();
+    }
+
+    /**
+     *
+     * @return the number of screenshots and sources that were not written because the same content was stored before.
+     */
+    public long getDuplicates(){
+        return duplicates.get();
+    }
+
+    /**
+     *
+     * @return the number of captures that could not be stored.
+     */
+    public long getFailed(){
+        return failed.get();
+    }
+
+    /**
+     *
+     * @return the number of captures waiting for a background thread.
+     */
+    public int getPending(){
+        return executor.getQueue().size();
+    }
+
+    public Path getDirectory(){
+        return directory;
+    }
+
+    /**
+     * Stops accepting captures and waits up to thirty seconds for the pending ones to be written.
+     */
+    @Override
+    public void close(){
+        executor.shutdown();
+        try {
+            executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }catch (InterruptedException ie){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Evidence store(String name, long capturedAt, String screenshot, String source) throws IOException {
+        Files.createDirectories(directory);
+        Path screenshotFile = null;
+        Path sourceFile = null;
+        if(screenshot != null){
+            byte[] png = Base64.getMimeDecoder().decode(screenshot);
+            screenshotFile = write(hash(png) + ".png", png, false);
+        }
+        if(source != null){
+            byte[] html = source.getBytes(StandardCharsets.UTF_8);
+            sourceFile = write(hash(html) + ".html.gz", html, true);
+        }
+        Evidence evidence = new Evidence(name, capturedAt, screenshotFile, sourceFile);
+        String line = capturedAt + "\t" + name.replaceAll("[\\t\\r\\n]", " ") + "\t"
+                + (screenshotFile != null ? screenshotFile.getFileName() : "-") + "\t"
+                + (sourceFile != null ? sourceFile.getFileName() : "-") + "\n";
+        synchronized (this){
+            Files.write(directory.resolve(INDEX_FILE), line.getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        captured.incrementAndGet();
+        return evidence;
+    }
+
+    private Path write(String fileName, byte[] content, boolean gzip) throws IOException {
+        Path file = directory.resolve(fileName);
+        if(!stored.add(fileName) || Files.exists(file)){
+            duplicates.incrementAndGet();
+            return file;
+        }
+        Path temporary = Files.createTempFile(directory, fileName, ".tmp");
+        try {
+            try (OutputStream out = gzip ? new GZIPOutputStream(Files.newOutputStream(temporary)) : Files.newOutputStream(temporary)) {
+                out.write(content);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }catch (IOException ioe){
+            stored.remove(fileName);
+            throw ioe;
+        }finally {
+            Files.deleteIfExists(temporary);
+        }
+        return file;
+    }
+
+    private static String hash(byte[] content){
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder hex = new StringBuilder();
+            for(int i = 0; i < 12; i++){
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        }catch (NoSuchAlgorithmException nsae){
+            throw new IllegalStateException("SHA-256 is not available", nsae);
+        }
+    }
+
+    /**
+     * The files stored for one capture.
+     */
+    public static class Evidence {
+
+        private final String name;
+        private final long capturedAt;
+        private final Path screenshot;
+        private final Path pageSource;
+
+        Evidence(String name, long capturedAt, Path screenshot, Path pageSource){
+            this.name = name;
+            this.capturedAt = capturedAt;
+            this.screenshot = screenshot;
+            this.pageSource = pageSource;
+        }
+
+        public String getName(){
+            return name;
+        }
+
+        public long getCapturedAt(){
+            return capturedAt;
+        }
+
+        /**
+         *
+         * @return the PNG file, or null if no screenshot was taken. Equal screenshots share a file.
+         */
+        public Path getScreenshot(){
+            return screenshot;
+        }
+
+        /**
+         *
+         * @return the gzipped page source, or null if it was not saved. Equal sources share a file.
+         */
+        public Path getPageSource(){
+            return pageSource;
+        }
+
+        @Override
+        public String toString(){
+            return name + " " + screenshot + " " + pageSource;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package CodeHouse;
+
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How a {@link Page} runs its helpers: how often a helper is tried again after a retryable error, how long it
+ * pauses in between, and whether element errors are logged or thrown once the attempts are used up.
+ * The pause starts at the initial backoff and grows by the multiplier, up to the max backoff. Each pause is
+ * shortened by a random part of up to the jitter, so parallel tests do not retry in lock step.
+ * Only the outermost helper retries; helpers called by other helpers run once.
+ * Policies are immutable; the with* methods return copies.
+ */
+public class ExecutionPolicy {
+
+    private static final ExecutionPolicy DEFAULTS = new ExecutionPolicy(2, 100, 1000, 2.0, 0.5,
+            Collections.<Class<? extends RuntimeException>>singletonList(StaleElementReferenceException.class), true);
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final double multiplier;
+    private final double jitter;
+    private final List<Class<? extends RuntimeException>> retryOn;
+    private final boolean elementErrorsTolerated;
+
+    private ExecutionPolicy(int maxAttempts, long initialBackoffMillis, long maxBackoffMillis, double multiplier, double jitter,
+                            List<Class<? extends RuntimeException>> retryOn, boolean elementErrorsTolerated){
+        if(maxAttempts < 1 || initialBackoffMillis < 0 || maxBackoffMillis < initialBackoffMillis || multiplier < 1 || jitter < 0 || jitter > 1){
+            throw new IllegalArgumentException("Invalid execution policy : maxAttempts=" + maxAttempts + " initialBackoff=" + initialBackoffMillis
+                    + " maxBackoff=" + maxBackoffMillis + " multiplier=" + multiplier + " jitter=" + jitter);
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+        this.retryOn = retryOn;
+        this.elementErrorsTolerated = elementErrorsTolerated;
+    }
+
+    /**
+     *
+     * @return two attempts on StaleElementReferenceException, 100 ms pause doubling up to one second with 50% jitter,
+     * element errors logged as before.
+     */
+    public static ExecutionPolicy defaults(){
+        return DEFAULTS;
+    }
+
+    /**
+     *
+     * @param maxAttempts is how often a helper is tried in total. Use 1 to turn retries off.
+     * @return a copy of this policy with the new attempt limit.
+     */
+    public ExecutionPolicy withMaxAttempts(int maxAttempts){
+        return new ExecutionPolicy(maxAttempts, initialBackoffMillis, maxBackoffMillis, multiplier, jitter, retryOn, elementErrorsTolerated);
+    }
+
+    /**
+     *
+     * @param initialBackoffMillis is the pause after the first failed attempt.
+     * @param maxBackoffMillis is the longest pause between two attempts.
+     * @param multiplier is the factor the pause grows by after each failed attempt.
+     * @return a copy of this policy with the new backoff.
+     */
+    public ExecutionPolicy withBackoff(long initialBackoffMillis, long maxBackoffMillis, double multiplier){
+        return new ExecutionPolicy(maxAttempts, initialBackoffMillis, maxBackoffMillis, multiplier, jitter, retryOn, elementErrorsTolerated);
+    }
+
+    /**
+     *
+     * @param jitter is the largest part of a pause, between 0 and 1, that is randomly left out.
+     * @return a copy of this policy with the new jitter.
+     */
+    public ExecutionPolicy withJitter(double jitter){
+        return new ExecutionPolicy(maxAttempts, initialBackoffMillis, maxBackoffMillis, multiplier, jitter, retryOn, elementErrorsTolerated);
+    }
+
+    /**
+     *
+     * @param errors are the errors worth another attempt, subclasses included. They replace the current ones.
+     * @return a copy of this policy with the new retryable errors.
+     */
+    @SafeVarargs
+    public final ExecutionPolicy withRetryOn(Class<? extends RuntimeException>... errors){
+        List<Class<? extends RuntimeException>> copy = Collections.unmodifiableList(new ArrayList<Class<? extends RuntimeException>>(Arrays.asList(errors)));
+        return new ExecutionPolicy(maxAttempts, initialBackoffMillis, maxBackoffMillis, multiplier, jitter, copy, elementErrorsTolerated);
+    }
+
+    /**
+     *
+     * @param tolerated is true to log NoSuchElementException and StaleElementReferenceException and carry on,
+     *                  which is what the click, select and input helpers always did, or false to throw them.
+     * @return a copy of this policy with the new setting.
+     */
+    public ExecutionPolicy withElementErrorsTolerated(boolean tolerated){
+        return new ExecutionPolicy(maxAttempts, initialBackoffMillis, maxBackoffMillis, multiplier, jitter, retryOn, tolerated);
+    }
+
+    public int getMaxAttempts(){
+        return maxAttempts;
+    }
+
+    public long getInitialBackoffMillis(){
+        return initialBackoffMillis;
+    }
+
+    public long getMaxBackoffMillis(){
+        return maxBackoffMillis;
+    }
+
+    public double getMultiplier(){
+        return multiplier;
+    }
+
+    public double getJitter(){
+        return jitter;
+    }
+
+    public List<Class<? extends RuntimeException>> getRetryOn(){
+        return retryOn;
+    }
+
+    public boolean isElementErrorsTolerated(){
+        return elementErrorsTolerated;
+    }
+
+    /**
+     *
+     * @param error is the error of a failed attempt.
+     * @return true if the error is one of the retryable ones and not the fault of a broken session.
+     */
+    boolean isRetryable(RuntimeException error){
+        if(CircuitBreaker.isSessionFailure(error)){
+            return false;
+        }
+        for(Class<? extends RuntimeException> type : retryOn){
+            if(type.isInstance(error)){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sleeps before the next attempt.
+     * @param failedAttempts is the number of attempts made so far.
+     */
+    void pause(int failedAttempts){
+        double backoff = initialBackoffMillis * Math.pow(multiplier, failedAttempts - 1);
+        long millis = (long) (Math.min(maxBackoffMillis, backoff) * (1 - jitter * ThreadLocalRandom.current().nextDouble()));
+        if(millis <= 0){
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        }catch (InterruptedException ie){
+            Thread.currentThread().interrupt();
+            throw new WebDriverException("Interrupted while waiting to retry", ie);
+        }
+    }
+
+    @Override
+    public String toString(){
+        return "ExecutionPolicy{maxAttempts=" + maxAttempts + ", backoff=" + initialBackoffMillis + ".." + maxBackoffMillis
+                + "ms x" + multiplier + ", jitter=" + jitter + ", retryOn=" + retryOn + ", elementErrorsTolerated=" + elementErrorsTolerated + "}";
+    }
+}
@@ -0,0 +1,107 @@
+package CodeHouse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * The recorded durations of flows, used by a {@link FlowScheduler} to start the longest flows first.
+ * Each flow keeps a moving average, so one slow run moves the estimate without replacing it.
+ * The history is kept in a properties file of flow names and milliseconds between runs.
+ */
+public class FlowHistory {
+
+    private static final double WEIGHT = 0.3;
+
+    private final Map<String, Long> durations = new HashMap<String, Long>();
+
+    /**
+     *
+     * @param file is a file written by {@link #save(Path)}.
+     * @return the history in the file, or an empty history if the file does not exist.
+     * @throws IOException if the file cannot be read.
+     */
+    public static FlowHistory load(Path file) throws IOException {
+        FlowHistory history = new FlowHistory();
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }catch (NoSuchFileException nsfe){
+            return history;
+        }
+        for(String name : properties.stringPropertyNames()){
+            try {
+                history.durations.put(name, Long.parseLong(properties.getProperty(name).trim()));
+            }catch (NumberFormatException nfe){
+                // a hand edited or damaged entry is forgotten and measured again.
+            }
+        }
+        return history;
+    }
+
+    /**
+     *
+     * @param file is where the history is written. The file is replaced atomically.
+     * @throws IOException if the file cannot be written.
+     */
+    public synchronized void save(Path file) throws IOException {
+        Properties properties = new Properties();
+        for(Map.Entry<String, Long> entry : durations.entrySet()){
+            properties.setProperty(entry.getKey(), String.valueOf(entry.getValue()));
+        }
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                properties.store(out, "Flow durations in milliseconds");
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     *
+     * @param flow is the name of the flow.
+     * @param millis is the duration of a finished run.
+     */
+    public synchronized void record(String flow, long millis){
+        Long previous = durations.get(flow);
+        durations.put(flow, previous == null ? millis : Math.round(previous + WEIGHT * (millis - previous)));
+    }
+
+    /**
+     *
+     * @param flow is the name of the flow.
+     * @return the expected duration in milliseconds, or -1 if the flow never ran.
+     */
+    public synchronized long estimate(String flow){
+        Long duration = durations.get(flow);
+        return duration == null ? -1 : duration;
+    }
+
+    /**
+     *
+     * @return the longest expected duration, or 0 if no flow ever ran.
+     */
+    public synchronized long longest(){
+        long longest = 0;
+        for(Long duration : durations.values()){
+            longest = Math.max(longest, duration);
+        }
+        return longest;
+    }
+
+    public synchronized int size(){
+        return durations.size();
+    }
+}
@@ -0,0 +1,287 @@
+package CodeHouse;
+
+import org.openqa.selenium.WebDriverException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs Page based flows on a fixed number of workers, each with its own browser session from a {@link PagePool}.
+ * Flows are ordered longest first by their recorded durations and dealt to the worker with the least expected
+ * work. A worker runs its own queue from the longest flow down; when it runs dry it steals the shortest flow
+ * waiting on the busiest other worker, so no worker sits idle while another still has a queue.
+ * A worker keeps its session from one flow to the next and only resets the browser in between. A session
+ * that a flow left broken is given back to the pool and the worker leases a fresh one.
+ *
+ * <pre>
+ *     FlowHistory history = FlowHistory.load(Paths.get("target/flow-history.properties"));
+ *     Map&lt;String, FlowScheduler.Flow&gt; flows = new LinkedHashMap&lt;&gt;();
+ *     flows.put("checkout", page -&gt; new CheckoutFlow(page).run());
+ *     flows.put("search", page -&gt; new SearchFlow(page).run());
+ *     List&lt;FlowScheduler.FlowResult&gt; results = new FlowScheduler(pool, 4, history).runAll(flows);
+ *     history.save(Paths.get("target/flow-history.properties"));
+ * </pre>
+ */
+public class FlowScheduler {
+
+    private static final Logger LOGGER = Logger.getLogger(FlowScheduler.class.getName());
+
+    /**
+     * A piece of work run on a Page of a worker session. The session is also bound to the worker thread,
+     * so Pages created with {@link Page#Page()} inside the flow use it too.
+     */
+    public interface Flow {
+        void run(Page page) throws Exception;
+    }
+
+    private final PagePool pool;
+    private final int workers;
+    private final FlowHistory history;
+    private volatile boolean resetBetweenFlows = true;
+
+    /**
+     *
+     * @param pool is where the workers lease their sessions. It should allow at least as many sessions as workers.
+     * @param workers is the number of flows run at the same time.
+     * @param history is used to order the flows and is updated with the duration of every passed flow.
+     */
+    public FlowScheduler(PagePool pool, int workers, FlowHistory history){
+        if(workers < 1){
+            throw new IllegalArgumentException("workers must be at least 1 but was " + workers);
+        }
+        this.pool = pool;
+        this.workers = workers;
+        this.history = history;
+    }
+
+    /**
+     *
+     * @param resetBetweenFlows is false to let a flow see the cookies, storage and windows the previous flow of its
+     *                          worker left behind.
+     */
+    public void setResetBetweenFlows(boolean resetBetweenFlows){
+        this.resetBetweenFlows = resetBetweenFlows;
+    }
+
+    /**
+     * Runs all flows and waits until they are done. A failing flow does not stop the others.
+     * @param flows maps the name of every flow, which is also its key in the history, to the flow.
+     * @return the result of every flow, in the iteration order of the map.
+     */
+    public List<FlowResult> runAll(Map<String, Flow> flows){
+        List<Task> tasks = new ArrayList<Task>();
+        long unknown = history.longest() + 1;
+        for(Map.Entry<String, Flow> entry : flows.entrySet()){
+            long estimate = history.estimate(entry.getKey());
+            // a flow without history could be the longest of all; starting it early keeps it from ending the run.
+            tasks.add(new Task(tasks.size(), entry.getKey(), entry.getValue(), estimate < 0 ? unknown : estimate));
+        }
+        if(tasks.isEmpty()){
+            return Collections.emptyList();
+        }
+        int count = Math.min(workers, tasks.size());
+        List<Deque<Task>> queues = deal(tasks, count);
+        FlowResult[] results = new FlowResult[tasks.size()];
+        List<Thread> threads = new ArrayList<Thread>();
+        for(int i = 0; i < count; i++){
+            final int worker = i;
+            Thread thread = new Thread(new Runnable() {
+                public void run() {
+                    work(worker, queues, results);
+                }
+            }, "codebreeze-flow-" + i);
+            threads.add(thread);
+            thread.start();
+        }
+        for(Thread thread : threads){
+            try {
+                thread.join();
+            }catch (InterruptedException ie){
+                Thread.currentThread().interrupt();
+                throw new WebDriverException("Interrupted while waiting for the flows", ie);
+            }
+        }
+        for(Task task : tasks){
+            if(results[task.index] == null){
+                // its worker died outside of the flow, for example while leasing or closing a session.
+                results[task.index] = new FlowResult(task.name, -1, 0, new WebDriverException("Flow " + task.name + " was not run to the end"));
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Deals the flows longest first, each to the queue with the least expected work so far.
+     */
+    private static List<Deque<Task>> deal(List<Task> tasks, int count){
+        List<Task> ordered = new ArrayList<Task>(tasks);
+        Collections.sort(ordered, new Comparator<Task>() {
+            public int compare(Task a, Task b) {
+                return Long.compare(b.estimate, a.estimate);
+            }
+        });
+        List<Deque<Task>> queues = new ArrayList<Deque<Task>>();
+        long[] loads = new long[count];
+        for(int i = 0; i < count; i++){
+            queues.add(new ConcurrentLinkedDeque<Task>());
+        }
+        for(Task task : ordered){
+            int lightest = 0;
+            for(int i = 1; i < count; i++){
+                if(loads[i] < loads[lightest]){
+                    lightest = i;
+                }
+            }
+            queues.get(lightest).addLast(task);
+            loads[lightest] += task.estimate;
+        }
+        return queues;
+    }
+
+    private void work(int worker, List<Deque<Task>> queues, FlowResult[] results){
+        PooledSession session = null;
+        try {
+            Task task;
+            while((task = next(worker, queues)) != null){
+                if(session != null && resetBetweenFlows){
+                    try {
+                        new Page(session).resetBrowserState();
+                    }catch (RuntimeException re){
+                        LOGGER.log(Level.FINE, "Could not reset the session of worker " + worker + ", leasing another", re);
+                        session.close();
+                        session = null;
+                    }
+                }
+                long start = System.nanoTime();
+                Throwable error = null;
+                try {
+                    if(session == null){
+                        session = pool.lease();
+                        session.bindToCurrentThread();
+                    }
+                    task.flow.run(new Page(session));
+                }catch (Throwable t){
+                    // errors like NoClassDefFoundError or StackOverflowError fail the flow, not the worker.
+                    error = t;
+                }
+                long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                if(error == null){
+                    history.record(task.name, millis);
+                }else {
+                    LOGGER.log(Level.FINE, "Flow " + task.name + " failed on worker " + worker, error);
+                }
+                results[task.index] = new FlowResult(task.name, worker, millis, error);
+                if(session != null && error != null && isBroken(session, error)){
+                    session.close();
+                    session = null;
+                }
+            }
+        }finally {
+            if(session != null){
+                session.close();
+            }
+        }
+    }
+
+    /**
+     *
+     * @return the longest flow of the own queue, or the shortest flow of the busiest other queue, or null when all are empty.
+     */
+    private static Task next(int worker, List<Deque<Task>> queues){
+        Task task = queues.get(worker).pollFirst();
+        while(task == null){
+            Deque<Task> victim = null;
+            for(int i = 0; i < queues.size(); i++){
+                Deque<Task> queue = queues.get(i);
+                if(i != worker && !queue.isEmpty() && (victim == null || queue.size() > victim.size())){
+                    victim = queue;
+                }
+            }
+            if(victim == null){
+                return null;
+            }
+            task = victim.pollLast();
+        }
+        return task;
+    }
+
+    private static boolean isBroken(PooledSession session, Throwable error){
+        return error instanceof CircuitOpenException || CircuitBreaker.isSessionFailure(error)
+                || session.getCircuitBreaker().getState() != CircuitBreaker.State.CLOSED;
+    }
+
+    private static final class Task {
+
+        private final int index;
+        private final String name;
+        private final Flow flow;
+        private final long estimate;
+
+        Task(int index, String name, Flow flow, long estimate){
+            this.index = index;
+            this.name = name;
+            this.flow = flow;
+            this.estimate = estimate;
+        }
+    }
+
+    /**
+     * How one flow of a {@link FlowScheduler} run ended.
+     */
+    public static class FlowResult {
+
+        private final String name;
+        private final int worker;
+        private final long durationMillis;
+        private final Throwable error;
+
+        FlowResult(String name, int worker, long durationMillis, Throwable error){
+            this.name = name;
+            this.worker = worker;
+            this.durationMillis = durationMillis;
+            this.error = error;
+        }
+
+        public String getName(){
+            return name;
+        }
+
+        /**
+         *
+         * @return the number of the worker that ran the flow, from 0, or -1 if no worker finished it.
+         */
+        public int getWorker(){
+            return worker;
+        }
+
+        public long getDurationMillis(){
+            return durationMillis;
+        }
+
+        public boolean isPassed(){
+            return error == null;
+        }
+
+        /**
+         *
+         * @return the exception or error the flow failed with, or null if it passed.
+         */
+        public Throwable getError(){
+            return error;
+        }
+
+        @Override
+        public String toString(){
+            return name + (error == null ? " passed" : " failed (" + error + ")") + " in " + durationMillis + " ms on worker " + worker;
+        }
+    }
+}
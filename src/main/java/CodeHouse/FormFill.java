@@ -0,0 +1,389 @@
+package CodeHouse;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills many form fields in one executeScript call.
+ * Text fields get their value through the native value setter followed by input and change events,
+ * so frameworks that track the value, like React or Angular, see the change. Dropdowns are selected
+ * by value, visible text or index the same way Select does it, and checkboxes and radios are clicked
+ * only when their state has to change. Fields that need real keystrokes can be added with
+ * {@link #type(WebElement, String)} and are filled with sendKeys after the script.
+ *
+ * <pre>
+ *     List&lt;FormFill.FieldResult&gt; results = page.newFormFill()
+ *             .set(By.id("firstName"), "Ada")
+ *             .set(By.name("email"), "ada@example.com")
+ *             .selectByVisibleText(countryElement, "United Kingdom")
+ *             .check(By.id("terms"), true)
+ *             .apply();
+ * </pre>
+ */
+public class FormFill {
+
+    private static final String FILL_SCRIPT = JsLocator.RESOLVE_FUNCTION +
+            "function fire(el, type) { el.dispatchEvent(new Event(type, {bubbles: true})); }\n" +
+            "function norm(s) { return String(s).replace(/\\s+/g, ' ').trim(); }\n" +
+            "function setValue(el, v) {\n" +
+            "  var proto = el instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype : el instanceof HTMLInputElement ? HTMLInputElement.prototype : null;\n" +
+            "  var d = proto && Object.getOwnPropertyDescriptor(proto, 'value');\n" +
+            "  if (d && d.set) { d.set.call(el, v); } else { el.value = v; }\n" +
+            "}\n" +
+            "function select(el, f) {\n" +
+            "  if (!el.options) return 'not a select element';\n" +
+            "  if (f.by === 'auto') {\n" +
+            "    var byValue = select(el, {by: 'value', value: f.value});\n" +
+            "    return byValue && byValue.indexOf('no option') === 0 ? select(el, {by: 'text', value: f.value}) : byValue;\n" +
+            "  }\n" +
+            "  var match = -1;\n" +
+            "  for (var i = 0; i < el.options.length && match < 0; i++) {\n" +
+            "    var o = el.options[i];\n" +
+            "    if (f.by === 'index' ? i === Number(f.value) : f.by === 'text' ? norm(o.text) === norm(f.value) : o.value === f.value) match = i;\n" +
+            "  }\n" +
+            "  if (match < 0) return 'no option ' + f.by + ' ' + f.value;\n" +
+            "  if (el.options[match].disabled) return 'option is disabled';\n" +
+            "  if (el.options[match].selected) return null;\n" +
+            "  if (el.multiple) { el.options[match].selected = true; } else { el.selectedIndex = match; }\n" +
+            "  fire(el, 'input'); fire(el, 'change');\n" +
+            "  return null;\n" +
+            "}\n" +
+            "var fields = arguments[0], out = [];\n" +
+            "for (var i = 0; i < fields.length; i++) {\n" +
+            "  var f = fields[i];\n" +
+            "  try {\n" +
+            "    var el = f.element || resolve(f.locator);\n" +
+            "    if (!el) { out.push('element not found'); continue; }\n" +
+            "    if (el.disabled) { out.push('element is disabled'); continue; }\n" +
+            "    var error = null;\n" +
+            "    if (f.kind === 'check') {\n" +
+            "      if (el.checked !== f.value) el.click();\n" +
+            "      if (el.checked !== f.value) error = 'checked state did not change';\n" +
+            "    } else if (f.kind === 'select' || (f.kind === 'value' && el.tagName === 'SELECT')) {\n" +
+            "      error = select(el, f.kind === 'select' ? f : {by: 'auto', value: f.value});\n" +
+            "    } else if (el.readOnly) {\n" +
+            "      error = 'element is read only';\n" +
+            "    } else if (el.isContentEditable) {\n" +
+            "      el.focus(); el.textContent = f.value; fire(el, 'input'); el.blur();\n" +
+            "    } else {\n" +
+            "      el.focus(); setValue(el, f.value); fire(el, 'input'); fire(el, 'change'); el.blur();\n" +
+            "    }\n" +
+            "    out.push(error);\n" +
+            "  } catch (e) { out.push(String(e && e.message ? e.message : e)); }\n" +
+            "}\n" +
+            "return out;";
+
+    private final WebDriver driver;
+    private final List<Field> fields = new ArrayList<Field>();
+
+    /**
+     *
+     * @param driver is the driver the form is filled with. It must implement JavascriptExecutor.
+     */
+    public FormFill(WebDriver driver){
+        this.driver = driver;
+    }
+
+    /**
+     * Sets the value of an input, textarea or contenteditable element. On a select element the option
+     * with this value, or else with this visible text, is selected.
+     * @param element is the field.
+     * @param value is the value to set.
+     * @return this form fill.
+     */
+    public FormFill set(WebElement element, String value){
+        return add(new Field("value", element, null, null, value));
+    }
+
+    /**
+     *
+     * @param locator is the locator of the field.
+     * @param value is the value to set.
+     * @return this form fill.
+     */
+    public FormFill set(By locator, String value){
+        return add(new Field("value", null, locator, null, value));
+    }
+
+    /**
+     *
+     * @param selectElement is the dropdown element.
+     * @param dropdownValue is the value attribute of the option to select.
+     * @return this form fill.
+     */
+    public FormFill selectByValue(WebElement selectElement, String dropdownValue){
+        return add(new Field("select", selectElement, null, "value", dropdownValue));
+    }
+
+    /**
+     *
+     * @param locator is the locator of the dropdown.
+     * @param dropdownValue is the value attribute of the option to select.
+     * @return this form fill.
+     */
+    public FormFill selectByValue(By locator, String dropdownValue){
+        return add(new Field("select", null, locator, "value", dropdownValue));
+    }
+
+    /**
+     *
+     * @param selectElement is the dropdown element.
+     * @param visibleText is the text of the option to select, compared with collapsed white space.
+     * @return this form fill.
+     */
+    public FormFill selectByVisibleText(WebElement selectElement, String visibleText){
+        return add(new Field("select", selectElement, null, "text", visibleText));
+    }
+
+    /**
+     *
+     * @param locator is the locator of the dropdown.
+     * @param visibleText is the text of the option to select, compared with collapsed white space.
+     * @return this form fill.
+     */
+    public FormFill selectByVisibleText(By locator, String visibleText){
+        return add(new Field("select", null, locator, "text", visibleText));
+    }
+
+    /**
+     *
+     * @param selectElement is the dropdown element.
+     * @param index is the index of the option to select.
+     * @return this form fill.
+     */
+    public FormFill selectByIndex(WebElement selectElement, int index){
+        return add(new Field("select", selectElement, null, "index", index));
+    }
+
+    /**
+     *
+     * @param locator is the locator of the dropdown.
+     * @param index is the index of the option to select.
+     * @return this form fill.
+     */
+    public FormFill selectByIndex(By locator, int index){
+        return add(new Field("select", null, locator, "index", index));
+    }
+
+    /**
+     *
+     * @param element is a checkbox or radio button.
+     * @param checked is the wanted state. The element is clicked only if its state differs.
+     * @return this form fill.
+     */
+    public FormFill check(WebElement element, boolean checked){
+        return add(new Field("check", element, null, null, checked));
+    }
+
+    /**
+     *
+     * @param locator is the locator of a checkbox or radio button.
+     * @param checked is the wanted state. The element is clicked only if its state differs.
+     * @return this form fill.
+     */
+    public FormFill check(By locator, boolean checked){
+        return add(new Field("check", null, locator, null, checked));
+    }
+
+    /**
+     * Fills the field with clear and sendKeys after the script has run, for fields that react to single key events.
+     * @param element is the field.
+     * @param value is the text to type.
+     * @return this form fill.
+     */
+    public FormFill type(WebElement element, String value){
+        return add(new Field("type", element, null, null, value));
+    }
+
+    /**
+     *
+     * @param locator is the locator of the field.
+     * @param value is the text to type.
+     * @return this form fill.
+     */
+    public FormFill type(By locator, String value){
+        return add(new Field("type", null, locator, null, value));
+    }
+
+    /**
+     *
+     * @return the number of fields added so far.
+     */
+    public int size(){
+        return fields.size();
+    }
+
+    /**
+     * Fills all fields. Script fields take one executeScript call together, plus one findElement for each
+     * locator the browser cannot resolve itself. Typed fields take a clear and a sendKeys each.
+     * A field that fails does not stop the others.
+     * @return the result of every field in the order they were added.
+     */
+    public List<FieldResult> apply(){
+        FieldResult[] results = new FieldResult[fields.size()];
+        List<Integer> scripted = new ArrayList<Integer>();
+        List<Object> arguments = new ArrayList<Object>();
+        for(int i = 0; i < fields.size(); i++){
+            Field field = fields.get(i);
+            if("type".equals(field.kind)){
+                continue;
+            }
+            try {
+                arguments.add(field.toScriptArgument(driver));
+                scripted.add(i);
+            }catch (WebDriverException wde){
+                results[i] = new FieldResult(field.describe(), errorOf(wde));
+            }
+        }
+        if(!arguments.isEmpty()){
+            List<?> errors = runScript(scripted, arguments);
+            for(int j = 0; j < scripted.size(); j++){
+                int i = scripted.get(j);
+                results[i] = new FieldResult(fields.get(i).describe(), (String) errors.get(j));
+            }
+        }
+        for(int i = 0; i < fields.size(); i++){
+            Field field = fields.get(i);
+            if("type".equals(field.kind)){
+                results[i] = typeInto(field);
+            }
+        }
+        List<FieldResult> resultList = new ArrayList<FieldResult>();
+        Collections.addAll(resultList, results);
+        return resultList;
+    }
+
+    private FormFill add(Field field){
+        fields.add(field);
+        return this;
+    }
+
+    private List<?> runScript(List<Integer> scripted, List<Object> arguments){
+        try {
+            return (List<?>) ((JavascriptExecutor) driver).executeScript(FILL_SCRIPT, arguments);
+        }catch (StaleElementReferenceException sere){
+            // a cached element went stale since it was resolved, refresh the cached ones and try once more.
+            arguments.clear();
+            for(int i : scripted){
+                Field field = fields.get(i);
+                if(field.element instanceof CachedElement){
+                    ((CachedElement) field.element).refresh();
+                }
+                arguments.add(field.toScriptArgument(driver));
+            }
+            return (List<?>) ((JavascriptExecutor) driver).executeScript(FILL_SCRIPT, arguments);
+        }
+    }
+
+    private FieldResult typeInto(Field field){
+        try {
+            WebElement element = field.element != null ? field.element : driver.findElement(field.locator);
+            element.clear();
+            element.sendKeys((String) field.value);
+            return new FieldResult(field.describe(), null);
+        }catch (WebDriverException wde){
+            return new FieldResult(field.describe(), errorOf(wde));
+        }
+    }
+
+    private static String errorOf(WebDriverException wde){
+        String message = wde.getMessage();
+        int newLine = message == null ? -1 : message.indexOf('\n');
+        return newLine < 0 ? String.valueOf(message) : message.substring(0, newLine);
+    }
+
+    private static final class Field {
+
+        private final String kind;
+        private final WebElement element;
+        private final By locator;
+        private final String by;
+        private final Object value;
+
+        Field(String kind, WebElement element, By locator, String by, Object value){
+            if(element == null && locator == null){
+                throw new IllegalArgumentException("A form field needs an element or a locator");
+            }
+            this.kind = kind;
+            this.element = element;
+            this.locator = locator;
+            this.by = by;
+            this.value = value;
+        }
+
+        Map<String, Object> toScriptArgument(WebDriver driver){
+            Map<String, Object> argument = new LinkedHashMap<String, Object>();
+            argument.put("kind", kind);
+            argument.put("by", by);
+            argument.put("value", value);
+            if(element != null){
+                argument.put("element", element);
+            }else {
+                Map<String, Object> translated = JsLocator.toScriptArgument(locator);
+                if(translated != null){
+                    argument.put("locator", translated);
+                }else {
+                    argument.put("element", driver.findElement(locator));
+                }
+            }
+            return argument;
+        }
+
+        String describe(){
+            return locator != null ? locator.toString() : String.valueOf(element);
+        }
+    }
+
+    /**
+     * The outcome of one field of a {@link FormFill}.
+     */
+    public static class FieldResult {
+
+        private final String field;
+        private final String error;
+
+        FieldResult(String field, String error){
+            this.field = field;
+            this.error = error;
+        }
+
+        /**
+         *
+         * @return the locator or element of the field, as text.
+         */
+        public String getField(){
+            return field;
+        }
+
+        /**
+         *
+         * @return true if the value was applied.
+         */
+        public boolean isApplied(){
+            return error == null;
+        }
+
+        /**
+         *
+         * @return why the value was not applied, for example element not found or no option value x, or null.
+         */
+        public String getError(){
+            return error;
+        }
+
+        @Override
+        public String toString(){
+            return isApplied() ? field + ": applied" : field + ": " + error;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package CodeHouse;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.Keys;
+import org.openqa.selenium.Platform;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.Actions;
+import org.openqa.selenium.remote.CapabilityType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A reusable sequence of pointer and keyboard steps that is sent as one Actions chain, so a drag, a context
+ * menu or a keyboard shortcut costs a single perform() instead of one command per step on drivers that speak
+ * the W3C actions protocol. Steps refer to their elements by slot number; the elements are given when the
+ * gesture is performed, so one gesture can be built once, kept in a constant and used on any page.
+ *
+ * <pre>
+ *     static final Gesture OPEN_IN_NEW_TAB = Gesture.builder()
+ *             .keyDown(Keys.CONTROL).click(0).keyUp(Keys.CONTROL)
+ *             .build();
+ *     OPEN_IN_NEW_TAB.perform(driver, link);
+ * </pre>
+ */
+public final class Gesture {
+
+    /** Moves to slot 0 and double clicks it. */
+    public static final Gesture DOUBLE_CLICK = builder().moveTo(0).doubleClick(0).build();
+
+    /** Right clicks slot 0. */
+    public static final Gesture CONTEXT_CLICK = builder().contextClick(0).build();
+
+    /** Hovers over slot 0, for example a menu, then clicks slot 1, for example one of its entries. */
+    public static final Gesture HOVER_AND_CLICK = builder().moveTo(0).click(1).build();
+
+    /** Presses on slot 0, moves to slot 1 and releases there. */
+    public static final Gesture DRAG_AND_DROP = builder().clickAndHold(0).moveTo(1).release(1).build();
+
+    /** Clicks slot 0, selects all of its text with Control+A, or Command+A on macOS, and deletes it. */
+    public static final Gesture CLEAR_FIELD = builder().click(0).shortcut("a").sendKeys(Keys.DELETE).build();
+
+    /**
+     * One step of a gesture, applied to the Actions chain with the elements of the slots.
+     */
+    private interface Step {
+        void apply(Actions actions, WebDriver driver, WebElement[] slots);
+    }
+
+    private final List<Step> steps;
+    private final int slots;
+
+    private Gesture(List<Step> steps, int slots){
+        this.steps = Collections.unmodifiableList(steps);
+        this.slots = slots;
+    }
+
+    /**
+     *
+     * @return a builder for a new gesture.
+     */
+    public static Builder builder(){
+        return new Builder();
+    }
+
+    /**
+     *
+     * @return the number of elements the gesture needs.
+     */
+    public int getSlots(){
+        return slots;
+    }
+
+    /**
+     *
+     * @return the number of steps of the gesture.
+     */
+    public int size(){
+        return steps.size();
+    }
+
+    /**
+     *
+     * @param next is the gesture to run after this one. Its slots are the same slots as this one's.
+     * @return a gesture with the steps of both, sent as one chain.
+     */
+    public Gesture then(Gesture next){
+        List<Step> combined = new ArrayList<Step>(steps);
+        combined.addAll(next.steps);
+        return new Gesture(combined, Math.max(slots, next.slots));
+    }
+
+    /**
+     *
+     * @param driver is the driver to perform the gesture with.
+     * @param elements are the elements of the slots, slot 0 first.
+     * @throws IllegalArgumentException if fewer elements than slots are given.
+     */
+    public void perform(WebDriver driver, WebElement... elements){
+        toActions(driver, elements).perform();
+    }
+
+    /**
+     *
+     * @param driver is the driver to build the chain for.
+     * @param elements are the elements of the slots, slot 0 first.
+     * @return the Actions chain of the gesture, to extend or perform later.
+     */
+    public Actions toActions(WebDriver driver, WebElement... elements){
+        if(elements.length < slots){
+            throw new IllegalArgumentException("The gesture needs " + slots + " element(s), got " + elements.length);
+        }
+        Actions actions = new Actions(driver);
+        for(Step step : steps){
+            step.apply(actions, driver, elements);
+        }
+        return actions;
+    }
+
+    /**
+     *
+     * @param driver is a driver.
+     * @return Keys.COMMAND if the browser of the driver runs on macOS, or else Keys.CONTROL.
+     */
+    static Keys shortcutModifier(WebDriver driver){
+        if(driver instanceof HasCapabilities){
+            Capabilities capabilities = ((HasCapabilities) driver).getCapabilities();
+            for(String name : new String[]{"platformName", CapabilityType.PLATFORM}){
+                Object platform = capabilities == null ? null : capabilities.getCapability(name);
+                try {
+                    if(platform instanceof Platform ? ((Platform) platform).is(Platform.MAC)
+                            : platform != null && Platform.fromString(platform.toString()).is(Platform.MAC)){
+                        return Keys.COMMAND;
+                    }
+                }catch (WebDriverException wde){
+                    // a platform name Selenium does not know, like "any"; look at the next capability.
+                }
+            }
+        }
+        return Keys.CONTROL;
+    }
+
+    /**
+     * Collects the steps of a gesture. Methods that take a slot number act on the element given for that slot.
+     */
+    public static final class Builder {
+
+        private final List<Step> steps = new ArrayList<Step>();
+        private int slots;
+
+        private Builder(){
+        }
+
+        public Builder moveTo(final int slot){
+            return add(slot, (actions, driver, elements) -> actions.moveToElement(elements[slot]));
+        }
+
+        /**
+         *
+         * @param slot is the element to move to.
+         * @param xOffset is the offset from the top left corner of the element.
+         * @param yOffset is the offset from the top left corner of the element.
+         * @return this builder.
+         */
+        public Builder moveTo(final int slot, final int xOffset, final int yOffset){
+            return add(slot, (actions, driver, elements) -> actions.moveToElement(elements[slot], xOffset, yOffset));
+        }
+
+        public Builder moveByOffset(final int xOffset, final int yOffset){
+            return add(-1, (actions, driver, elements) -> actions.moveByOffset(xOffset, yOffset));
+        }
+
+        public Builder click(final int slot){
+            return add(slot, (actions, driver, elements) -> actions.click(elements[slot]));
+        }
+
+        /**
+         *
+         * @return this builder, with a click where the pointer is.
+         */
+        public Builder click(){
+            return add(-1, (actions, driver, elements) -> actions.click());
+        }
+
+        public Builder doubleClick(final int slot){
+            return add(slot, (actions, driver, elements) -> actions.doubleClick(elements[slot]));
+        }
+
+        public Builder contextClick(final int slot){
+            return add(slot, (actions, driver, elements) -> actions.contextClick(elements[slot]));
+        }
+
+        public Builder clickAndHold(final int slot){
+            return add(slot, (actions, driver, elements) -> actions.clickAndHold(elements[slot]));
+        }
+
+        public Builder release(final int slot){
+            return add(slot, (actions, driver, elements) -> actions.release(elements[slot]));
+        }
+
+        /**
+         *
+         * @return this builder, with a release where the pointer is.
+         */
+        public Builder release(){
+            return add(-1, (actions, driver, elements) -> actions.release());
+        }
+
+        /**
+         *
+         * @param modifier is Keys.SHIFT, Keys.CONTROL, Keys.ALT or another modifier key.
+         * @return this builder.
+         */
+        public Builder keyDown(final Keys modifier){
+            return add(-1, (actions, driver, elements) -> actions.keyDown(modifier));
+        }
+
+        public Builder keyUp(final Keys modifier){
+            return add(-1, (actions, driver, elements) -> actions.keyUp(modifier));
+        }
+
+        /**
+         *
+         * @param key is typed with the shortcut modifier of the browser's platform held down: Command on macOS,
+         *            Control elsewhere. The platform is read from the capabilities of the driver the gesture is performed with.
+         * @return this builder.
+         */
+        public Builder shortcut(final CharSequence key){
+            return add(-1, (actions, driver, elements) -> {
+                Keys modifier = shortcutModifier(driver);
+                actions.keyDown(modifier).sendKeys(key).keyUp(modifier);
+            });
+        }
+
+        /**
+         *
+         * @param keys are typed into the focused element.
+         * @return this builder.
+         */
+        public Builder sendKeys(final CharSequence... keys){
+            return add(-1, (actions, driver, elements) -> actions.sendKeys(keys));
+        }
+
+        /**
+         *
+         * @param slot is the element to type into. It is clicked first to give it the focus.
+         * @param keys are the keys to type.
+         * @return this builder.
+         */
+        public Builder sendKeys(final int slot, final CharSequence... keys){
+            return add(slot, (actions, driver, elements) -> actions.sendKeys(elements[slot], keys));
+        }
+
+        /**
+         *
+         * @param millis is the time the browser waits before the next step, without a round trip.
+         * @return this builder.
+         */
+        public Builder pause(final long millis){
+            return add(-1, (actions, driver, elements) -> actions.pause(millis));
+        }
+
+        /**
+         *
+         * @param gesture is a gesture whose steps are added here, with the same slots.
+         * @return this builder.
+         */
+        public Builder then(Gesture gesture){
+            steps.addAll(gesture.steps);
+            slots = Math.max(slots, gesture.slots);
+            return this;
+        }
+
+        public Gesture build(){
+            return new Gesture(new ArrayList<Step>(steps), slots);
+        }
+
+        private Builder add(int slot, Step step){
+            if(slot < -1){
+                throw new IllegalArgumentException("Slots start at 0, got " + slot);
+            }
+            slots = Math.max(slots, slot + 1);
+            steps.add(step);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package CodeHouse;
+
+import org.openqa.selenium.By;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Translates the standard Selenium locators into a form a browser script can resolve itself,
+ * so a script that works on many elements does not need a findElement call for each of them.
+ * Use {@link #RESOLVE_FUNCTION} or {@link #RESOLVE_ALL_FUNCTION} in the script and pass the map returned by {@link #toScriptArgument(By)}.
+ */
+final class JsLocator {
+
+    /**
+     * A JavaScript function declaration resolve(locator, root) that returns the first match of a translated locator, or null.
+     */
+    static final String RESOLVE_FUNCTION =
+            "function resolve(l, root) {\n" +
+            "  root = root || document;\n" +
+            "  var v = l.value;\n" +
+            "  switch (l.using) {\n" +
+            "    case 'id': return root.getElementById ? root.getElementById(v) : root.querySelector('[id=\"' + v.replace(/\"/g, '\\\\\"') + '\"]');\n" +
+            "    case 'name': return root.querySelector('[name=\"' + v.replace(/\"/g, '\\\\\"') + '\"]');\n" +
+            "    case 'class name': return root.getElementsByClassName(v)[0] || null;\n" +
+            "    case 'tag name': return root.getElementsByTagName(v)[0] || null;\n" +
+            "    case 'css selector': return root.querySelector(v);\n" +
+            "    case 'xpath': return document.evaluate(v, root, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;\n" +
+            "    case 'link text':\n" +
+            "    case 'partial link text':\n" +
+            "      var links = root.getElementsByTagName('a');\n" +
+            "      for (var i = 0; i < links.length; i++) {\n" +
+            "        var text = (links[i].innerText || links[i].textContent || '').trim();\n" +
+            "        if (l.using === 'link text' ? text === v : text.indexOf(v) >= 0) return links[i];\n" +
+            "      }\n" +
+            "      return null;\n" +
+            "  }\n" +
+            "  return null;\n" +
+            "}\n";
+
+    /**
+     * A JavaScript function declaration resolveAll(locator, root) that returns all matches of a translated locator as an array.
+     */
+    static final String RESOLVE_ALL_FUNCTION =
+            "function resolveAll(l, root) {\n" +
+            "  root = root || document;\n" +
+            "  var v = l.value, found = [], i;\n" +
+            "  switch (l.using) {\n" +
+            "    case 'id': found = root.querySelectorAll('[id=\"' + v.replace(/\"/g, '\\\\\"') + '\"]'); break;\n" +
+            "    case 'name': found = root.querySelectorAll('[name=\"' + v.replace(/\"/g, '\\\\\"') + '\"]'); break;\n" +
+            "    case 'class name': found = root.getElementsByClassName(v); break;\n" +
+            "    case 'tag name': found = root.getElementsByTagName(v); break;\n" +
+            "    case 'css selector': found = root.querySelectorAll(v); break;\n" +
+            "    case 'xpath':\n" +
+            "      var snapshot = document.evaluate(v, root, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);\n" +
+            "      for (i = 0; i < snapshot.snapshotLength; i++) found.push(snapshot.snapshotItem(i));\n" +
+            "      break;\n" +
+            "    case 'link text':\n" +
+            "    case 'partial link text':\n" +
+            "      var links = root.getElementsByTagName('a');\n" +
+            "      for (i = 0; i < links.length; i++) {\n" +
+            "        var text = (links[i].innerText || links[i].textContent || '').trim();\n" +
+            "        if (l.using === 'link text' ? text === v : text.indexOf(v) >= 0) found.push(links[i]);\n" +
+            "      }\n" +
+            "      break;\n" +
+            "  }\n" +
+            "  return Array.prototype.slice.call(found);\n" +
+            "}\n";
+
+    private static final Map<Class<?>, String[]> STRATEGIES = new HashMap<Class<?>, String[]>();
+
+    static {
+        STRATEGIES.put(By.ById.class, new String[]{"id", "By.id: "});
+        STRATEGIES.put(By.ByName.class, new String[]{"name", "By.name: "});
+        STRATEGIES.put(By.ByClassName.class, new String[]{"class name", "By.className: "});
+        STRATEGIES.put(By.ByTagName.class, new String[]{"tag name", "By.tagName: "});
+        STRATEGIES.put(By.ByCssSelector.class, new String[]{"css selector", "By.cssSelector: "});
+        STRATEGIES.put(By.ByXPath.class, new String[]{"xpath", "By.xpath: "});
+        STRATEGIES.put(By.ByLinkText.class, new String[]{"link text", "By.linkText: "});
+        STRATEGIES.put(By.ByPartialLinkText.class, new String[]{"partial link text", "By.partialLinkText: "});
+    }
+
+    private JsLocator(){
+    }
+
+    /**
+     *
+     * @param locator is the locator to translate.
+     * @return a map of using and value for the browser script, or null if the locator is not one of the standard ones,
+     * in which case the caller has to find the element through the driver.
+     */
+    static Map<String, Object> toScriptArgument(By locator){
+        String[] strategy = STRATEGIES.get(locator.getClass());
+        if(strategy == null){
+            return null;
+        }
+        String description = locator.toString();
+        if(!description.startsWith(strategy[1])){
+            return null;
+        }
+        Map<String, Object> argument = new LinkedHashMap<String, Object>();
+        argument.put("using", strategy[0]);
+        argument.put("value", description.substring(strategy[1].length()));
+        return argument;
+    }
+}
@@ -0,0 +1,38 @@
+package CodeHouse;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes Page messages to a java.util.logging Logger.
+ */
+public class JulPageLogger implements PageLogger {
+
+    private final Logger logger;
+
+    /**
+     *
+     * @param logger is the Java Logger to write to.
+     */
+    public JulPageLogger(Logger logger){
+        this.logger = logger;
+    }
+
+    /**
+     *
+     * @return the Java Logger written to.
+     */
+    public Logger getLogger(){
+        return logger;
+    }
+
+    @Override
+    public boolean isEnabled(Level level){
+        return logger.isLoggable(level);
+    }
+
+    @Override
+    public void log(Level level, String message){
+        logger.log(level, message);
+    }
+}
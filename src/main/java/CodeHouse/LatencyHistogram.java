@@ -0,0 +1,134 @@
+package CodeHouse;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free latency histogram with log-linear buckets.
+ * Each power of two of microseconds is split into four buckets, so percentiles are accurate to about 20 %
+ * from one microsecond up to several days, in a fixed 200 slot array. Recording is two atomic adds.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = 50 * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     *
+     * @param nanos is the measured latency.
+     * @param failed is true if the measured operation threw.
+     */
+    public void record(long nanos, boolean failed){
+        long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(0, nanos));
+        counts.incrementAndGet(bucketOf(micros));
+        count.increment();
+        totalMicros.add(micros);
+        if(failed){
+            errors.increment();
+        }
+        long max;
+        while(micros > (max = maxMicros.get()) && !maxMicros.compareAndSet(max, micros)){
+            // retry until the max is ours or someone recorded a larger one.
+        }
+    }
+
+    /**
+     *
+     * @return a consistent enough copy of the histogram for reporting.
+     */
+    public Snapshot snapshot(){
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for(int i = 0; i < BUCKETS; i++){
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        return new Snapshot(copy, total, errors.sum(), totalMicros.sum(), maxMicros.get());
+    }
+
+    static int bucketOf(long micros){
+        if(micros < SUB_BUCKETS){
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return Math.min(BUCKETS - 1, (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub);
+    }
+
+    /**
+     * @return the largest latency in microseconds that falls into the bucket.
+     */
+    static long upperBoundOf(int bucket){
+        if(bucket < SUB_BUCKETS){
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + sub + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    /**
+     * A copy of a histogram taken at one point in time.
+     */
+    public static class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long errors;
+        private final long totalMicros;
+        private final long maxMicros;
+
+        Snapshot(long[] counts, long count, long errors, long totalMicros, long maxMicros){
+            this.counts = counts;
+            this.count = count;
+            this.errors = errors;
+            this.totalMicros = totalMicros;
+            this.maxMicros = maxMicros;
+        }
+
+        public long getCount(){
+            return count;
+        }
+
+        public long getErrors(){
+            return errors;
+        }
+
+        public long getTotalMicros(){
+            return totalMicros;
+        }
+
+        public long getMaxMicros(){
+            return maxMicros;
+        }
+
+        /**
+         *
+         * @param percentile is a value between 0 and 100.
+         * @return the latency in microseconds below which the given share of operations finished.
+         */
+        public long getPercentileMicros(double percentile){
+            if(count == 0){
+                return 0;
+            }
+            long rank = (long) Math.ceil(percentile / 100.0 * count);
+            long seen = 0;
+            for(int i = 0; i < counts.length; i++){
+                seen += counts[i];
+                if(seen >= rank){
+                    return Math.min(upperBoundOf(i), maxMicros);
+                }
+            }
+            return maxMicros;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package CodeHouse;
+
+import org.openqa.selenium.support.CacheLookup;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.How;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a Locators class next to every {@link Page} subclass with @FindBy fields, at compile time.
+ * The class holds the locator of every field as a By constant, built once, and an accessor per field that
+ * finds the element through an {@link ElementLookup}, so pages need neither PageFactory.initElements nor its
+ * reflective proxies. Fields inherited from Page superclasses are included; a field hides one of the same name
+ * in a superclass. Fields annotated with @CacheLookup are kept in the element cache of the session by default.
+ * The processor is registered as a service, so it runs in every build that has this library on its classpath.
+ *
+ * <pre>
+ *     public class LoginPage extends Page {
+ *         &#64;FindBy(id = "user") WebElement userName;
+ *         &#64;FindBy(css = "button[type=submit]") &#64;CacheLookup WebElement submit;
+ *
+ *         private final LoginPageLocators locators = new LoginPageLocators(this);
+ *
+ *         public void login(String user){
+ *             setValueInInputField(locators.userName(), user);
+ *             simpleClick(locators.submit());
+ *         }
+ *     }
+ * </pre>
+ */
+public class LocatorProcessor extends AbstractProcessor {
+
+    private static final String PAGE = "CodeHouse.Page";
+
+    private final Set<String> generated = new HashSet<String>();
+
+    /**
+     *
+     * @return every annotation, so the processor also sees rounds without @FindBy fields, in which a Page
+     * subclass only inherits its locators.
+     */
+    @Override
+    public Set<String> getSupportedAnnotationTypes(){
+        return Collections.singleton("*");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion(){
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv){
+        TypeElement page = processingEnv.getElementUtils().getTypeElement(PAGE);
+        if(page == null){
+            return false;
+        }
+        Set<TypeElement> types = new LinkedHashSet<TypeElement>();
+        for(Element root : roundEnv.getRootElements()){
+            collectTypes(root, types);
+        }
+        for(TypeElement type : types){
+            // a subclass without fields of its own still gets the locators it inherits.
+            if(processingEnv.getTypeUtils().isSubtype(type.asType(), page.asType()) && !fields(type, page).isEmpty()
+                    && generated.add(type.getQualifiedName().toString())){
+                generate(type, page);
+            }
+        }
+        return false;
+    }
+
+    private static void collectTypes(Element element, Set<TypeElement> types){
+        if(element instanceof TypeElement){
+            types.add((TypeElement) element);
+            for(Element member : element.getEnclosedElements()){
+                collectTypes(member, types);
+            }
+        }
+    }
+
+    private void generate(TypeElement type, TypeElement page){
+        List<Locator> locators = new ArrayList<Locator>();
+        Map<String, VariableElement> constants = new HashMap<String, VariableElement>();
+        boolean valid = true;
+        for(VariableElement field : fields(type, page).values()){
+            Locator locator = locatorOf(field);
+            valid &= locator != null;
+            locators.add(locator);
+            if(locator != null){
+                VariableElement other = constants.put(locator.constant, field);
+                if(other != null){
+                    error(field, "The fields " + other.getSimpleName() + " and " + field.getSimpleName() + " of " + type.getSimpleName()
+                            + " both have the locator constant " + locator.constant + "; rename one of them");
+                    valid = false;
+                }
+            }
+        }
+        if(!valid){
+            return;
+        }
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        String simpleName = locatorsName(type);
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        try (Writer out = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+            out.write(source(type, packageName, simpleName, locators));
+        }catch (IOException ioe){
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write " + qualifiedName + ": " + ioe, type);
+        }
+    }
+
+    /**
+     *
+     * @return the @FindBy fields of the type and its superclasses up to Page, by name, superclass fields first.
+     */
+    private Map<String, VariableElement> fields(TypeElement type, TypeElement page){
+        List<TypeElement> hierarchy = new ArrayList<TypeElement>();
+        for(TypeElement current = type; current != null && !current.equals(page); current = superclassOf(current)){
+            hierarchy.add(0, current);
+        }
+        Map<String, VariableElement> fields = new LinkedHashMap<String, VariableElement>();
+        for(TypeElement current : hierarchy){
+            for(Element member : current.getEnclosedElements()){
+                if(member.getKind() == ElementKind.FIELD && member.getAnnotation(FindBy.class) != null){
+                    fields.remove(member.getSimpleName().toString());
+                    fields.put(member.getSimpleName().toString(), (VariableElement) member);
+                }
+            }
+        }
+        return fields;
+    }
+
+    private static TypeElement superclassOf(TypeElement type){
+        TypeMirror superclass = type.getSuperclass();
+        return superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+    }
+
+    /**
+     *
+     * @return the locator of the field, or null after reporting why the field cannot have one.
+     */
+    private Locator locatorOf(VariableElement field){
+        boolean list;
+        TypeMirror type = field.asType();
+        if(isWebElement(type)){
+            list = false;
+        }else if(type.getKind() == TypeKind.DECLARED && ((DeclaredType) type).asElement().toString().equals(List.class.getName())
+                && ((DeclaredType) type).getTypeArguments().size() == 1 && isWebElement(((DeclaredType) type).getTypeArguments().get(0))){
+            list = true;
+        }else {
+            error(field, "@FindBy fields of a Page must be WebElement or List<WebElement>, not " + type);
+            return null;
+        }
+        String by = byOf(field.getAnnotation(FindBy.class));
+        if(by == null){
+            error(field, "@FindBy must set exactly one of id, name, className, css, tagName, linkText, partialLinkText, xpath or how and using");
+            return null;
+        }
+        return new Locator(field.getSimpleName().toString(), by, list, field.getAnnotation(CacheLookup.class) != null);
+    }
+
+    private static boolean isWebElement(TypeMirror type){
+        return type.getKind() == TypeKind.DECLARED && ((DeclaredType) type).asElement().toString().equals("org.openqa.selenium.WebElement");
+    }
+
+    /**
+     *
+     * @return the Java expression that creates the By of the annotation, or null if it does not set exactly one locator.
+     */
+    private static String byOf(FindBy findBy){
+        List<String> bys = new ArrayList<String>();
+        addBy(bys, "By.id", findBy.id());
+        addBy(bys, "By.name", findBy.name());
+        addBy(bys, "By.className", findBy.className());
+        addBy(bys, "By.cssSelector", findBy.css());
+        addBy(bys, "By.tagName", findBy.tagName());
+        addBy(bys, "By.linkText", findBy.linkText());
+        addBy(bys, "By.partialLinkText", findBy.partialLinkText());
+        addBy(bys, "By.xpath", findBy.xpath());
+        if(findBy.how() != How.UNSET){
+            addBy(bys, factoryOf(findBy.how()), findBy.using());
+        }
+        return bys.size() == 1 ? bys.get(0) : null;
+    }
+
+    private static String factoryOf(How how){
+        switch (how){
+            case ID:
+                return "By.id";
+            case ID_OR_NAME:
+                return "new org.openqa.selenium.support.ByIdOrName";
+            case NAME:
+                return "By.name";
+            case CLASS_NAME:
+                return "By.className";
+            case CSS:
+                return "By.cssSelector";
+            case TAG_NAME:
+                return "By.tagName";
+            case LINK_TEXT:
+                return "By.linkText";
+            case PARTIAL_LINK_TEXT:
+                return "By.partialLinkText";
+            default:
+                return "By.xpath";
+        }
+    }
+
+    private static void addBy(List<String> bys, String factory, String using){
+        if(!using.isEmpty()){
+            bys.add(factory + "(" + literal(using) + ")");
+        }
+    }
+
+    private String source(TypeElement type, String packageName, String simpleName, List<Locator> locators){
+        StringBuilder java = new StringBuilder();
+        if(!packageName.isEmpty()){
+            java.append("package ").append(packageName).append(";\n\n");
+        }
+        java.append("import CodeHouse.ElementLookup;\n")
+                .append("import CodeHouse.Page;\n")
+                .append("import org.openqa.selenium.By;\n")
+                .append("import org.openqa.selenium.WebElement;\n\n")
+                .append("import java.util.List;\n\n")
+                .append("/**\n")
+                .append(" * Locators of {@link ").append(type.getQualifiedName()).append("}, generated from its @FindBy fields by\n")
+                .append(" * {@link CodeHouse.LocatorProcessor}. Changes are lost on the next build.\n")
+                .append(" */\n")
+                .append(type.getModifiers().contains(Modifier.PUBLIC) ? "public " : "").append("final class ").append(simpleName).append(" {\n\n");
+        for(Locator locator : locators){
+            java.append("    public static final By ").append(locator.constant).append(" = ").append(locator.by).append(";\n");
+        }
+        java.append("\n    private final Page page;\n")
+                .append("    private final ElementLookup lookup;\n\n")
+                .append("    public ").append(simpleName).append("(Page page){\n")
+                .append("        this(page, ElementLookup.DEFAULT);\n")
+                .append("    }\n\n")
+                .append("    public ").append(simpleName).append("(Page page, ElementLookup lookup){\n")
+                .append("        this.page = page;\n")
+                .append("        this.lookup = lookup;\n")
+                .append("    }\n");
+        for(Locator locator : locators){
+            java.append('\n');
+            if(locator.list){
+                java.append("    public List<WebElement> ").append(locator.name).append("(){\n")
+                        .append("        return lookup.findAll(page, ").append(locator.constant).append(");\n");
+            }else {
+                java.append("    public WebElement ").append(locator.name).append("(){\n")
+                        .append("        return lookup.find(page, ").append(locator.constant).append(", ").append(locator.cacheLookup).append(");\n");
+            }
+            java.append("    }\n");
+        }
+        return java.append("}\n").toString();
+    }
+
+    /**
+     *
+     * @return the name of the Locators class: LoginPageLocators for LoginPage, Outer_InnerLocators for a nested Inner.
+     */
+    private static String locatorsName(TypeElement type){
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+        for(Element owner = type.getEnclosingElement(); owner instanceof TypeElement; owner = owner.getEnclosingElement()){
+            name.insert(0, owner.getSimpleName() + "_");
+        }
+        return name.append("Locators").toString();
+    }
+
+    /**
+     *
+     * @return the value as a Java string literal.
+     */
+    private static String literal(String value){
+        StringBuilder literal = new StringBuilder("\"");
+        for(char c : value.toCharArray()){
+            switch (c){
+                case '"':
+                    literal.append("\\\"");
+                    break;
+                case '\\':
+                    literal.append("\\\\");
+                    break;
+                case '\n':
+                    literal.append("\\n");
+                    break;
+                case '\r':
+                    literal.append("\\r");
+                    break;
+                case '\t':
+                    literal.append("\\t");
+                    break;
+                default:
+                    if(c < 0x20 || c > 0x7E){
+                        literal.append(String.format("\\u%04x", (int) c));
+                    }else {
+                        literal.append(c);
+                    }
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    private void error(Element element, String message){
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /**
+     * The locator of one @FindBy field.
+     */
+    private static final class Locator {
+
+        private final String name;
+        private final String constant;
+        private final String by;
+        private final boolean list;
+        private final boolean cacheLookup;
+
+        Locator(String name, String by, boolean list, boolean cacheLookup){
+            this.name = name;
+            this.constant = constantOf(name);
+            this.by = by;
+            this.list = list;
+            this.cacheLookup = cacheLookup;
+        }
+
+        /**
+         *
+         * @return the field name in upper snake case, for example USER_NAME for userName.
+         */
+        private static String constantOf(String name){
+            StringBuilder constant = new StringBuilder();
+            for(int i = 0; i < name.length(); i++){
+                char c = name.charAt(i);
+                if(Character.isUpperCase(c) && i > 0 && !Character.isUpperCase(name.charAt(i - 1))){
+                    constant.append('_');
+                }
+                constant.append(Character.toUpperCase(c));
+            }
+            return constant.toString();
+        }
+    }
+}
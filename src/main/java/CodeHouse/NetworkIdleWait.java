@@ -0,0 +1,147 @@
+package CodeHouse;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.TimeoutException;
+
+import java.util.Map;
+
+/**
+ * Waits until the page has no network activity, in a single executeAsyncScript call.
+ * The first wait on a document installs an in-page counter that wraps XMLHttpRequest and fetch.
+ * The page then checks that counter, jQuery.active and document.readyState on its own timer
+ * and answers once everything has been quiet for the quiet period, or the deadline has passed.
+ * Requests started before the counter was installed are only seen through jQuery.active. On a document that
+ * has finished loading, the quiet period counts from the end of its last resource, not from the install, so an
+ * idle page answers at once.
+ */
+public class NetworkIdleWait {
+
+    /**
+     * The default time the page needs to be quiet before it is considered idle.
+     */
+    public static final long DEFAULT_QUIET_PERIOD_MILLIS = 500;
+
+    /**
+     * The default time after which the wait gives up.
+     */
+    public static final long DEFAULT_TIMEOUT_MILLIS = 30000;
+
+    private static final long SCRIPT_TIMEOUT_MARGIN_MILLIS = 5000;
+
+    static final String WAIT_SCRIPT =
+            "var quiet = arguments[0], timeout = arguments[1], done = arguments[arguments.length - 1];\n"
+            + "var w = window;\n"
+            + "if (!w.__codeBreezeNet) {\n"
+            + "  var seed = 0;\n"
+            + "  if (document.readyState === 'complete' && w.performance && w.performance.getEntriesByType) {\n"
+            + "    var origin = w.performance.timeOrigin || (w.performance.timing && w.performance.timing.navigationStart) || 0;\n"
+            + "    var loaded = w.performance.getEntriesByType('resource');\n"
+            + "    for (var i = 0; i < loaded.length; i++) { seed = Math.max(seed, origin + loaded[i].responseEnd); }\n"
+            + "  }\n"
+            + "  var counter = w.__codeBreezeNet = {pending: 0, last: seed};\n"
+            + "  var start = function () { counter.pending++; counter.last = Date.now(); };\n"
+            + "  var end = function () { counter.pending = Math.max(0, counter.pending - 1); counter.last = Date.now(); };\n"
+            + "  if (w.XMLHttpRequest) {\n"
+            + "    var send = w.XMLHttpRequest.prototype.send;\n"
+            + "    w.XMLHttpRequest.prototype.send = function () {\n"
+            + "      var finished = false, finish = function () { if (!finished) { finished = true; end(); } };\n"
+            + "      this.addEventListener('loadend', finish);\n"
+            + "      start();\n"
+            + "      try { return send.apply(this, arguments); } catch (e) { finish(); throw e; }\n"
+            + "    };\n"
+            + "  }\n"
+            + "  if (w.fetch) {\n"
+            + "    var fetch = w.fetch;\n"
+            + "    w.fetch = function () {\n"
+            + "      start();\n"
+            + "      return fetch.apply(this, arguments).then(function (r) { end(); return r; }, function (e) { end(); throw e; });\n"
+            + "    };\n"
+            + "  }\n"
+            + "}\n"
+            + "var net = w.__codeBreezeNet, began = Date.now(), lastBusy = 0;\n"
+            + "function busy() {\n"
+            + "  var jq = (w.jQuery && typeof w.jQuery.active === 'number') ? w.jQuery.active : 0;\n"
+            + "  return net.pending + jq + (document.readyState === 'complete' ? 0 : 1);\n"
+            + "}\n"
+            + "(function check() {\n"
+            + "  var now = Date.now(), pending = busy();\n"
+            + "  if (pending > 0) { lastBusy = now; }\n"
+            + "  if (pending === 0 && now - Math.max(lastBusy, net.last) >= quiet) {\n"
+            + "    done({idle: true, pending: 0, waited: now - began}); return;\n"
+            + "  }\n"
+            + "  if (now - began >= timeout) { done({idle: false, pending: pending, waited: now - began}); return; }\n"
+            + "  setTimeout(check, Math.max(10, Math.min(50, quiet)));\n"
+            + "})();";
+
+    private final PageSession session;
+    private long quietPeriodMillis = DEFAULT_QUIET_PERIOD_MILLIS;
+    private long timeoutMillis = DEFAULT_TIMEOUT_MILLIS;
+
+    /**
+     *
+     * @param session is the session to wait on. Its driver must be a JavascriptExecutor.
+     */
+    public NetworkIdleWait(PageSession session){
+        this.session = session;
+    }
+
+    /**
+     *
+     * @param quietPeriodMillis is the time without network activity after which the page is idle.
+     * @return this wait.
+     */
+    public NetworkIdleWait withQuietPeriod(long quietPeriodMillis){
+        this.quietPeriodMillis = quietPeriodMillis;
+        return this;
+    }
+
+    /**
+     *
+     * @param timeoutMillis is the hard deadline of the wait.
+     * @return this wait.
+     */
+    public NetworkIdleWait withTimeout(long timeoutMillis){
+        this.timeoutMillis = timeoutMillis;
+        return this;
+    }
+
+    /**
+     *
+     * @return the hard deadline of the wait in milliseconds.
+     */
+    public long getTimeoutMillis(){
+        return timeoutMillis;
+    }
+
+    /**
+     * Waits with the configured quiet period and deadline.
+     * @return the time in milliseconds the page took to become idle.
+     */
+    public long await(){
+        return await(quietPeriodMillis, timeoutMillis);
+    }
+
+    /**
+     *
+     * @param quietPeriodMillis is the time without network activity after which the page is idle.
+     * @param timeoutMillis is the hard deadline of the wait.
+     * @return the time in milliseconds the page took to become idle.
+     * @throws TimeoutException if requests are still pending at the deadline.
+     */
+    public long await(long quietPeriodMillis, long timeoutMillis){
+        session.ensureScriptTimeout(timeoutMillis + SCRIPT_TIMEOUT_MARGIN_MILLIS);
+        Object result;
+        try {
+            result = ((JavascriptExecutor) session.getDriver()).executeAsyncScript(WAIT_SCRIPT, quietPeriodMillis, timeoutMillis);
+        }catch (ScriptTimeoutException ste){
+            throw new TimeoutException("Network did not become idle within " + timeoutMillis + " ms", ste);
+        }
+        Map<?, ?> state = (Map<?, ?>) result;
+        if(!Boolean.TRUE.equals(state.get("idle"))){
+            throw new TimeoutException("Network did not become idle within " + timeoutMillis + " ms, "
+                    + state.get("pending") + " request(s) still pending");
+        }
+        return ((Number) state.get("waited")).longValue();
+    }
+}
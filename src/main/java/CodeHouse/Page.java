@@ -6,29 +6,69 @@ import org.openqa.selenium.*;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.security.Credentials;
 import org.openqa.selenium.security.UserAndPassword;
-import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
-import org.openqa.selenium.support.ui.Wait;
+import org.openqa.selenium.support.ui.UnexpectedTagNameException;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.asserts.Assertion;
 import org.testng.asserts.SoftAssert;
 
+import java.io.BufferedReader;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 public class Page {
 
+    /**
+     * The driver of the last Page constructed with a driver, shared by all threads.
+     * Kept for backward compatibility only; Page helpers use {@link #getDriver()}.
+     */
+    @Deprecated
     public static WebDriver driver;
+    /**
+     * The logger of the last Page constructed with a Java Logger. Kept for backward compatibility only.
+     */
+    @Deprecated
     public static Logger logger;
+    /**
+     * The logger of the last Page constructed with a Log4j logger. Kept for backward compatibility only.
+     */
+    @Deprecated
     public static Log4JLogger log4JLogger;
 
+    private static final String SELECTED_OPTIONS_SCRIPT = BulkReader.TEXT_FUNCTION +
+            "var el = arguments[0];\n" +
+            "if (el.tagName !== 'SELECT') return el.tagName.toLowerCase();\n" +
+            "var options = Array.prototype.filter.call(el.options, function (o) { return o.selected; });\n" +
+            "return {options: options, texts: options.map(textOf)};";
+
+    /**
+     * How deep the calling thread is in nested helpers, so that only the outermost one retries.
+     */
+    private static final ThreadLocal<int[]> HELPER_DEPTH = new ThreadLocal<int[]>(){
+        @Override
+        protected int[] initialValue(){
+            return new int[1];
+        }
+    };
+
+    private final PageSession session;
+    private NetworkIdleWait networkIdleWait;
+
     /**
      *
      * @param driver1 configure the WebDriver
      * @param logger1 configure the Logger.
      */
     public Page(WebDriver driver1,Logger logger1){
+       this(new PageSession(driver1, logger1));
        driver = driver1;
        logger= logger1;
     }
@@ -40,7 +80,8 @@ public class Page {
      * @param logger pass a LOg4j logger
      */
     public Page(WebDriver driver,Log4JLogger logger){
-        this.driver = driver;
+        this(new PageSession(driver, logger));
+        Page.driver = driver;
         log4JLogger = logger;
     }
 
@@ -49,7 +90,28 @@ public class Page {
      * @param driver Constructor to configure the WebDriver.
      */
     public Page(WebDriver driver){
-        this.driver = driver;
+        this(new PageSession(driver));
+        Page.driver = driver;
+    }
+
+    /**
+     *
+     * @param session is the session (driver and logger) this Page works with.
+     *                Pages built on different sessions can be used from different threads at the same time.
+     */
+    public Page(PageSession session){
+        if(session == null){
+            throw new IllegalArgumentException("PageSession must not be null");
+        }
+        this.session = session;
+    }
+
+    /**
+     * Uses the session bound to the calling thread by {@link PageSession#bindToCurrentThread()}.
+     * This is the constructor to use with TestNG parallel="methods" suites.
+     */
+    public Page(){
+        this(PageSession.current());
     }
 
     /**
@@ -60,7 +122,16 @@ public class Page {
      *                Adds to logger. Check the overloaded version for other loggers like log4j.
      */
     public void info(String message){
-        logger.info(message);
+        log(Level.INFO, message);
+    }
+
+    /**
+     *
+     * @param pattern is the message with {} placeholders. It is only formatted when INFO is enabled.
+     * @param args are the values for the placeholders.
+     */
+    public void info(String pattern, Object... args){
+        log(Level.INFO, pattern, args);
     }
 
     /**
@@ -68,7 +139,178 @@ public class Page {
      * @param message is the logging message that needes to be added.
      */
     public void warn(String message){
-        logger.warning(message);
+        log(Level.WARNING, message);
+    }
+
+    /**
+     *
+     * @param pattern is the message with {} placeholders. It is only formatted when WARNING is enabled.
+     * @param args are the values for the placeholders.
+     */
+    public void warn(String pattern, Object... args){
+        log(Level.WARNING, pattern, args);
+    }
+
+    /**
+     *
+     * @param pattern is the detail message with {} placeholders. It is only formatted when FINE is enabled.
+     * @param args are the values for the placeholders.
+     */
+    public void fine(String pattern, Object... args){
+        log(Level.FINE, pattern, args);
+    }
+
+    /**
+     *
+     * @param level is the level to check.
+     * @return true if messages of this level are logged. Use it to guard messages that are expensive to build.
+     */
+    public boolean isLoggable(Level level){
+        return session.getPageLogger().isEnabled(level);
+    }
+
+    /**
+     * Runs a helper body under the execution policy and circuit breaker of the session, and records its latency
+     * and outcome in the metrics of the session.
+     */
+    private void run(String helper, final Runnable body){
+        run(helper, false, body);
+    }
+
+    private void run(String helper, boolean tolerant, final Runnable body){
+        call(helper, tolerant, () -> {
+            body.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs a helper like {@link #run(String, Runnable)}. When the policy tolerates element errors, a
+     * NoSuchElementException or StaleElementReferenceException left after the retries is logged instead of thrown.
+     */
+    private void runTolerant(String helper, final Runnable body){
+        try {
+            run(helper, true, body);
+        }catch (NoSuchElementException nsee){
+            if(!session.getExecutionPolicy().isElementErrorsTolerated()){
+                throw nsee;
+            }
+            info("\nNo Such Element Exception Occurred!. Please check the Element locator.");
+            warn("{} failed : {}", helper, nsee);
+        }catch (StaleElementReferenceException sere){
+            if(!session.getExecutionPolicy().isElementErrorsTolerated()){
+                throw sere;
+            }
+            info("\nStale Element Reference Exception Occurred!. Please add some explicit wait.");
+            warn("{} failed : {}", helper, sere);
+        }
+    }
+
+    /**
+     * Runs a helper body that returns a value under the execution policy and circuit breaker of the session.
+     * Helpers called from another helper run once and leave retries and the breaker to the outermost one.
+     */
+    private <T> T call(String helper, Supplier<T> body){
+        return call(helper, false, body);
+    }
+
+    /**
+     * Runs a helper body like {@link #call(String, Supplier)}.
+     * @param tolerant is true if the caller tolerates element errors when the policy allows it;
+     *                 evidence is then not captured for the errors it will only log.
+     */
+    private <T> T call(String helper, boolean tolerant, Supplier<T> body){
+        int[] depth = HELPER_DEPTH.get();
+        if(depth[0] > 0){
+            return measure(helper, body);
+        }
+        ExecutionPolicy policy = session.getExecutionPolicy();
+        CircuitBreaker breaker = session.getCircuitBreaker();
+        depth[0]++;
+        try {
+            for(int attempt = 1; ; attempt++){
+                breaker.acquire();
+                try {
+                    T result = measure(helper, body);
+                    breaker.onSuccess();
+                    return result;
+                }catch (RuntimeException e){
+                    breaker.onFailure(e);
+                    if(attempt >= policy.getMaxAttempts() || !policy.isRetryable(e)){
+                        if(!tolerant || !isToleratedElementError(e)){
+                            captureFailure(helper, e);
+                        }
+                        throw e;
+                    }
+                    fine("{} failed with {}, attempt {} of {}", helper, e, attempt, policy.getMaxAttempts());
+                    policy.pause(attempt);
+                }catch (Error e){
+                    // an AssertionError or similar says nothing about the browser, but it must still end a running probe.
+                    breaker.onSuccess();
+                    throw e;
+                }
+            }
+        }finally {
+            depth[0]--;
+        }
+    }
+
+    /**
+     * Runs an assertion helper, which never talks to the browser, outside of the execution policy and the
+     * circuit breaker, so that a failed assertion is neither retried nor turned into a CircuitOpenException.
+     */
+    private void assertion(String helper, final Runnable body){
+        measure(helper, () -> {
+            body.run();
+            return null;
+        });
+    }
+
+    private boolean isToleratedElementError(RuntimeException error){
+        return session.getExecutionPolicy().isElementErrorsTolerated()
+                && (error instanceof NoSuchElementException || error instanceof StaleElementReferenceException);
+    }
+
+    /**
+     * Hands the state of the browser to the evidence collector of the session, if there is one.
+     * Nothing is captured from a broken session, and a failed capture never hides the error of the helper.
+     */
+    private void captureFailure(String helper, RuntimeException error){
+        EvidenceCollector collector = session.getEvidenceCollector();
+        if(collector == null || error instanceof CircuitOpenException || CircuitBreaker.isSessionFailure(error)){
+            return;
+        }
+        try {
+            collector.capture(getDriver(), helper + " failed: " + error.getClass().getSimpleName());
+        }catch (RuntimeException re){
+            fine("Could not capture evidence for {} : {}", helper, re);
+        }
+    }
+
+    /**
+     * Runs a helper body and records its latency and outcome in the metrics of the session.
+     */
+    private <T> T measure(String helper, Supplier<T> body){
+        PageMetrics metrics = session.getMetrics();
+        if(!metrics.isEnabled()){
+            return body.get();
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = body.get();
+            failed = false;
+            return result;
+        }finally {
+            metrics.record(helper, System.nanoTime() - start, failed);
+        }
+    }
+
+    private void log(Level level, String pattern, Object... args){
+        PageLogger pageLogger = session.getPageLogger();
+        if(pageLogger.isEnabled(level)){
+            pageLogger.log(level, PageLogger.format(pattern, args));
+        }
     }
 
 
@@ -77,7 +319,15 @@ public class Page {
      * @return the current initialised driver.
      */
     public WebDriver getDriver(){
-        return driver;
+        return session.getDriver();
+    }
+
+    /**
+     *
+     * @return the session this Page works with.
+     */
+    public PageSession getSession(){
+        return session;
     }
 
     /**
@@ -85,17 +335,45 @@ public class Page {
      * @return the object of Actions Class from Selenium.
      */
     public Actions getActionsHandle(){
-        Actions actions = new Actions(driver);
+        Actions actions = new Actions(getDriver());
         return actions;
     }
 
+    /**
+     *
+     * @param locator is the locator of the element.
+     * @return a cached element for the locator. It is found on first use, reused afterwards,
+     * and found again automatically when it goes stale.
+     */
+    public CachedElement findCachedElement(By locator){
+        return getElementCache().get(locator);
+    }
+
+    /**
+     *
+     * @param context is the driver or element to search in.
+     * @param locator is the locator of the element inside the context.
+     * @return a cached element for the context and locator.
+     */
+    public CachedElement findCachedElement(SearchContext context, By locator){
+        return getElementCache().get(context, locator);
+    }
+
+    /**
+     *
+     * @return the element cache shared by all Pages of this session.
+     */
+    public ElementCache getElementCache(){
+        return session.getElementCache();
+    }
+
     /**
      *
      * @param timeInSeconds is the time the WEbDriver waits
      * @return the object of WebDriverWait
      */
     public WebDriverWait getWebDriverWait(int timeInSeconds){
-        WebDriverWait wait = new WebDriverWait(driver, timeInSeconds);
+        WebDriverWait wait = new WebDriverWait(getDriver(), timeInSeconds);
         return wait;
     }
 
@@ -111,22 +389,50 @@ public class Page {
         return select;
     }
 
+    /**
+     *
+     * @param selectElement is the dropdown element.
+     * @return the option index of the dropdown. It is built with one script on first use and rebuilt only when
+     * the options change, so every selection after that is a single driver call.
+     */
+    public SelectIndex getSelectIndex(WebElement selectElement){
+        return session.getSelectIndex(selectElement);
+    }
+
     /**
      *
      * @param selectElement  is the dropdown element to be used.
      * @param dropdownValue is the value to select the dropdown option by.
      */
     public void selectByValue(WebElement selectElement, String dropdownValue){
-        try {
+        runTolerant("selectByValue", () -> {
             getSelectObject(selectElement).selectByValue(dropdownValue);
-            info("Selected the element with value attribute : "+dropdownValue);
-        }catch (NoSuchElementException nsee){
-            info("\nNo Such Element Exception Occurred!. Please check the Element locator.");
-            nsee.printStackTrace();
-        }catch (StaleElementReferenceException sere){
-            info("\nStale Element Reference Exception Occurred!. Please add some explicit wait.");
-            sere.printStackTrace();
-        }
+            info("Selected the element with value attribute : {}", dropdownValue);
+        });
+    }
+
+    /**
+     *
+     * @param selectElement  is the dropdown element to be used.
+     * @param visibleText is the text of the dropdown option to select.
+     */
+    public void selectByVisibleText(WebElement selectElement, String visibleText){
+        runTolerant("selectByVisibleText", () -> {
+            getSelectObject(selectElement).selectByVisibleText(visibleText);
+            info("Selected the element with visibleText : {}", visibleText);
+        });
+    }
+
+    /**
+     *
+     * @param selectElement  is the dropdown element to be used.
+     * @param dropDownIndex is the index of the dropdown option to select.
+     */
+    public void selectByIndex(WebElement selectElement, int dropDownIndex){
+        runTolerant("selectByIndex", () -> {
+            getSelectObject(selectElement).selectByIndex(dropDownIndex);
+            info("Selected the element at index : {}", dropDownIndex);
+        });
     }
 
     /**
@@ -135,16 +441,10 @@ public class Page {
      *                       Deselects all the dropdown elements.
      */
     public void deselectAll(WebElement selectElement){
-        try {
+        runTolerant("deselectAll", () -> {
             getSelectObject(selectElement).deselectAll();
             info("Deselected the element");
-        }catch (NoSuchElementException nsee){
-            info("\nNo Such Element Exception Occurred!. Please check the Element locator.");
-            nsee.printStackTrace();
-        }catch (StaleElementReferenceException sere){
-            info("\nStale Element Reference Exception Occurred!. Please add some explicit wait.");
-            sere.printStackTrace();
-        }
+        });
     }
 
     /**
@@ -154,16 +454,10 @@ public class Page {
      * @param dropDownIndex is the index for the dropdown list
      */
     public void deselectByIndex(WebElement selectElement, int dropDownIndex){
-        try {
+        runTolerant("deselectByIndex", () -> {
             getSelectObject(selectElement).deselectByIndex(dropDownIndex);
-            info("Deselected the element at index : "+ dropDownIndex);
-        }catch (NoSuchElementException nsee){
-            info("\nNo Such Element Exception Occurred!. Please check the Element locator.");
-            nsee.printStackTrace();
-        }catch (StaleElementReferenceException sere){
-            info("\nStale Element Reference Exception Occurred!. Please add some explicit wait.");
-            sere.printStackTrace();
-        }
+            info("Deselected the element at index : {}", dropDownIndex);
+        });
     }
 
 
@@ -174,16 +468,10 @@ public class Page {
      * @param dropdownListValue is the value in the dropdown list.
      */
     public void deselectByValue(WebElement selectElement, String dropdownListValue){
-        try {
+        runTolerant("deselectByValue", () -> {
             getSelectObject(selectElement).deselectByValue(dropdownListValue);
-            info("Deselected the element with value : "+ dropdownListValue);
-        }catch (NoSuchElementException nsee){
-            info("\nNo Such Element Exception Occurred!. Please check the Element locator.");
-            nsee.printStackTrace();
-        }catch (StaleElementReferenceException sere){
-            info("\nStale Element Reference Exception Occurred!. Please add some explicit wait.");
-            sere.printStackTrace();
-        }
+            info("Deselected the element with value : {}", dropdownListValue);
+        });
     }
 
     /**
@@ -193,16 +481,64 @@ public class Page {
      * @param visibleText is the text that needs to be selected.
      */
     public void deselectByVisibleText(WebElement selectElement, String visibleText){
-        try {
+        runTolerant("deselectByVisibleText", () -> {
             getSelectObject(selectElement).deselectByVisibleText(visibleText);
-            info("Deselected the element with visibleText : "+ visibleText);
-        }catch (NoSuchElementException nsee){
-            info("\nNo Such Element Exception Occurred!. Please check the Element locator.");
-            nsee.printStackTrace();
-        }catch (StaleElementReferenceException sere){
-            info("\nStale Element Reference Exception Occurred!. Please add some explicit wait.");
-            sere.printStackTrace();
-        }
+            info("Deselected the element with visibleText : {}", visibleText);
+        });
+    }
+
+    /**
+     * Selects the option with one script call through the {@link SelectIndex} of the dropdown, instead of the
+     * calls per option that {@link #selectByValue(WebElement, String)} makes. The option is set from JavaScript,
+     * so the input and change events are not trusted and the dropdown is not checked for being displayed;
+     * use it for large dropdowns whose handlers do not depend on that.
+     *
+     * @param selectElement  is the dropdown element to be used.
+     * @param dropdownValue is the value to select the dropdown option by.
+     */
+    public void fastSelectByValue(WebElement selectElement, String dropdownValue){
+        runTolerant("fastSelectByValue", () -> {
+            getSelectIndex(selectElement).selectByValue(dropdownValue);
+            info("Selected the element with value attribute : {}", dropdownValue);
+        });
+    }
+
+    /**
+     * Like {@link #fastSelectByValue(WebElement, String)}, by the text of the option.
+     *
+     * @param selectElement  is the dropdown element to be used.
+     * @param visibleText is the text of the dropdown option to select.
+     */
+    public void fastSelectByVisibleText(WebElement selectElement, String visibleText){
+        runTolerant("fastSelectByVisibleText", () -> {
+            getSelectIndex(selectElement).selectByVisibleText(visibleText);
+            info("Selected the element with visibleText : {}", visibleText);
+        });
+    }
+
+    /**
+     * Like {@link #fastSelectByValue(WebElement, String)}, by the index of the option.
+     *
+     * @param selectElement  is the dropdown element to be used.
+     * @param dropDownIndex is the index of the dropdown option to select.
+     */
+    public void fastSelectByIndex(WebElement selectElement, int dropDownIndex){
+        runTolerant("fastSelectByIndex", () -> {
+            getSelectIndex(selectElement).selectByIndex(dropDownIndex);
+            info("Selected the element at index : {}", dropDownIndex);
+        });
+    }
+
+    /**
+     * Like {@link #fastSelectByValue(WebElement, String)}, deselecting every option of a multi-select.
+     *
+     * @param selectElement  is the dropdown element to be used.
+     */
+    public void fastDeselectAll(WebElement selectElement){
+        runTolerant("fastDeselectAll", () -> {
+            getSelectIndex(selectElement).deselectAll();
+            info("Deselected the element");
+        });
     }
 
     /**
@@ -212,14 +548,88 @@ public class Page {
      * @return the List of Extracted DropDown Options.
      */
     public List<WebElement> getAllSelectedOptions(WebElement selectElement, boolean printList){
-
-        List<WebElement> extractedList =getSelectObject(selectElement).getAllSelectedOptions();
-        if(printList==true){
-            for (WebElement e: extractedList){
-                info(e.getText());
+        return call("getAllSelectedOptions", () -> {
+            // the options and their texts come back in one script instead of a call per option.
+            Object result = getJsDriver().executeScript(SELECTED_OPTIONS_SCRIPT, selectElement);
+            if(result instanceof String){
+                throw new UnexpectedTagNameException("select", (String) result);
             }
-        }
-        return extractedList;
+            Map<?, ?> selected = (Map<?, ?>) result;
+            List<WebElement> extractedList = new ArrayList<WebElement>();
+            for(Object option : (List<?>) selected.get("options")){
+                extractedList.add((WebElement) option);
+            }
+            if(printList==true && isLoggable(Level.INFO)){
+                for (Object text : (List<?>) selected.get("texts")){
+                    info(String.valueOf(text));
+                }
+            }
+            return extractedList;
+        });
+    }
+
+    /**
+     *
+     * @return a new BulkReader on the current driver, which reads many options, texts or attributes in one round trip.
+     */
+    public BulkReader getBulkReader(){
+        return new BulkReader(getDriver());
+    }
+
+    /**
+     *
+     * @param selectElement is the dropdown box element.
+     * @return value, text, selected and disabled state of every option, read in one round trip.
+     */
+    public List<DropdownOption> getDropdownOptions(WebElement selectElement){
+        return call("getDropdownOptions", () -> getBulkReader().readOptions(selectElement));
+    }
+
+    /**
+     *
+     * @param selectElement is the dropdown box element.
+     * @return the selected options, read in one round trip.
+     */
+    public List<DropdownOption> getSelectedDropdownOptions(WebElement selectElement){
+        return call("getSelectedDropdownOptions", () -> getBulkReader().readSelectedOptions(selectElement));
+    }
+
+    /**
+     *
+     * @param elements are the elements to read.
+     * @return the text of each element, read in one round trip.
+     */
+    public List<String> getTexts(List<? extends WebElement> elements){
+        return call("getTexts", () -> getBulkReader().readTexts(elements));
+    }
+
+    /**
+     *
+     * @param locator finds the elements to read.
+     * @return the text of each element, found and read in one round trip.
+     */
+    public List<String> getTexts(By locator){
+        return call("getTexts", () -> getBulkReader().readTexts(locator));
+    }
+
+    /**
+     *
+     * @param elements are the elements to read.
+     * @param attributes are the attribute names to read from each element.
+     * @return the tag name, text and attributes of each element, read in one round trip.
+     */
+    public List<ElementData> getElementData(List<? extends WebElement> elements, String... attributes){
+        return call("getElementData", () -> getBulkReader().readElements(elements, attributes));
+    }
+
+    /**
+     *
+     * @param locator finds the elements to read.
+     * @param attributes are the attribute names to read from each element.
+     * @return the tag name, text and attributes of each element, found and read in one round trip.
+     */
+    public List<ElementData> getElementData(By locator, String... attributes){
+        return call("getElementData", () -> getBulkReader().readElements(locator, attributes));
     }
 
     /**
@@ -229,16 +639,10 @@ public class Page {
      *                and logging information.
      */
     public void simpleClick(WebElement element){
-        try {
+        runTolerant("simpleClick", () -> {
             element.click();
             info("Clicked on element");
-        }catch (NoSuchElementException nsee){
-            info("\nNo Such Element Exception Occurred!. Please check the Element locator.");
-            nsee.printStackTrace();
-        }catch (StaleElementReferenceException sere){
-            info("\nStale Element Reference Exception Occurred!. Please add some explicit wait.");
-            sere.printStackTrace();
-        }
+        });
     }
 
     /**
@@ -247,21 +651,20 @@ public class Page {
      *
      */
     public void clickWithJS(WebElement elementToBeClicked){
-        waitForJQueryToComplete();
-        waitForPageLoadToComplete();
-        try {
-            getJsDriver().executeScript("argument[0].click();", elementToBeClicked);
-        }catch (JavascriptException jse){
-            info("JavaScript Exception Occurred!");
-            jse.printStackTrace();
-            throw jse;
-        }catch (NullPointerException nsee) {
-            info("Null Pointer Exception Occurred! . Check you driver is getting initialised!");
-            nsee.printStackTrace();
-            throw nsee;
-        }catch (Exception e){
-            e.printStackTrace();
-        }
+        runTolerant("clickWithJS", () -> {
+            // like jQuery.active == 0 before: no quiet period, only no pending requests and a complete document.
+            NetworkIdleWait idle = getNetworkIdleWait();
+            idle.await(0, idle.getTimeoutMillis());
+            try {
+                getJsDriver().executeScript("arguments[0].click();", elementToBeClicked);
+            }catch (JavascriptException jse){
+                info("JavaScript Exception Occurred!");
+                throw jse;
+            }catch (NullPointerException nsee) {
+                info("Null Pointer Exception Occurred! . Check you driver is getting initialised!");
+                throw nsee;
+            }
+        });
     }
 
     /**
@@ -269,16 +672,10 @@ public class Page {
      * @param elementToRightClickUpon is the element on which the right click needs to be performed.
      */
     public void rightClickOnElement(final WebElement elementToRightClickUpon){
-        try {
-            getActionsHandle().contextClick(elementToRightClickUpon).build().perform();
+        runTolerant("rightClickOnElement", () -> {
+            Gesture.CONTEXT_CLICK.perform(getDriver(), elementToRightClickUpon);
             info("Right Clicked on WebElement");
-        }catch (NoSuchElementException nsee){
-            info("\nNo Such Element Exception Occurred!. Please check the Element locator.");
-            nsee.printStackTrace();
-        }catch (StaleElementReferenceException sere){
-            info("\nStale Element Reference Exception Occurred!. Please add some explicit wait.");
-            sere.printStackTrace();
-        }
+        });
     }
 
     /**
@@ -287,18 +684,48 @@ public class Page {
      * @param option is the option to be selected from the right click options (DOM options only).
      */
     public void rightClickAndChooseOptionByPartialLinkText(final WebElement element, String option){
-        try {
-            getActionsHandle().contextClick(element).build().perform();
+        runTolerant("rightClickAndChooseOptionByPartialLinkText", () -> {
+            Gesture.CONTEXT_CLICK.perform(getDriver(), element);
             WebElement ele = element.findElement(By.partialLinkText(option));
             clickWithJS(ele);
             info("Right Clicked on WebElement");
-        }catch (NoSuchElementException nsee){
-            info("\nNo Such Element Exception Occurred!. Please check the Element locator.");
-            nsee.printStackTrace();
-        }catch (StaleElementReferenceException sere){
-            info("\nStale Element Reference Exception Occurred!. Please add some explicit wait.");
-            sere.printStackTrace();
-        }
+        });
+    }
+
+    /**
+     * Performs all steps of the gesture as one Actions chain.
+     * @param gesture is the gesture, for example one of the constants of {@link Gesture}.
+     * @param elements are the elements of the slots of the gesture, slot 0 first.
+     */
+    public void performGesture(Gesture gesture, WebElement... elements){
+        runTolerant("performGesture", () -> {
+            gesture.perform(getDriver(), elements);
+            info("Performed a gesture of {} step(s)", gesture.size());
+        });
+    }
+
+    /**
+     *
+     * @param source is the element to drag.
+     * @param target is the element to drop it on.
+     */
+    public void dragAndDrop(WebElement source, WebElement target){
+        runTolerant("dragAndDrop", () -> {
+            Gesture.DRAG_AND_DROP.perform(getDriver(), source, target);
+            info("Dragged and dropped WebElement");
+        });
+    }
+
+    /**
+     *
+     * @param menu is the element to hover over, for example a menu that opens on hover.
+     * @param item is the element to click once the pointer is over the menu.
+     */
+    public void hoverAndClick(WebElement menu, WebElement item){
+        runTolerant("hoverAndClick", () -> {
+            Gesture.HOVER_AND_CLICK.perform(getDriver(), menu, item);
+            info("Hovered and clicked on WebElement");
+        });
     }
 
     /**
@@ -306,17 +733,11 @@ public class Page {
      * @param element Element to be Double Clicked.
      */
     public void doubleClickElement(final WebElement element){
-        try {
+        runTolerant("doubleClickElement", () -> {
             explicitWaitForElementToBeVisible(element,20);
-            getActionsHandle().moveToElement(element).doubleClick(element).build().perform();
+            Gesture.DOUBLE_CLICK.perform(getDriver(), element);
             info("Double Clicked on WebElement");
-        }catch (NoSuchElementException nsee){
-            info("\nNo Such Element Exception Occurred!. Please check the Element locator.");
-            nsee.printStackTrace();
-        }catch (StaleElementReferenceException sere){
-            info("\nStale Element Reference Exception Occurred!. Please add some explicit wait.");
-            sere.printStackTrace();
-        }
+        });
     }
 
 
@@ -330,18 +751,12 @@ public class Page {
      * @param inputValue is the value.
      */
     public void setValueInInputField(final WebElement inputElement, String inputValue){
-        try {
+        runTolerant("setValueInInputField", () -> {
             explicitWaitForElementToBeVisible(inputElement,20);
             clickAndClearField(inputElement);
             inputElement.sendKeys(inputValue);
-            info("The Value set in field is : "+inputValue);
-        }catch (NoSuchElementException nsee){
-            info("\nNo Such Element Exception Occurred!. Please check the Element locator.");
-            nsee.printStackTrace();
-        }catch (StaleElementReferenceException sere){
-            info("\nStale Element Reference Exception Occurred!. Please add some explicit wait.");
-            sere.printStackTrace();
-        }
+            info("The Value set in field is : {}", inputValue);
+        });
     }
 
 
@@ -351,10 +766,50 @@ public class Page {
      * @param inputValue is the value to be set.
      */
     public void setValueInInputFieldJS( WebElement inputElement, String inputValue){
-        cleanAndRebuildElement(inputElement,150,25);
-        getJsDriver().executeScript("arguments[0].value = '';", inputElement);
-        inputElement.sendKeys(inputValue);
-        info("Value Set in input element is  : " + inputValue);
+        run("setValueInInputFieldJS", () -> {
+            cleanAndRebuildElement(inputElement,150,25);
+            getJsDriver().executeScript("arguments[0].value = '';", inputElement);
+            inputElement.sendKeys(inputValue);
+            info("Value Set in input element is  : {}", inputValue);
+        });
+    }
+
+    /**
+     *
+     * @return a new FormFill on the current driver. Add fields, dropdowns and checkboxes to it and
+     * fill them all in one round trip with {@link FormFill#apply()}.
+     */
+    public FormFill newFormFill(){
+        return new FormFill(getDriver());
+    }
+
+    /**
+     *
+     * @param values maps each field, given as a WebElement or a By, to its value. Select elements get the
+     *               option with that value, or else with that visible text.
+     * @return the result of every field, in the iteration order of the map.
+     */
+    public List<FormFill.FieldResult> fillForm(Map<?, String> values){
+        return call("fillForm", () -> {
+            FormFill form = newFormFill();
+            for(Map.Entry<?, String> entry : values.entrySet()){
+                if(entry.getKey() instanceof WebElement){
+                    form.set((WebElement) entry.getKey(), entry.getValue());
+                }else if(entry.getKey() instanceof By){
+                    form.set((By) entry.getKey(), entry.getValue());
+                }else {
+                    throw new IllegalArgumentException("Form fields must be a WebElement or a By, not " + entry.getKey());
+                }
+            }
+            List<FormFill.FieldResult> results = form.apply();
+            for(FormFill.FieldResult result : results){
+                if(!result.isApplied()){
+                    warn("Could not fill {} : {}", result.getField(), result.getError());
+                }
+            }
+            info("Filled {} form fields", results.size());
+            return results;
+        });
     }
 
 
@@ -364,8 +819,10 @@ public class Page {
      *                this method will scroll the page until the element is in view.
      */
     public void scrollToElement(final WebElement element){
-        ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", element);
-        info("Scrolling to element in view");
+        run("scrollToElement", () -> {
+            getJsDriver().executeScript("arguments[0].scrollIntoView(true);", element);
+            info("Scrolling to element in view");
+        });
     }
 
     /**
@@ -373,16 +830,10 @@ public class Page {
      * @param inputElement is the elememt  that needs to be cleared. This would be an input field.
      */
     public void clearInputElement(WebElement inputElement){
-        try {
+        runTolerant("clearInputElement", () -> {
             inputElement.clear();
-            info("Cleared the inputElement "+inputElement.toString());
-        }catch (NoSuchElementException nsee){
-            info("\nNo Such Element Exception Occurred!. Please check the Element locator.");
-            nsee.printStackTrace();
-        }catch (StaleElementReferenceException sere){
-            info("\nStale Element Reference Exception Occurred!. Please add some explicit wait.");
-            sere.printStackTrace();
-        }
+            info("Cleared the inputElement {}", inputElement);
+        });
     }
 
     /**
@@ -390,8 +841,10 @@ public class Page {
      * @param elementToBeClickedAndCleared is the element that needs to be clicked and cleared.
      */
     public void clickAndClearField(WebElement elementToBeClickedAndCleared){
-        simpleClick(elementToBeClickedAndCleared);
-        clearInputElement(elementToBeClickedAndCleared);
+        run("clickAndClearField", () -> {
+            simpleClick(elementToBeClickedAndCleared);
+            clearInputElement(elementToBeClickedAndCleared);
+        });
     }
 
     /**
@@ -399,9 +852,10 @@ public class Page {
      * @param elementToBeDoubleClicked the element that needs to be double clicked.
      */
     public void doubleClickWebElement(WebElement elementToBeDoubleClicked){
-        Actions actions= getActionsHandle();
-        actions.moveToElement(elementToBeDoubleClicked).doubleClick().build().perform();
-        info("Double clicked element "+elementToBeDoubleClicked);
+        run("doubleClickWebElement", () -> {
+            Gesture.DOUBLE_CLICK.perform(getDriver(), elementToBeDoubleClicked);
+            info("Double clicked element {}", elementToBeDoubleClicked);
+        });
     }
 
 
@@ -412,55 +866,40 @@ public class Page {
      * @return the refreshed webElement.
      */
     public WebElement cleanAndRebuildElement(final WebElement element, int pollMilliseconds){
-        WebElement e2 = null;
-        int counter = 0 ;
-        do{
-            try{
-                e2=element;
-                e2.isDisplayed();
-                info("Refreshing WebElement....");
-                break;
-            }catch (StaleElementReferenceException sere){
-                e2=null;
-                deadWait(pollMilliseconds);
-                counter++;
-            }catch(java.util.NoSuchElementException e){
-                e2=null;
-                deadWait(pollMilliseconds);
-                counter++;
-            }
-        }while(counter<20);
-        return e2;
+        return cleanAndRebuildElement(element, pollMilliseconds, 20);
     }
 
 
     /**
      *
-     * @param element is the element that needs to be rebuilt.
-     * @param pollMilliseconds is the time it will poll between rebuilding.
+     * @param element is the element that needs to be rebuilt. A {@link CachedElement} is found again with its locator;
+     *                any other element can only be checked until it stops being stale.
+     * @param pollMilliseconds is the time it will poll between rebuilding. The pause backs off up to four times this value.
      * @param retryCount is the time it will retry to rebuild the element.
-     * @return the rebuilt element
+     * @return the rebuilt element, or null if it could not be rebuilt.
      */
     public WebElement cleanAndRebuildElement(final WebElement element, int pollMilliseconds, int retryCount){
-        WebElement e2 = null;
-        int counter = 0 ;
-        do{
-            try{
-                e2=element;
-                e2.isDisplayed();
+        return call("cleanAndRebuildElement", () -> {
+            WaitPolicy policy = getWaitEngine().getDefaultPolicy()
+                    .withBackoff(pollMilliseconds, 4L * pollMilliseconds, 1.5)
+                    .withMaxAttempts(retryCount);
+            try {
+                WebElement rebuilt = getWaitEngine().until("element to be rebuilt", new Function<WebDriver, WebElement>() {
+                    public WebElement apply(WebDriver driver) {
+                        if(element instanceof CachedElement){
+                            ((CachedElement) element).refresh();
+                        }
+                        element.isDisplayed();
+                        return element;
+                    }
+                }, policy);
                 info("Refreshing WebElement....");
-                break;
-            }catch (StaleElementReferenceException sere){
-                e2=null;
-                deadWait(pollMilliseconds);
-                counter++;
-            }catch(java.util.NoSuchElementException e){
-                e2=null;
-                deadWait(pollMilliseconds);
-                counter++;
+                return rebuilt;
+            }catch (TimeoutException te){
+                info("Could not rebuild the WebElement after {} attempts.", retryCount);
+                return null;
             }
-        }while(counter<retryCount);
-        return e2;
+        });
     }
 
     /**
@@ -468,8 +907,10 @@ public class Page {
      * @param timeInSeconds the time in seconds to be waited upon.
      */
     public void explicitWaitForElementToBeClickable(WebElement element, int timeInSeconds) {
-        WebDriverWait wait = new WebDriverWait(driver, timeInSeconds);
-        wait.until(ExpectedConditions.elementToBeClickable(element));
+        run("explicitWaitForElementToBeClickable", () -> {
+            getWaitEngine().until(PageCondition.elementToBeClickable(element),
+                    getWaitEngine().getDefaultPolicy().withTimeoutInSeconds(timeInSeconds));
+        });
     }
 
     /**
@@ -477,9 +918,11 @@ public class Page {
      * @param timeInSeconds the time in seconds to be waited upon.
      */
     public void explicitWaitForElementToBeVisible(WebElement element, int timeInSeconds) {
-        WebDriverWait wait = getWebDriverWait(200);
-        wait.until(ExpectedConditions.visibilityOf(element));
-        info("Waiting for the WebElement to be visible.");
+        run("explicitWaitForElementToBeVisible", () -> {
+            getWaitEngine().until(PageCondition.visibilityOf(element),
+                    getWaitEngine().getDefaultPolicy().withTimeoutInSeconds(timeInSeconds));
+            info("Waiting for the WebElement to be visible.");
+        });
     }
 
     /**
@@ -488,8 +931,10 @@ public class Page {
      * @param keys is the enum Keys to be used.
      */
     public void useKeyboardButton(WebElement elementToTabOn, Keys keys){
-        elementToTabOn.sendKeys(keys);
-        info("clicked Tab button on Keyboard"+keys.name().toString());
+        run("useKeyboardButton", () -> {
+            elementToTabOn.sendKeys(keys);
+            info("clicked Tab button on Keyboard{}", keys);
+        });
     }
 
     /**
@@ -498,9 +943,10 @@ public class Page {
      *                            Waits for the element to be selected.
      */
     public void explicitWaitForElementToBeSelected(WebElement elementToBeSelected){
-        WebDriverWait wait = getWebDriverWait(200);
-        wait.until(ExpectedConditions.elementSelectionStateToBe(elementToBeSelected, true));
-        info("Waiting for the WebElement to be Selected.");
+        run("explicitWaitForElementToBeSelected", () -> {
+            getWaitEngine().until(PageCondition.elementSelectionStateToBe(elementToBeSelected, true));
+            info("Waiting for the WebElement to be Selected.");
+        });
     }
 
     /**
@@ -509,9 +955,10 @@ public class Page {
      *                            Waits for the element to be selected.
      */
     public void explicitWaitForElementNotToBeSelected(WebElement elementToBeSelected){
-        WebDriverWait wait = getWebDriverWait(200);
-        wait.until(ExpectedConditions.elementSelectionStateToBe(elementToBeSelected, false));
-        info("Waiting for the WebElement to be Not Selected.");
+        run("explicitWaitForElementNotToBeSelected", () -> {
+            getWaitEngine().until(PageCondition.elementSelectionStateToBe(elementToBeSelected, false));
+            info("Waiting for the WebElement to be Not Selected.");
+        });
     }
 
     /**
@@ -519,9 +966,10 @@ public class Page {
      * @param pageTitle is the Page Title which is loaded.
      */
     public void waitForPageTitleToBeLoaded(String pageTitle){
-        WebDriverWait wait = getWebDriverWait(200);
-        wait.until(ExpectedConditions.titleIs(pageTitle));
-        info("Waiting for the WebElement to be Not Selected.");
+        run("waitForPageTitleToBeLoaded", () -> {
+            getWaitEngine().until(PageCondition.titleIs(pageTitle));
+            info("Waiting for the page title to be loaded.");
+        });
     }
 
     /**
@@ -530,24 +978,27 @@ public class Page {
      * @return the boolean status of the expected page title and actual page title.
      */
     public boolean  isCorrectPageIsLoaded(String expectedPageTitle){
-        waitForPageTitleToBeLoaded(expectedPageTitle);
-        String actualTile = getDriver().getTitle();
-        boolean isEqual = actualTile.equals(expectedPageTitle);
-        info("The Extracted page title is : "+ actualTile+ "\nThe expected page title is : "+expectedPageTitle+"\nMatched Status is : "+isEqual);
-        return isEqual;
+        return call("isCorrectPageIsLoaded", () -> {
+            waitForPageTitleToBeLoaded(expectedPageTitle);
+            String actualTile = getDriver().getTitle();
+            boolean isEqual = actualTile.equals(expectedPageTitle);
+            info("The Extracted page title is : {}\nThe expected page title is : {}\nMatched Status is : {}", actualTile, expectedPageTitle, isEqual);
+            return isEqual;
+        });
     }
 
     /**
      * @param milliseconds provides waiting mechanism when extra wait is required
      *                 can be used explicitly at desired points. This is Thread.sleep();
+     *                 Prefer the explicitWaitFor* helpers or {@link #getWaitEngine()}, which stop as soon as the condition is met.
      */
     public void deadWait(int milliseconds){
         try {
             Thread.sleep(milliseconds);
         }
-        catch(Exception ie){
+        catch(InterruptedException ie){
             info("Interrupted Exception Occurred !");
-            ie.printStackTrace();
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -556,15 +1007,14 @@ public class Page {
      * waits until the refrenced time inside the method. use this after the Save and Next button click to ensure the next page is successfully loaded .
      */
     public void waitForPageLoadToComplete() {
-        Wait<WebDriver> wait = new WebDriverWait(driver, 30);
-        wait.until(new Function<WebDriver, Boolean>() {
-            public Boolean apply(WebDriver driver) {
-                System.out.println("Current Window State       : "
-                        + String.valueOf(((JavascriptExecutor) driver).executeScript("return document.readyState")));
-                return String
-                        .valueOf(((JavascriptExecutor) driver).executeScript("return document.readyState"))
-                        .equals("complete");
-            }
+        run("waitForPageLoadToComplete", () -> {
+            getWaitEngine().until("document.readyState to be complete", new Function<WebDriver, Boolean>() {
+                public Boolean apply(WebDriver driver) {
+                    String readyState = String.valueOf(((JavascriptExecutor) driver).executeScript("return document.readyState"));
+                    fine("Current Window State       : {}", readyState);
+                    return readyState.equals("complete");
+                }
+            }, getWaitEngine().getDefaultPolicy().withTimeoutInSeconds(30));
         });
     }
 
@@ -579,41 +1029,82 @@ public class Page {
             jsDriver = (JavascriptExecutor) getDriver();
         } catch (ClassCastException cce) {
             info("Class Cast Exception Occurred!. Check if the driver is of type WebDriver");
-            cce.printStackTrace();
             throw cce;
         } catch (NullPointerException nsee) {
             info("Null Pointer Exception Occurred! . Check you driver is getting initialised!");
-            nsee.printStackTrace();
             throw nsee;
         }
         return jsDriver;
     }
 
+    /**
+     *
+     * @return a new ScriptBatch on the current driver. Queue several reads and actions in it and
+     * send them to the browser in one round trip with {@link ScriptBatch#execute()}.
+     */
+    public ScriptBatch newScriptBatch(){
+        return new ScriptBatch(getJsDriver());
+    }
+
     /**
      *  waits for the JQuery to complete.
+     *  Also waits for fetch and XMLHttpRequest calls, see {@link #waitForNetworkIdle(long, long)}.
+     *  Gives up after the timeout of {@link #getNetworkIdleWait()} instead of waiting forever.
      */
     public void waitForJQueryToComplete() {
-        while (true) {
-            Boolean ajaxIsComplete = (Boolean) ((JavascriptExecutor)driver).executeScript("return jQuery.active == 0");
-            if (ajaxIsComplete){
-                info("Waiting for JQuery to complete");
-                break;
-            }
+        run("waitForJQueryToComplete", () -> {
+            long waited = getNetworkIdleWait().await();
+            info("Waited {} ms for JQuery to complete", waited);
+        });
+    }
+
+    /**
+     *
+     * @param quietPeriodMillis is the time without pending requests after which the page counts as idle.
+     * @param timeoutMillis is the maximum time to wait.
+     *                      Throws a TimeoutException if requests are still pending after this time.
+     */
+    public void waitForNetworkIdle(long quietPeriodMillis, long timeoutMillis){
+        run("waitForNetworkIdle", () -> {
+            long waited = getNetworkIdleWait().await(quietPeriodMillis, timeoutMillis);
+            info("Waited {} ms for the network to be idle", waited);
+        });
+    }
+
+    /**
+     *
+     * @return the wait engine shared by all Pages of this session. Use it to change the default timeout
+     * and backoff of the explicitWaitFor* helpers, or to add a {@link WaitListener} for wait telemetry.
+     */
+    public WaitEngine getWaitEngine(){
+        return session.getWaitEngine();
+    }
+
+    /**
+     *
+     * @return the network idle wait of this Page. Use it to change the default quiet period and timeout.
+     */
+    public NetworkIdleWait getNetworkIdleWait(){
+        if(networkIdleWait == null){
+            networkIdleWait = new NetworkIdleWait(session);
         }
+        return networkIdleWait;
     }
 
     /**
      * This void method returns information about the current method at runtime.
      */
     public void getMeCurrentMethodInfo(){
-        Thread.currentThread().getContextClassLoader();
-        String methodName = Thread.currentThread().getStackTrace()[2].getMethodName();
-        String ClassFromWhereMethodCallIsMade = Thread.currentThread().getStackTrace()[2].getFileName();
+        if(!isLoggable(Level.INFO)){
+            return;
+        }
+        StackTraceElement caller = new Throwable().getStackTrace()[1];
         info(   "\n-------------------------------------------------------------------------"+"" +
                 "\n|Information for the current running Method                      "+"" +
-                "\n|Method Name is             |"+methodName+"                             "+"" +
-                "\n|Class Calling this method  |"+ClassFromWhereMethodCallIsMade+"         "+"" +
-                "\n-------------------------------------------------------------------------");
+                "\n|Method Name is             |{}                             "+"" +
+                "\n|Class Calling this method  |{}         "+"" +
+                "\n-------------------------------------------------------------------------",
+                caller.getMethodName(), caller.getFileName());
     }
 
     /**
@@ -621,7 +1112,9 @@ public class Page {
      * @param verticalIndex scrolls to page vertically by index.
      */
     public void scrollToPageVerticalJS(int verticalIndex){
-        getJsDriver().executeScript("window.scrollBy(0,"+verticalIndex+")");
+        run("scrollToPageVerticalJS", () -> {
+            getJsDriver().executeScript("window.scrollBy(0,"+verticalIndex+")");
+        });
     }
 
     /**
@@ -629,20 +1122,81 @@ public class Page {
      * @return the document title by JavaScript Executor.
      */
     public String getDocumentTitleByJS(){
-        return getJsDriver().executeScript("return document.title;").toString();
+        return call("getDocumentTitleByJS", () -> {
+            return getJsDriver().executeScript("return document.title;").toString();
+        });
     }
 
     /**
      *
      * @return the inner text of a document by JavaScript Executor.
+     * For large pages see {@link #streamInnerTextOfWebPage()} and {@link #newPageTextTracker()}.
      */
     public String getInnerTextOfWebPageByJS(){
-        return getJsDriver().executeScript("return document.documentElement.innerText; ").toString();
+        return call("getInnerTextOfWebPageByJS", () -> {
+            return getJsDriver().executeScript("return document.documentElement.innerText; ").toString();
+        });
+    }
+
+    /**
+     *
+     * @return a reader over the inner text of the document that fetches it in chunks of
+     * {@link PageTextReader#DEFAULT_CHUNK_SIZE} characters. Close it when done.
+     */
+    public PageTextReader getInnerTextOfWebPageAsReader(){
+        return new PageTextReader(getJsDriver());
+    }
+
+    /**
+     *
+     * @return the lines of the inner text of the document, fetched in chunks while the stream is consumed.
+     * Close the stream, for example with try-with-resources, to free the text parked in the page.
+     */
+    public Stream<String> streamInnerTextOfWebPage(){
+        final PageTextReader reader = getInnerTextOfWebPageAsReader();
+        return new BufferedReader(reader).lines().onClose(reader::close);
+    }
+
+    /**
+     *
+     * @return a new tracker that reports which parts of the inner text changed between two looks.
+     */
+    public PageTextTracker newPageTextTracker(){
+        return new PageTextTracker(getJsDriver());
+    }
+
+    /**
+     *
+     * @return a copy of the whole DOM taken in one round trip. Query it with CSS, XPath or By
+     * and read texts and attributes from it without further driver calls.
+     */
+    public DomSnapshot takeDomSnapshot(){
+        return call("takeDomSnapshot", () -> {
+            DomSnapshot snapshot = DomSnapshot.capture(getJsDriver());
+            fine("Took a DOM snapshot of {} elements", snapshot.size());
+            return snapshot;
+        });
+    }
+
+    /**
+     *
+     * @param root is the element to copy, for example a results table.
+     * @return a copy of the element and its subtree taken in one round trip.
+     */
+    public DomSnapshot takeDomSnapshot(WebElement root){
+        return call("takeDomSnapshot", () -> {
+            DomSnapshot snapshot = DomSnapshot.capture(getJsDriver(), root);
+            fine("Took a DOM snapshot of {} elements", snapshot.size());
+            return snapshot;
+        });
     }
 
     public void refreshBrowserWindow(){
-        getJsDriver().executeScript("history.go(0)");
-        info("Browser Window is getting refreshed");
+        run("refreshBrowserWindow", () -> {
+            getJsDriver().executeScript("history.go(0)");
+            getElementCache().invalidate();
+            info("Browser Window is getting refreshed");
+        });
     }
 
     /**
@@ -651,12 +1205,18 @@ public class Page {
      * height and width.
      */
     public String [] getBrowserInnerDimension(){
-        String [] dimension = new String[2];
-        dimension [0]= getJsDriver().executeScript("return window.innerHeight;").toString();
-        info("The inner height of the browser is : "+dimension[0].toString());
-        dimension [1]= getJsDriver().executeScript("return window.innerWidth;").toString();
-        info("The inner width of the browser is : "+dimension[1].toString());
-        return dimension;
+        return call("getBrowserInnerDimension", () -> {
+            String [] dimension = new String[2];
+            ScriptBatch batch = newScriptBatch();
+            ScriptBatch.Result<String> height = batch.add("return window.innerHeight;", String.class);
+            ScriptBatch.Result<String> width = batch.add("return window.innerWidth;", String.class);
+            batch.execute();
+            dimension [0]= height.get();
+            info("The inner height of the browser is : {}", dimension[0]);
+            dimension [1]= width.get();
+            info("The inner width of the browser is : {}", dimension[1]);
+            return dimension;
+        });
     }
 
 
@@ -666,9 +1226,11 @@ public class Page {
      * @return The Name of the current Window Handle.
      */
     public String getCurrentWindowHandle(){
-        String handleName = getDriver().getWindowHandle();
-        info("The Current Window Handle Name is : "+handleName);
-        return handleName;
+        return call("getCurrentWindowHandle", () -> {
+            String handleName = getDriver().getWindowHandle();
+            info("The Current Window Handle Name is : {}", handleName);
+            return handleName;
+        });
     }
 
     /**
@@ -676,23 +1238,94 @@ public class Page {
      * @return the Set of windows that are present at point in time.
      */
     public Set<String> getWindowHandles(){
-        Set<String> setOfWindowHandles = getDriver().getWindowHandles();
-        return setOfWindowHandles;
+        return call("getWindowHandles", () -> {
+            Set<String> setOfWindowHandles = getDriver().getWindowHandles();
+            return setOfWindowHandles;
+        });
     }
 
+    /**
+     *
+     * @param handleName is the handle of the window to switch to.
+     */
     public void selectWindowHandle(String handleName){
-        WebDriver driver = getDriver();
-        try {
-            for (String handle : driver.getWindowHandles()) {
-                driver.switchTo().window(handle);
+        run("selectWindowHandle", () -> {
+            try {
+                WindowInfo window = getWindowRegistry().switchTo(handleName);
+                getElementCache().invalidate();
+                info("Switched to window {}", window);
+            }catch (NoSuchWindowException nswe){
+                info("No Such Window Exception Occurred!");
+                throw nswe;
+            }
+        });
+    }
+
+    /**
+     *
+     * @param titleRegex is a regular expression the whole title of the window has to match.
+     * @return the window switched to.
+     */
+    public WindowInfo selectWindowByTitle(String titleRegex){
+        return call("selectWindowByTitle", () -> {
+            WindowInfo window = getWindowRegistry().switchToTitle(Pattern.compile(titleRegex));
+            getElementCache().invalidate();
+            info("Switched to window {}", window);
+            return window;
+        });
+    }
+
+    /**
+     *
+     * @param urlRegex is a regular expression the whole URL of the window has to match.
+     * @return the window switched to.
+     */
+    public WindowInfo selectWindowByUrl(String urlRegex){
+        return call("selectWindowByUrl", () -> {
+            WindowInfo window = getWindowRegistry().switchToUrl(Pattern.compile(urlRegex));
+            getElementCache().invalidate();
+            info("Switched to window {}", window);
+            return window;
+        });
+    }
+
+    /**
+     *
+     * @param timeInSeconds is how long to wait for a window to open.
+     * @return the window that opened, after switching to it.
+     */
+    public WindowInfo selectNewWindow(int timeInSeconds){
+        return call("selectNewWindow", () -> {
+            WindowRegistry registry = getWindowRegistry();
+            WindowInfo window = registry.switchTo(registry.awaitNewWindow(timeInSeconds * 1000L));
+            getElementCache().invalidate();
+            info("Switched to new window {}", window);
+            return window;
+        });
+    }
 
+    /**
+     * Takes a screenshot and the page source and stores them in the background. Needs an evidence collector
+     * set on the session with {@link PageSession#setEvidenceCollector(EvidenceCollector)}.
+     * @param name names the capture in the index of the collector.
+     * @return the stored evidence, available once the background write is done.
+     */
+    public Future<EvidenceCollector.Evidence> captureEvidence(String name){
+        return call("captureEvidence", () -> {
+            EvidenceCollector collector = session.getEvidenceCollector();
+            if(collector == null){
+                throw new IllegalStateException("No evidence collector is set on the session");
             }
-        }catch (NoSuchWindowException nswe){
-            info("No Such Window Exception Occurred!");
-            throw nswe;
-        }catch (Exception e){
-            e.printStackTrace();
-        }
+            return collector.capture(getDriver(), name);
+        });
+    }
+
+    /**
+     *
+     * @return the registry of the windows of this session. It caches their title, URL and opener.
+     */
+    public WindowRegistry getWindowRegistry(){
+        return session.getWindowRegistry();
     }
 
     /**
@@ -700,32 +1333,67 @@ public class Page {
      * @return The current URL of the page.
      */
     public String getCurrentURL(){
-        String currentURL = getDriver().getCurrentUrl().toString();
-        info("The Current URL is : "+currentURL);
-        return currentURL;
+        return call("getCurrentURL", () -> {
+            String currentURL = getDriver().getCurrentUrl().toString();
+            info("The Current URL is : {}", currentURL);
+            return currentURL;
+        });
     }
 
     /**
      * This method performs the WebDriver Delete All Cookies action.
      */
     public void deleteAllCookies(){
-        getDriver().manage().deleteAllCookies();
-        info("Deleting all the cookies!.");
+        run("deleteAllCookies", () -> {
+            getDriver().manage().deleteAllCookies();
+            info("Deleting all the cookies!.");
+        });
     }
 
 
+    /**
+     * Brings the browser back to a clean state without restarting it.
+     * Closes every window except the current one, clears localStorage and sessionStorage,
+     * deletes all cookies and navigates to about:blank.
+     */
+    public void resetBrowserState(){
+        run("resetBrowserState", () -> {
+            WebDriver driver = getDriver();
+            String keep = driver.getWindowHandle();
+            for (String handle : driver.getWindowHandles()) {
+                if(!handle.equals(keep)){
+                    driver.switchTo().window(handle).close();
+                }
+            }
+            driver.switchTo().window(keep);
+            getWindowRegistry().invalidate();
+            try {
+                getJsDriver().executeScript("try { window.localStorage.clear(); } catch (e) {}"
+                        + " try { window.sessionStorage.clear(); } catch (e) {}");
+            }catch (JavascriptException jse){
+                info("Could not clear the web storage of the current page.");
+            }
+            deleteAllCookies();
+            driver.navigate().to("about:blank");
+            getElementCache().clear();
+            info("Browser state is reset.");
+        });
+    }
+
     /**
      *
      * @param cookie is the name of the Cookie to be deleted.
      */
     public void deleteCookiesByCookieName(Cookie cookie){
-        WebDriver driver = getDriver();
-        driver.manage().deleteCookie(cookie);
-        if(driver.manage().getCookieNamed(cookie.toString())==null){
-         info("Succesfully Deleted the Cookie : "+cookie.toString());
-        }else {
-            warn("The cookie named "+cookie.toString()+" is not deleted!");
-        }
+        run("deleteCookiesByCookieName", () -> {
+            WebDriver driver = getDriver();
+            driver.manage().deleteCookie(cookie);
+            if(driver.manage().getCookieNamed(cookie.toString())==null){
+             info("Succesfully Deleted the Cookie : {}", cookie);
+            }else {
+                warn("The cookie named {} is not deleted!", cookie);
+            }
+        });
     }
 
     /**
@@ -733,13 +1401,55 @@ public class Page {
      * @param cookieName is the String name of the cookie
      */
     public void deleteCookiesByCookieName(String cookieName){
-        WebDriver driver = getDriver();
-        driver.manage().deleteCookieNamed(cookieName);
-        if(driver.manage().getCookieNamed(cookieName)==null){
-            info("Succesfully Deleted the Cookie : "+cookieName);
-        }else{
-            warn("The cookie named "+cookieName+" is not deleted!");
-        }
+        run("deleteCookiesByCookieName", () -> {
+            WebDriver driver = getDriver();
+            driver.manage().deleteCookieNamed(cookieName);
+            if(driver.manage().getCookieNamed(cookieName)==null){
+                info("Succesfully Deleted the Cookie : {}", cookieName);
+            }else{
+                warn("The cookie named {} is not deleted!", cookieName);
+            }
+        });
+    }
+
+    /**
+     *
+     * @return the cookies, localStorage and sessionStorage of the current page, to restore into another driver later.
+     */
+    public SessionSnapshot captureSessionSnapshot(){
+        return call("captureSessionSnapshot", () -> {
+            SessionSnapshot snapshot = SessionSnapshot.capture(getDriver());
+            info("Captured {} cookie(s) of {}", snapshot.getCookieCount(), snapshot.getOrigin());
+            return snapshot;
+        });
+    }
+
+    /**
+     *
+     * @param snapshot is a snapshot taken with {@link #captureSessionSnapshot()}. The browser is left on its origin.
+     */
+    public void restoreSessionSnapshot(SessionSnapshot snapshot){
+        run("restoreSessionSnapshot", () -> {
+            int restored = snapshot.restore(getDriver());
+            getElementCache().clear();
+            info("Restored {} cookie(s) of {}", restored, snapshot.getOrigin());
+        });
+    }
+
+    /**
+     * Restores the session of the user from the cache, or logs in and stores a new snapshot when there is none.
+     * @param cache is the snapshot cache shared by the suite.
+     * @param user is the name the snapshot is stored under.
+     * @param login logs the user in. It only runs when there is no usable snapshot.
+     * @return true if a snapshot was restored, false if the login ran.
+     */
+    public boolean restoreOrLogin(SessionSnapshotCache cache, String user, Runnable login){
+        return call("restoreOrLogin", () -> {
+            boolean restored = cache.restoreOrLogin(getDriver(), user, d -> login.run());
+            getElementCache().clear();
+            info(restored ? "Restored the session of {}" : "Logged in {} and stored the session", user);
+            return restored;
+        });
     }
 
     public Assertion getHardAssertionObject(){
@@ -755,40 +1465,52 @@ public class Page {
     }
 
     public void hardAssertTrue(boolean b , String failureMesssage){
-        getHardAssertionObject().assertTrue(b,failureMesssage);
-        info("Hard Assertion Successful : "+b);
+        assertion("hardAssertTrue", () -> {
+            getHardAssertionObject().assertTrue(b,failureMesssage);
+            info("Hard Assertion Successful : {}", b);
+        });
     }
 
     public void hardAssertTrue(boolean b , String failureMesssage, String succesMessage){
-        getHardAssertionObject().assertTrue(b,failureMesssage);
-        info("Hard Assertion Status is : "+b+" message : "+succesMessage);
+        assertion("hardAssertTrue", () -> {
+            getHardAssertionObject().assertTrue(b,failureMesssage);
+            info("Hard Assertion Status is : {} message : {}", b, succesMessage);
+        });
     }
 
     public void softAssert(boolean b, String failureMessage){
-        getSoftAssertionObject().assertTrue(b,failureMessage);
-        info("Soft Assertion Successful : "+b);
+        assertion("softAssert", () -> {
+            getSoftAssertionObject().assertTrue(b,failureMessage);
+            info("Soft Assertion Successful : {}", b);
+        });
     }
 
 
     public void softAssert(boolean b, String failureMessage, String successMessage){
-        getSoftAssertionObject().assertTrue(b,failureMessage);
-        info("Soft Assertion Status is : "+b+" message : "+successMessage);
+        assertion("softAssert", () -> {
+            getSoftAssertionObject().assertTrue(b,failureMessage);
+            info("Soft Assertion Status is : {} message : {}", b, successMessage);
+        });
     }
 
     /**
      * accepts the alert present.
      */
     public void acceptAlert(){
-        getDriver().switchTo().alert().accept();
-        info("Accepting the Alert.");
+        run("acceptAlert", () -> {
+            getDriver().switchTo().alert().accept();
+            info("Accepting the Alert.");
+        });
     }
 
     /**
      * Dismisses the Alert
      */
     public void dismissAlert(){
-        getDriver().switchTo().alert().dismiss();
-        info("Dismissing the Alert.");
+        run("dismissAlert", () -> {
+            getDriver().switchTo().alert().dismiss();
+            info("Dismissing the Alert.");
+        });
     }
 
     /**
@@ -797,9 +1519,11 @@ public class Page {
      * @param password is the password for authentication.
      */
     public void alertAuthenticateWithCredentials(String username, String password){
-        Credentials credentials = new UserAndPassword(username, password );
-        getDriver().switchTo().alert().authenticateUsing(credentials);
-        info("Authenticated the Alert using Credentials.");
+        run("alertAuthenticateWithCredentials", () -> {
+            Credentials credentials = new UserAndPassword(username, password );
+            getDriver().switchTo().alert().authenticateUsing(credentials);
+            info("Authenticated the Alert using Credentials.");
+        });
     }
 
 
@@ -808,9 +1532,11 @@ public class Page {
      * @return the alert text.
      */
     public String alertGetText (){
-        String alertText = getDriver().switchTo().alert().getText();
-        info("The text extracted from the alert is : "+ alertText);
-        return alertText;
+        return call("alertGetText", () -> {
+            String alertText = getDriver().switchTo().alert().getText();
+            info("The text extracted from the alert is : {}", alertText);
+            return alertText;
+        });
     }
 
     /**
@@ -818,7 +1544,9 @@ public class Page {
      * @param inputValue is the value to be set in  the alert.
      */
     public  void alertSetValue (String inputValue){
-        getDriver().switchTo().alert().sendKeys(inputValue);
-        info("The vaue set in the alert is : "+inputValue);
+        run("alertSetValue", () -> {
+            getDriver().switchTo().alert().sendKeys(inputValue);
+            info("The vaue set in the alert is : {}", inputValue);
+        });
     }
 }
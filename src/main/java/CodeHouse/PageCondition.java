@@ -0,0 +1,158 @@
+package CodeHouse;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.util.function.Function;
+
+/**
+ * A condition a {@link WaitEngine} can wait for either inside the page or by polling.
+ * In {@link WaitMode#OBSERVER} mode the page re-checks the condition whenever the DOM mutates, the element
+ * enters or leaves the viewport, an input or change event fires, or a transition ends, so the wait returns
+ * within a frame of the change. In {@link WaitMode#POLLING} mode the equivalent ExpectedCondition is polled.
+ */
+public final class PageCondition {
+
+    /**
+     * Answers true once the condition holds, false at the timeout, 'stale' if the element left the document
+     * and 'error' if the check itself failed. The last two are finished by polling in the JVM.
+     */
+    static final String OBSERVE_SCRIPT =
+            "var el = arguments[0], kind = arguments[1], expected = arguments[2], timeout = arguments[3];\n" +
+            "var done = arguments[arguments.length - 1];\n" +
+            "var doc = el ? el.ownerDocument : document, win = doc.defaultView || window;\n" +
+            "var events = ['change', 'input', 'click', 'transitionend', 'animationend'];\n" +
+            "var over = false, observers = [], poll = null, deadline = null;\n" +
+            "function shown(e) {\n" +
+            "  if (e.tagName === 'INPUT' && e.type === 'hidden') return false;\n" +
+            "  if (e.tagName === 'OPTION' || e.tagName === 'OPTGROUP') { e = e.closest('select') || e; }\n" +
+            "  if (!e.getClientRects().length) return false;\n" +
+            "  var style = win.getComputedStyle(e);\n" +
+            "  if (style.visibility === 'hidden' || style.visibility === 'collapse') return false;\n" +
+            "  for (var n = e; n && n.nodeType === 1; n = n.parentElement) { if (win.getComputedStyle(n).opacity === '0') return false; }\n" +
+            "  return true;\n" +
+            "}\n" +
+            "function test() {\n" +
+            "  if (kind === 'title') return doc.title === expected;\n" +
+            "  if (!doc.documentElement.contains(el)) return 'stale';\n" +
+            "  if (kind === 'visible') return shown(el);\n" +
+            "  if (kind === 'clickable') return shown(el) && !(el.matches && el.matches(':disabled'));\n" +
+            "  var selected = el.tagName === 'OPTION' ? el.selected : !!el.checked;\n" +
+            "  return kind === 'selected' ? selected : !selected;\n" +
+            "}\n" +
+            "function finish(result) {\n" +
+            "  if (over) return;\n" +
+            "  over = true;\n" +
+            "  observers.forEach(function (o) { o.disconnect(); });\n" +
+            "  events.forEach(function (t) { doc.removeEventListener(t, check, true); });\n" +
+            "  clearInterval(poll);\n" +
+            "  clearTimeout(deadline);\n" +
+            "  done(result);\n" +
+            "}\n" +
+            "function check() {\n" +
+            "  if (over) return;\n" +
+            "  var result;\n" +
+            "  try { result = test(); } catch (e) { result = 'error'; }\n" +
+            "  if (result === true || result === 'stale' || result === 'error') finish(result);\n" +
+            "}\n" +
+            "check();\n" +
+            "if (!over) {\n" +
+            "  events.forEach(function (t) { doc.addEventListener(t, check, true); });\n" +
+            "  if (win.MutationObserver) {\n" +
+            "    var mutations = new win.MutationObserver(check);\n" +
+            "    mutations.observe(doc, {subtree: true, childList: true, attributes: true, characterData: true});\n" +
+            "    observers.push(mutations);\n" +
+            "  }\n" +
+            "  if (el && win.IntersectionObserver && (kind === 'visible' || kind === 'clickable')) {\n" +
+            "    var intersections = new win.IntersectionObserver(check);\n" +
+            "    intersections.observe(el);\n" +
+            "    observers.push(intersections);\n" +
+            "  }\n" +
+            "  // catches what no observer reports, such as a property set from script; it never leaves the page.\n" +
+            "  poll = setInterval(check, 100);\n" +
+            "  deadline = setTimeout(function () { finish(false); }, timeout);\n" +
+            "}";
+
+    private final String kind;
+    private final WebElement element;
+    private final String expected;
+    private final String description;
+    private final Function<? super WebDriver, ?> fallback;
+
+    private PageCondition(String kind, WebElement element, String expected, String description, Function<? super WebDriver, ?> fallback){
+        this.kind = kind;
+        this.element = element;
+        this.expected = expected;
+        this.description = description;
+        this.fallback = fallback;
+    }
+
+    /**
+     *
+     * @param element is the element to wait for.
+     * @return a condition that holds once the element is displayed.
+     */
+    public static PageCondition visibilityOf(WebElement element){
+        return new PageCondition("visible", element, null, "element to be visible", ExpectedConditions.visibilityOf(element));
+    }
+
+    /**
+     *
+     * @param element is the element to wait for.
+     * @return a condition that holds once the element is displayed and enabled.
+     */
+    public static PageCondition elementToBeClickable(WebElement element){
+        return new PageCondition("clickable", element, null, "element to be clickable", ExpectedConditions.elementToBeClickable(element));
+    }
+
+    /**
+     *
+     * @param element is a checkbox, radio button or option.
+     * @param selected is the selection state to wait for.
+     * @return a condition that holds once the element has the selection state.
+     */
+    public static PageCondition elementSelectionStateToBe(WebElement element, boolean selected){
+        return new PageCondition(selected ? "selected" : "notSelected", element, null,
+                selected ? "element to be selected" : "element not to be selected",
+                ExpectedConditions.elementSelectionStateToBe(element, selected));
+    }
+
+    /**
+     *
+     * @param title is the exact title to wait for.
+     * @return a condition that holds once the page has the title.
+     */
+    public static PageCondition titleIs(String title){
+        return new PageCondition("title", null, title, "page title to be \"" + title + "\"", ExpectedConditions.titleIs(title));
+    }
+
+    public String getDescription(){
+        return description;
+    }
+
+    String getKind(){
+        return kind;
+    }
+
+    WebElement getElement(){
+        return element;
+    }
+
+    String getExpected(){
+        return expected;
+    }
+
+    /**
+     *
+     * @return the condition checked when the page cannot answer, or in polling mode.
+     */
+    Function<? super WebDriver, ?> getFallback(){
+        return fallback;
+    }
+
+    @Override
+    public String toString(){
+        return description;
+    }
+}
@@ -0,0 +1,47 @@
+package CodeHouse;
+
+import java.util.logging.Level;
+
+/**
+ * The logging surface used by {@link Page}.
+ * Page checks {@link #isEnabled(Level)} before it builds a message, so disabled levels cost no formatting.
+ * Implementations exist for java.util.logging ({@link JulPageLogger}), commons-logging and Log4j
+ * ({@link CommonsPageLogger}), and a non-blocking decorator for either ({@link AsyncPageLogger}).
+ */
+public interface PageLogger {
+
+    /**
+     *
+     * @param level is the level of the message about to be logged.
+     * @return true if messages of this level are written anywhere.
+     */
+    boolean isEnabled(Level level);
+
+    /**
+     *
+     * @param level is the level of the message.
+     * @param message is the formatted message.
+     */
+    void log(Level level, String message);
+
+    /**
+     * Replaces each {} in the pattern with the next argument, like SLF4J does.
+     * @param pattern is the message with {} placeholders.
+     * @param args are the values for the placeholders. Extra arguments are ignored.
+     * @return the formatted message.
+     */
+    static String format(String pattern, Object... args){
+        if(args == null || args.length == 0){
+            return pattern;
+        }
+        StringBuilder message = new StringBuilder(pattern.length() + 16 * args.length);
+        int from = 0;
+        int argument = 0;
+        int at;
+        while(argument < args.length && (at = pattern.indexOf("{}", from)) >= 0){
+            message.append(pattern, from, at).append(args[argument++]);
+            from = at + 2;
+        }
+        return message.append(pattern, from, pattern.length()).toString();
+    }
+}
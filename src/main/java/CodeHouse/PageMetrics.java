@@ -0,0 +1,178 @@
+package CodeHouse;
+
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Latency histograms per Page helper and per WebDriver command.
+ * Page records every helper call in the metrics of its session, which by default is the shared {@link #global()} registry.
+ * Driver commands are recorded when the driver is wrapped with {@link #instrument(WebDriver)}.
+ * Write the results at the end of a suite with {@link #writeJson(Path)} or {@link #writePrometheus(Path)}.
+ */
+public class PageMetrics {
+
+    private static final PageMetrics GLOBAL = new PageMetrics();
+
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<String, LatencyHistogram>();
+    private volatile boolean enabled = true;
+
+    /**
+     *
+     * @return the registry shared by all sessions that have no registry of their own.
+     */
+    public static PageMetrics global(){
+        return GLOBAL;
+    }
+
+    /**
+     *
+     * @param enabled turns recording on or off. Turned off, recording costs a single volatile read.
+     */
+    public void setEnabled(boolean enabled){
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled(){
+        return enabled;
+    }
+
+    /**
+     *
+     * @param operation is the name of the helper or command, for example simpleClick or WebElement.click.
+     * @param nanos is the measured latency.
+     * @param failed is true if the operation threw.
+     */
+    public void record(String operation, long nanos, boolean failed){
+        if(!enabled){
+            return;
+        }
+        LatencyHistogram histogram = histograms.get(operation);
+        if(histogram == null){
+            LatencyHistogram created = new LatencyHistogram();
+            histogram = histograms.putIfAbsent(operation, created);
+            if(histogram == null){
+                histogram = created;
+            }
+        }
+        histogram.record(nanos, failed);
+    }
+
+    /**
+     * Wraps the driver so every command it runs is recorded as driver.Interface.method, for example driver.WebElement.click.
+     * @param driver is the driver to wrap.
+     * @return a driver with the same interfaces that records into this registry.
+     */
+    public WebDriver instrument(WebDriver driver){
+        return CommandInterceptor.wrap(driver, new CommandListener() {
+            public void onCommand(CommandEvent event) {
+                record("driver." + event.getCommand(), event.getNanos(), event.getError() != null);
+            }
+        });
+    }
+
+    /**
+     *
+     * @return the snapshots of all operations, sorted by name.
+     */
+    public Map<String, LatencyHistogram.Snapshot> snapshot(){
+        Map<String, LatencyHistogram.Snapshot> snapshots = new TreeMap<String, LatencyHistogram.Snapshot>();
+        for(Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()){
+            snapshots.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return snapshots;
+    }
+
+    /**
+     * Forgets everything recorded so far.
+     */
+    public void reset(){
+        histograms.clear();
+    }
+
+    /**
+     *
+     * @return all operations as a JSON object of count, errors, p50, p99 and max in microseconds.
+     */
+    public String toJson(){
+        StringBuilder json = new StringBuilder("{\n");
+        boolean first = true;
+        for(Map.Entry<String, LatencyHistogram.Snapshot> entry : snapshot().entrySet()){
+            LatencyHistogram.Snapshot s = entry.getValue();
+            json.append(first ? "" : ",\n").append("  \"").append(escapeJson(entry.getKey())).append("\": {")
+                    .append("\"count\": ").append(s.getCount())
+                    .append(", \"errors\": ").append(s.getErrors())
+                    .append(", \"p50Micros\": ").append(s.getPercentileMicros(50))
+                    .append(", \"p99Micros\": ").append(s.getPercentileMicros(99))
+                    .append(", \"maxMicros\": ").append(s.getMaxMicros())
+                    .append(", \"totalMicros\": ").append(s.getTotalMicros())
+                    .append("}");
+            first = false;
+        }
+        return json.append("\n}\n").toString();
+    }
+
+    /**
+     *
+     * @return all operations in the Prometheus text exposition format, as summaries in seconds plus an error counter.
+     */
+    public String toPrometheus(){
+        StringBuilder text = new StringBuilder();
+        text.append("# HELP codebreeze_operation_seconds Latency of Page helpers and WebDriver commands.\n")
+                .append("# TYPE codebreeze_operation_seconds summary\n");
+        Map<String, LatencyHistogram.Snapshot> snapshots = snapshot();
+        for(Map.Entry<String, LatencyHistogram.Snapshot> entry : snapshots.entrySet()){
+            String label = "operation=\"" + escapePrometheus(entry.getKey()) + "\"";
+            LatencyHistogram.Snapshot s = entry.getValue();
+            text.append("codebreeze_operation_seconds{").append(label).append(",quantile=\"0.5\"} ").append(seconds(s.getPercentileMicros(50))).append('\n')
+                    .append("codebreeze_operation_seconds{").append(label).append(",quantile=\"0.99\"} ").append(seconds(s.getPercentileMicros(99))).append('\n')
+                    .append("codebreeze_operation_seconds{").append(label).append(",quantile=\"1\"} ").append(seconds(s.getMaxMicros())).append('\n')
+                    .append("codebreeze_operation_seconds_sum{").append(label).append("} ").append(seconds(s.getTotalMicros())).append('\n')
+                    .append("codebreeze_operation_seconds_count{").append(label).append("} ").append(s.getCount()).append('\n');
+        }
+        text.append("# HELP codebreeze_operation_errors_total Page helpers and WebDriver commands that threw.\n")
+                .append("# TYPE codebreeze_operation_errors_total counter\n");
+        for(Map.Entry<String, LatencyHistogram.Snapshot> entry : snapshots.entrySet()){
+            text.append("codebreeze_operation_errors_total{operation=\"").append(escapePrometheus(entry.getKey())).append("\"} ")
+                    .append(entry.getValue().getErrors()).append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     *
+     * @param file is the file to write {@link #toJson()} to.
+     * @throws IOException if the file cannot be written.
+     */
+    public void writeJson(Path file) throws IOException {
+        Files.write(file, toJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     *
+     * @param file is the file to write {@link #toPrometheus()} to, for example for the node exporter textfile collector.
+     * @throws IOException if the file cannot be written.
+     */
+    public void writePrometheus(Path file) throws IOException {
+        Files.write(file, toPrometheus().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String seconds(long micros){
+        return String.valueOf(micros / 1_000_000.0);
+    }
+
+    private static String escapeJson(String value){
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static String escapePrometheus(String value){
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,246 @@
+package CodeHouse;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.io.Closeable;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A pool of pre-started browser sessions.
+ * Tests lease a {@link PooledSession}, build their Pages on it and close it when done.
+ * Closing the session resets the browser with {@link Page#resetBrowserState()} and hands it to the next test
+ * instead of quitting it, so browser startup is paid once per session instead of once per test.
+ *
+ * <pre>
+ *     PagePool pool = new PagePool(() -&gt; new ChromeDriver(), 8);
+ *     try (PooledSession session = pool.lease()) {
+ *         Page page = new Page(session);
+ *         ...
+ *     }
+ * </pre>
+ */
+public class PagePool implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(PagePool.class.getName());
+
+    private final Supplier<WebDriver> driverFactory;
+    private final int maxSize;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledSession> idle = new LinkedBlockingDeque<PooledSession>();
+
+    private volatile long maxAgeMillis = TimeUnit.MINUTES.toMillis(30);
+    private volatile int maxUses = 100;
+    private volatile long leaseTimeoutMillis = TimeUnit.MINUTES.toMillis(5);
+    private volatile boolean closed;
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong leases = new AtomicLong();
+    private final AtomicLong resets = new AtomicLong();
+    private final AtomicLong resetFailures = new AtomicLong();
+    private final AtomicLong healthCheckFailures = new AtomicLong();
+    private final AtomicLong leaseWaitNanos = new AtomicLong();
+
+    /**
+     *
+     * @param driverFactory starts a new browser. Called whenever the pool needs another session.
+     * @param maxSize is the maximum number of sessions alive at the same time, leased or idle.
+     */
+    public PagePool(Supplier<WebDriver> driverFactory, int maxSize){
+        if(maxSize < 1){
+            throw new IllegalArgumentException("maxSize must be at least 1 but was " + maxSize);
+        }
+        this.driverFactory = driverFactory;
+        this.maxSize = maxSize;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     *
+     * @param maxAgeMillis sessions older than this are quit instead of being reused.
+     */
+    public void setMaxAgeMillis(long maxAgeMillis){
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     *
+     * @param maxUses sessions leased this many times are quit instead of being reused.
+     */
+    public void setMaxUses(int maxUses){
+        this.maxUses = maxUses;
+    }
+
+    /**
+     *
+     * @param leaseTimeoutMillis is how long {@link #lease()} waits for a free session.
+     */
+    public void setLeaseTimeoutMillis(long leaseTimeoutMillis){
+        this.leaseTimeoutMillis = leaseTimeoutMillis;
+    }
+
+    /**
+     * Starts browsers up front so the first tests do not pay for startup. Call it before leasing.
+     * @param count is the number of idle sessions to have ready. Limited by the pool size.
+     */
+    public synchronized void warmUp(int count){
+        ensureOpen();
+        int leased = maxSize - permits.availablePermits();
+        int missing = Math.min(count, maxSize) - idle.size() - leased;
+        for(int i = 0; i < missing; i++){
+            idle.offerLast(create());
+        }
+    }
+
+    /**
+     *
+     * @return a session, waiting up to the lease timeout for one to become free.
+     */
+    public PooledSession lease(){
+        return lease(leaseTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     *
+     * @param timeout is the time to wait for a free session.
+     * @param unit is the unit of the timeout.
+     * @return a healthy session that is reserved for the caller until it is closed.
+     */
+    public PooledSession lease(long timeout, TimeUnit unit){
+        ensureOpen();
+        long start = System.nanoTime();
+        try {
+            if(!permits.tryAcquire(timeout, unit)){
+                throw new IllegalStateException("No session became free within " + unit.toMillis(timeout) + " ms. "
+                        + "All " + maxSize + " sessions are leased.");
+            }
+        } catch (InterruptedException ie){
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a session", ie);
+        } finally {
+            leaseWaitNanos.addAndGet(System.nanoTime() - start);
+        }
+        try {
+            PooledSession session;
+            while((session = idle.pollFirst()) != null){
+                if(isExpired(session)){
+                    evict(session, "expired");
+                }else if(!isHealthy(session)){
+                    healthCheckFailures.incrementAndGet();
+                    evict(session, "failed health check");
+                }else{
+                    break;
+                }
+            }
+            if(session == null){
+                session = create();
+            }
+            session.markLeased();
+            leases.incrementAndGet();
+            return session;
+        } catch (RuntimeException re){
+            permits.release();
+            throw re;
+        }
+    }
+
+    /**
+     * Returns a session to the pool. Called by {@link PooledSession#close()}.
+     * @param session is the session to return.
+     */
+    void release(PooledSession session){
+        try {
+            if(closed){
+                evict(session, "pool closed");
+            }else if(isExpired(session)){
+                evict(session, "expired");
+            }else if(reset(session)){
+                idle.offerFirst(session);
+                // close() may have drained the idle sessions while this one was being reset.
+                if(closed && idle.remove(session)){
+                    evict(session, "pool closed");
+                }
+            }else{
+                evict(session, "reset failed");
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     *
+     * @return a point in time copy of the pool counters.
+     */
+    public PoolMetrics getMetrics(){
+        return new PoolMetrics(created.get(), evicted.get(), leases.get(), resets.get(), resetFailures.get(),
+                healthCheckFailures.get(), TimeUnit.NANOSECONDS.toMillis(leaseWaitNanos.get()),
+                idle.size(), maxSize - permits.availablePermits());
+    }
+
+    /**
+     * Quits all idle sessions. Leased sessions are quit when they are closed.
+     */
+    @Override
+    public void close(){
+        closed = true;
+        PooledSession session;
+        while((session = idle.pollFirst()) != null){
+            evict(session, "pool closed");
+        }
+    }
+
+    private PooledSession create(){
+        PooledSession session = new PooledSession(driverFactory.get(), this);
+        created.incrementAndGet();
+        return session;
+    }
+
+    private boolean isExpired(PooledSession session){
+        return session.getUses() >= maxUses || session.getAgeMillis() >= maxAgeMillis;
+    }
+
+    private boolean isHealthy(PooledSession session){
+        try {
+            return session.getDriver().getWindowHandle() != null;
+        } catch (WebDriverException wde){
+            return false;
+        }
+    }
+
+    private boolean reset(PooledSession session){
+        resets.incrementAndGet();
+        try {
+            new Page(session).resetBrowserState();
+            return true;
+        } catch (RuntimeException re){
+            // any failure, not only a driver error, leaves the browser in an unknown state; it is evicted.
+            resetFailures.incrementAndGet();
+            LOGGER.log(Level.WARNING, "Could not reset pooled session", re);
+            return false;
+        }
+    }
+
+    private void evict(PooledSession session, String reason){
+        evicted.incrementAndGet();
+        LOGGER.info("Evicting pooled session after " + session.getUses() + " uses : " + reason);
+        try {
+            session.getDriver().quit();
+        } catch (WebDriverException wde){
+            LOGGER.log(Level.FINE, "Quitting evicted session failed", wde);
+        }
+    }
+
+    private void ensureOpen(){
+        if(closed){
+            throw new IllegalStateException("PagePool is closed");
+        }
+    }
+}
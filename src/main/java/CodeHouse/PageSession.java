@@ -0,0 +1,271 @@
+package CodeHouse;
+
+import org.apache.commons.logging.impl.Log4JLogger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Holds the WebDriver and loggers used by a {@link Page}.
+ * A session can be handed to a Page explicitly, or bound to the current thread so that
+ * every Page created on that thread with {@link Page#Page()} shares it.
+ * This keeps parallel TestNG suites from overwriting each others drivers.
+ */
+public class PageSession {
+
+    private static final ThreadLocal<PageSession> CURRENT = new ThreadLocal<PageSession>();
+    private static final int MAX_SELECT_INDEXES = 64;
+
+    private final WebDriver driver;
+    private final Logger logger;
+    private final Log4JLogger log4JLogger;
+    private final PageLogger pageLogger;
+    private long scriptTimeoutMillis = -1;
+    private WaitEngine waitEngine;
+    private ElementCache elementCache;
+    private WindowRegistry windowRegistry;
+    private final Map<WebElement, SelectIndex> selectIndexes = new LinkedHashMap<WebElement, SelectIndex>(16, 0.75f, true){
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<WebElement, SelectIndex> eldest){
+            return size() > MAX_SELECT_INDEXES;
+        }
+    };
+    private volatile PageMetrics metrics = PageMetrics.global();
+    private volatile ExecutionPolicy executionPolicy = ExecutionPolicy.defaults();
+    private volatile EvidenceCollector evidenceCollector;
+
+    /**
+     *
+     * @param driver configure the WebDriver
+     * @param logger configure the Logger.
+     */
+    public PageSession(WebDriver driver, Logger logger){
+        this(driver, logger, null, null);
+    }
+
+    /**
+     *
+     * @param driver configure the driver
+     * @param log4JLogger pass a Log4j logger. Page messages are written to it.
+     */
+    public PageSession(WebDriver driver, Log4JLogger log4JLogger){
+        this(driver, null, log4JLogger, log4JLogger != null ? new CommonsPageLogger(log4JLogger) : null);
+    }
+
+    /**
+     *
+     * @param driver configure the driver
+     * @param pageLogger is where Page messages are written, for example an {@link AsyncPageLogger}.
+     */
+    public PageSession(WebDriver driver, PageLogger pageLogger){
+        this(driver, null, null, pageLogger);
+    }
+
+    /**
+     *
+     * @param driver configure the WebDriver. Logs go to the default Java Logger of Page.
+     */
+    public PageSession(WebDriver driver){
+        this(driver, null, null, null);
+    }
+
+    private PageSession(WebDriver driver, Logger logger, Log4JLogger log4JLogger, PageLogger pageLogger){
+        this.driver = driver;
+        this.logger = logger != null ? logger : Logger.getLogger(Page.class.getName());
+        this.log4JLogger = log4JLogger;
+        this.pageLogger = pageLogger != null ? pageLogger : new JulPageLogger(this.logger);
+    }
+
+    /**
+     *
+     * @return the WebDriver owned by this session.
+     */
+    public WebDriver getDriver(){
+        return driver;
+    }
+
+    /**
+     *
+     * @return the Java Logger of this session. Page messages only go here if it was passed in,
+     * or no other logger was configured.
+     */
+    public Logger getLogger(){
+        return logger;
+    }
+
+    /**
+     *
+     * @return the logger all Page messages of this session are written to.
+     */
+    public PageLogger getPageLogger(){
+        return pageLogger;
+    }
+
+    /**
+     *
+     * @return the Log4j logger of this session, or null if none was configured.
+     */
+    public Log4JLogger getLog4JLogger(){
+        return log4JLogger;
+    }
+
+    /**
+     *
+     * @return the wait engine used by all Pages of this session.
+     */
+    public synchronized WaitEngine getWaitEngine(){
+        if(waitEngine == null){
+            waitEngine = new WaitEngine(this);
+        }
+        return waitEngine;
+    }
+
+    /**
+     *
+     * @return the element cache used by all Pages of this session.
+     */
+    public synchronized ElementCache getElementCache(){
+        if(elementCache == null){
+            elementCache = new ElementCache(driver);
+        }
+        return elementCache;
+    }
+
+    /**
+     *
+     * @return the registry of the windows of this session, shared by all its Pages.
+     */
+    public synchronized WindowRegistry getWindowRegistry(){
+        if(windowRegistry == null){
+            windowRegistry = new WindowRegistry(driver);
+        }
+        return windowRegistry;
+    }
+
+    /**
+     *
+     * @param selectElement is a select element.
+     * @return the option index of the element, shared by all Pages of this session.
+     * The indexes of the most recently used select elements are kept.
+     */
+    public synchronized SelectIndex getSelectIndex(WebElement selectElement){
+        SelectIndex index = selectIndexes.get(selectElement);
+        if(index == null){
+            index = new SelectIndex((JavascriptExecutor) driver, selectElement);
+            selectIndexes.put(selectElement, index);
+        }
+        return index;
+    }
+
+    /**
+     *
+     * @return the registry the Pages of this session record helper latencies in. Defaults to {@link PageMetrics#global()}.
+     */
+    public PageMetrics getMetrics(){
+        return metrics;
+    }
+
+    /**
+     *
+     * @param metrics is the registry the Pages of this session record helper latencies in.
+     */
+    public void setMetrics(PageMetrics metrics){
+        this.metrics = metrics;
+    }
+
+    /**
+     *
+     * @return the retry and error policy of the Page helpers of this session. Defaults to {@link ExecutionPolicy#defaults()}.
+     */
+    public ExecutionPolicy getExecutionPolicy(){
+        return executionPolicy;
+    }
+
+    /**
+     *
+     * @param executionPolicy is the retry and error policy of the Page helpers of this session.
+     */
+    public void setExecutionPolicy(ExecutionPolicy executionPolicy){
+        this.executionPolicy = executionPolicy;
+    }
+
+    /**
+     *
+     * @return the collector that gets evidence when a Page helper fails, or null.
+     */
+    public EvidenceCollector getEvidenceCollector(){
+        return evidenceCollector;
+    }
+
+    /**
+     *
+     * @param evidenceCollector captures a screenshot and the page source whenever a Page helper of this session fails.
+     *                          Null turns capturing on failure off.
+     */
+    public void setEvidenceCollector(EvidenceCollector evidenceCollector){
+        this.evidenceCollector = evidenceCollector;
+    }
+
+    /**
+     *
+     * @return the circuit breaker of the driver, shared with every other session on the same driver.
+     */
+    public CircuitBreaker getCircuitBreaker(){
+        return CircuitBreaker.forDriver(driver);
+    }
+
+    /**
+     * Raises the async script timeout of the driver when needed.
+     * The command is only sent when the timeout has to grow, so repeated async waits cost no extra round trip.
+     * @param millis is the minimum script timeout required by the caller.
+     */
+    synchronized void ensureScriptTimeout(long millis){
+        if(millis > scriptTimeoutMillis){
+            driver.manage().timeouts().setScriptTimeout(millis, TimeUnit.MILLISECONDS);
+            scriptTimeoutMillis = millis;
+        }
+    }
+
+    /**
+     * Binds this session to the calling thread. Pages created with {@link Page#Page()} on this thread will use it.
+     * @return this session.
+     */
+    public PageSession bindToCurrentThread(){
+        CURRENT.set(this);
+        return this;
+    }
+
+    /**
+     * Removes the session bound to the calling thread. Call this at the end of a test method.
+     */
+    public static void unbindCurrentThread(){
+        CURRENT.remove();
+    }
+
+    /**
+     *
+     * @return true if a session is bound to the calling thread.
+     */
+    public static boolean isBoundToCurrentThread(){
+        return CURRENT.get() != null;
+    }
+
+    /**
+     *
+     * @return the session bound to the calling thread.
+     * @throws IllegalStateException if no session is bound.
+     */
+    public static PageSession current(){
+        PageSession session = CURRENT.get();
+        if(session == null){
+            throw new IllegalStateException("No PageSession is bound to thread " + Thread.currentThread().getName()
+                    + ". Call PageSession.bindToCurrentThread() first.");
+        }
+        return session;
+    }
+}
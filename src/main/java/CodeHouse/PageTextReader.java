@@ -0,0 +1,141 @@
+package CodeHouse;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriverException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.UUID;
+
+/**
+ * Reads the inner text of the page in bounded chunks instead of as one String.
+ * On first read the text is taken once and parked in the page; every further call fetches the next chunk,
+ * so the JVM holds at most one chunk per reader. Close the reader to free the parked text in the page.
+ * If the page navigates away while reading, the next read fails with an IOException.
+ */
+public class PageTextReader extends Reader {
+
+    /**
+     * The default chunk size in characters.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private static final String PREPARE_SCRIPT =
+            "var store = window.__codeBreezeText = window.__codeBreezeText || {};\n" +
+            "var text = document.documentElement.innerText || '';\n" +
+            "store[arguments[0]] = text;\n" +
+            "return text.length;";
+
+    private static final String CHUNK_SCRIPT =
+            "var store = window.__codeBreezeText, text = store && store[arguments[0]];\n" +
+            "if (text == null) return null;\n" +
+            "var chunk = text.substr(arguments[1], arguments[2]), last = chunk.charCodeAt(chunk.length - 1);\n" +
+            "// do not split a surrogate pair between two chunks.\n" +
+            "return chunk.length > 1 && last >= 0xD800 && last <= 0xDBFF ? chunk.substr(0, chunk.length - 1) : chunk;";
+
+    private static final String RELEASE_SCRIPT =
+            "if (window.__codeBreezeText) { delete window.__codeBreezeText[arguments[0]]; }";
+
+    private final JavascriptExecutor executor;
+    private final int chunkSize;
+    private final String key = UUID.randomUUID().toString();
+    private long length = -1;
+    private long offset;
+    private String chunk = "";
+    private int chunkPosition;
+    private boolean closed;
+
+    /**
+     *
+     * @param executor is the driver to read the text with.
+     */
+    public PageTextReader(JavascriptExecutor executor){
+        this(executor, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     *
+     * @param executor is the driver to read the text with.
+     * @param chunkSize is the number of characters fetched per driver call.
+     */
+    public PageTextReader(JavascriptExecutor executor, int chunkSize){
+        if(chunkSize <= 0){
+            throw new IllegalArgumentException("The chunk size must be positive");
+        }
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     *
+     * @return the length of the whole text in characters. Takes the text if that has not happened yet.
+     * @throws IOException if the text cannot be taken.
+     */
+    public long length() throws IOException {
+        prepare();
+        return length;
+    }
+
+    @Override
+    public int read(char[] buffer, int off, int len) throws IOException {
+        prepare();
+        if(len == 0){
+            return 0;
+        }
+        if(chunkPosition == chunk.length() && !nextChunk()){
+            return -1;
+        }
+        int count = Math.min(len, chunk.length() - chunkPosition);
+        chunk.getChars(chunkPosition, chunkPosition + count, buffer, off);
+        chunkPosition += count;
+        return count;
+    }
+
+    @Override
+    public void close(){
+        if(closed){
+            return;
+        }
+        closed = true;
+        chunk = "";
+        if(length >= 0){
+            try {
+                executor.executeScript(RELEASE_SCRIPT, key);
+            }catch (WebDriverException wde){
+                // the page is gone, and the parked text with it.
+            }
+        }
+    }
+
+    private void prepare() throws IOException {
+        if(closed){
+            throw new IOException("The reader is closed");
+        }
+        if(length < 0){
+            try {
+                length = ((Number) executor.executeScript(PREPARE_SCRIPT, key)).longValue();
+            }catch (WebDriverException wde){
+                throw new IOException("Could not read the page text", wde);
+            }
+        }
+    }
+
+    private boolean nextChunk() throws IOException {
+        if(offset >= length){
+            return false;
+        }
+        Object next;
+        try {
+            next = executor.executeScript(CHUNK_SCRIPT, key, offset, chunkSize);
+        }catch (WebDriverException wde){
+            throw new IOException("Could not read the page text", wde);
+        }
+        if(next == null){
+            throw new IOException("The page navigated away while its text was read");
+        }
+        chunk = (String) next;
+        chunkPosition = 0;
+        offset += chunk.length();
+        return !chunk.isEmpty();
+    }
+}
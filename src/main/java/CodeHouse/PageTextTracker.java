@@ -0,0 +1,202 @@
+package CodeHouse;
+
+import org.openqa.selenium.JavascriptExecutor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tells what changed in the inner text of the page since the last look, with one script call per look.
+ * The page splits its text into chunks of whole lines and hashes them. Chunk boundaries depend on the content,
+ * so an edit in one place only changes the chunks around it. Only the hashes are kept in the JVM, and only
+ * chunks whose hash was not seen before are sent back, so checking an unchanged page costs a list of numbers.
+ *
+ * <pre>
+ *     PageTextTracker tracker = page.newPageTextTracker();
+ *     tracker.mark();
+ *     page.simpleClick(refreshButton);
+ *     PageTextTracker.TextDelta delta = tracker.poll();
+ *     if(delta.isChanged()){ ... delta.getAddedText() ... }
+ * </pre>
+ */
+public class PageTextTracker {
+
+    /**
+     * The default largest chunk in characters. Chunks usually end earlier, at a content defined line.
+     */
+    public static final int DEFAULT_MAX_CHUNK = 4096;
+
+    private static final String TRACK_SCRIPT =
+            "function hash(s) {\n" +
+            "  var h1 = 0xdeadbeef, h2 = 0x41c6ce57;\n" +
+            "  for (var i = 0, ch; i < s.length; i++) {\n" +
+            "    ch = s.charCodeAt(i);\n" +
+            "    h1 = Math.imul(h1 ^ ch, 2654435761);\n" +
+            "    h2 = Math.imul(h2 ^ ch, 1597334677);\n" +
+            "  }\n" +
+            "  h1 = Math.imul(h1 ^ (h1 >>> 16), 2246822507) ^ Math.imul(h2 ^ (h2 >>> 13), 3266489909);\n" +
+            "  h2 = Math.imul(h2 ^ (h2 >>> 16), 2246822507) ^ Math.imul(h1 ^ (h1 >>> 13), 3266489909);\n" +
+            "  return 4294967296 * (2097151 & h2) + (h1 >>> 0);\n" +
+            "}\n" +
+            "var previous = arguments[0], maxChunk = arguments[1], withText = arguments[2];\n" +
+            "var known = {}, hashes = [], added = [], lines = (document.documentElement.innerText || '').split('\\n'), chunk = [], size = 0;\n" +
+            "for (var p = 0; p < previous.length; p++) known[previous[p]] = true;\n" +
+            "function flush() {\n" +
+            "  if (!chunk.length) return;\n" +
+            "  var text = chunk.join('\\n'), h = hash(text);\n" +
+            "  hashes.push(h);\n" +
+            "  if (withText && !known[h]) { added.push(text); known[h] = true; }\n" +
+            "  chunk = []; size = 0;\n" +
+            "}\n" +
+            "for (var l = 0; l < lines.length; l++) {\n" +
+            "  chunk.push(lines[l]);\n" +
+            "  size += lines[l].length + 1;\n" +
+            "  if (size >= maxChunk || hash(lines[l]) % 16 === 0) flush();\n" +
+            "}\n" +
+            "flush();\n" +
+            "return {hashes: hashes, added: added};";
+
+    private final JavascriptExecutor executor;
+    private final int maxChunk;
+    private List<Long> hashes = Collections.emptyList();
+
+    /**
+     *
+     * @param executor is the driver to read the text with.
+     */
+    public PageTextTracker(JavascriptExecutor executor){
+        this(executor, DEFAULT_MAX_CHUNK);
+    }
+
+    /**
+     *
+     * @param executor is the driver to read the text with.
+     * @param maxChunk is the largest chunk in characters; smaller chunks send less unchanged text along with a change.
+     */
+    public PageTextTracker(JavascriptExecutor executor, int maxChunk){
+        if(maxChunk <= 0){
+            throw new IllegalArgumentException("The chunk size must be positive");
+        }
+        this.executor = executor;
+        this.maxChunk = maxChunk;
+    }
+
+    /**
+     * Remembers the current text as the base for the next {@link #poll()} without sending any text over the wire.
+     */
+    public synchronized void mark(){
+        look(false);
+    }
+
+    /**
+     * Compares the current text with the last look and remembers it as the base for the next one.
+     * The first poll without a {@link #mark()} returns the whole text as added.
+     * @return what changed.
+     */
+    public synchronized TextDelta poll(){
+        return look(true);
+    }
+
+    /**
+     * Forgets the last look, so the next poll returns the whole text.
+     */
+    public synchronized void reset(){
+        hashes = Collections.emptyList();
+    }
+
+    private TextDelta look(boolean withText){
+        Map<?, ?> result = (Map<?, ?>) executor.executeScript(TRACK_SCRIPT, hashes, maxChunk, withText);
+        List<Long> current = new ArrayList<Long>();
+        for(Object hash : (List<?>) result.get("hashes")){
+            current.add(((Number) hash).longValue());
+        }
+        List<String> added = new ArrayList<String>();
+        for(Object text : (List<?>) result.get("added")){
+            added.add((String) text);
+        }
+        Set<Long> remaining = new HashSet<Long>(current);
+        int removed = 0;
+        for(Long hash : hashes){
+            if(!remaining.contains(hash)){
+                removed++;
+            }
+        }
+        boolean changed = !current.equals(hashes);
+        hashes = current;
+        return new TextDelta(changed, added, removed, current.size(), contentHash(current));
+    }
+
+    private static long contentHash(List<Long> hashes){
+        long hash = 0xcbf29ce484222325L;
+        for(Long chunk : hashes){
+            hash = (hash ^ chunk) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * What changed in the page text between two looks of a {@link PageTextTracker}.
+     */
+    public static class TextDelta {
+
+        private final boolean changed;
+        private final List<String> addedText;
+        private final int removedChunks;
+        private final int totalChunks;
+        private final long contentHash;
+
+        TextDelta(boolean changed, List<String> addedText, int removedChunks, int totalChunks, long contentHash){
+            this.changed = changed;
+            this.addedText = Collections.unmodifiableList(addedText);
+            this.removedChunks = removedChunks;
+            this.totalChunks = totalChunks;
+            this.contentHash = contentHash;
+        }
+
+        /**
+         *
+         * @return true if the text differs from the last look, including chunks that only moved.
+         */
+        public boolean isChanged(){
+            return changed;
+        }
+
+        /**
+         *
+         * @return the chunks of text that were not there at the last look, in page order.
+         */
+        public List<String> getAddedText(){
+            return addedText;
+        }
+
+        /**
+         *
+         * @return the number of chunks that were there at the last look and are gone now.
+         */
+        public int getRemovedChunks(){
+            return removedChunks;
+        }
+
+        public int getTotalChunks(){
+            return totalChunks;
+        }
+
+        /**
+         *
+         * @return a hash of the whole text. Equal texts have equal hashes.
+         */
+        public long getContentHash(){
+            return contentHash;
+        }
+
+        @Override
+        public String toString(){
+            return changed ? "Text changed: " + addedText.size() + " chunk(s) added, " + removedChunks + " removed of " + totalChunks
+                    : "Text unchanged, " + totalChunks + " chunk(s)";
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package CodeHouse;
+
+/**
+ * Counters of a {@link PagePool} taken at one point in time.
+ */
+public class PoolMetrics {
+
+    private final long created;
+    private final long evicted;
+    private final long leases;
+    private final long resets;
+    private final long resetFailures;
+    private final long healthCheckFailures;
+    private final long leaseWaitMillis;
+    private final int idle;
+    private final int leased;
+
+    PoolMetrics(long created, long evicted, long leases, long resets, long resetFailures,
+                long healthCheckFailures, long leaseWaitMillis, int idle, int leased){
+        this.created = created;
+        this.evicted = evicted;
+        this.leases = leases;
+        this.resets = resets;
+        this.resetFailures = resetFailures;
+        this.healthCheckFailures = healthCheckFailures;
+        this.leaseWaitMillis = leaseWaitMillis;
+        this.idle = idle;
+        this.leased = leased;
+    }
+
+    /**
+     *
+     * @return the number of browsers started by the pool.
+     */
+    public long getCreated(){
+        return created;
+    }
+
+    /**
+     *
+     * @return the number of browsers quit by the pool.
+     */
+    public long getEvicted(){
+        return evicted;
+    }
+
+    /**
+     *
+     * @return the number of leases handed out.
+     */
+    public long getLeases(){
+        return leases;
+    }
+
+    /**
+     *
+     * @return the number of resets attempted between leases.
+     */
+    public long getResets(){
+        return resets;
+    }
+
+    /**
+     *
+     * @return the number of resets that failed and caused an eviction.
+     */
+    public long getResetFailures(){
+        return resetFailures;
+    }
+
+    /**
+     *
+     * @return the number of idle sessions that failed their health check on lease.
+     */
+    public long getHealthCheckFailures(){
+        return healthCheckFailures;
+    }
+
+    /**
+     *
+     * @return the total time callers spent waiting for a free session.
+     */
+    public long getLeaseWaitMillis(){
+        return leaseWaitMillis;
+    }
+
+    /**
+     *
+     * @return the number of sessions waiting in the pool.
+     */
+    public int getIdle(){
+        return idle;
+    }
+
+    /**
+     *
+     * @return the number of sessions currently leased.
+     */
+    public int getLeased(){
+        return leased;
+    }
+
+    /**
+     *
+     * @return the ratio of leases served without starting a browser.
+     */
+    public double getReuseRatio(){
+        return leases == 0 ? 0 : Math.max(0, leases - created) / (double) leases;
+    }
+
+    @Override
+    public String toString(){
+        return "PoolMetrics{created=" + created + ", evicted=" + evicted + ", leases=" + leases
+                + ", resets=" + resets + ", resetFailures=" + resetFailures
+                + ", healthCheckFailures=" + healthCheckFailures + ", leaseWaitMillis=" + leaseWaitMillis
+                + ", idle=" + idle + ", leased=" + leased + "}";
+    }
+}
@@ -0,0 +1,238 @@
+package CodeHouse;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.remote.CommandInfo;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.internal.ApacheHttpClient;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An HTTP transport for RemoteWebDriver that keeps connections to the grid open and shares them between drivers.
+ * All drivers created through one factory use one connection pool, limited per grid host and in total, so
+ * commands reuse warm keep-alive connections instead of opening a socket each and leaving it in TIME_WAIT.
+ * Responses are accepted gzip compressed. Idle and expired connections are closed in the background.
+ * Configure the factory with the setters before the first driver is created.
+ *
+ * <pre>
+ *     PooledHttpClientFactory transport = new PooledHttpClientFactory();
+ *     URL grid = new URL("http://grid:4444/wd/hub");
+ *     PagePool pool = new PagePool(() -&gt; transport.createDriver(grid, DesiredCapabilities.chrome()), 32);
+ *     ...
+ *     transport.getTotalStats();
+ * </pre>
+ */
+public class PooledHttpClientFactory implements HttpClient.Factory, Closeable {
+
+    private int maxTotal = 200;
+    private int maxPerHost = 50;
+    private int connectTimeoutMillis = (int) TimeUnit.SECONDS.toMillis(10);
+    private int poolTimeoutMillis = (int) TimeUnit.SECONDS.toMillis(30);
+    private int socketTimeoutMillis = (int) TimeUnit.MINUTES.toMillis(10);
+    private long keepAliveMillis = TimeUnit.SECONDS.toMillis(60);
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private PoolingHttpClientConnectionManager connections;
+    private CloseableHttpClient client;
+
+    /**
+     *
+     * @param maxTotal is the largest number of open connections to all hosts together. Defaults to 200.
+     */
+    public synchronized void setMaxTotal(int maxTotal){
+        this.maxTotal = maxTotal;
+    }
+
+    /**
+     *
+     * @param maxPerHost is the largest number of open connections to one grid host. Defaults to 50.
+     */
+    public synchronized void setMaxPerHost(int maxPerHost){
+        this.maxPerHost = maxPerHost;
+    }
+
+    /**
+     *
+     * @param connectTimeoutMillis is how long opening a connection may take. Defaults to 10 seconds,
+     *                             so an unreachable grid fails fast.
+     */
+    public synchronized void setConnectTimeoutMillis(int connectTimeoutMillis){
+        this.connectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    /**
+     *
+     * @param poolTimeoutMillis is how long a command waits for a free connection when the pool is exhausted.
+     *                          Defaults to 30 seconds.
+     */
+    public synchronized void setPoolTimeoutMillis(int poolTimeoutMillis){
+        this.poolTimeoutMillis = poolTimeoutMillis;
+    }
+
+    /**
+     *
+     * @param socketTimeoutMillis is how long a command may wait for its response. It must be longer than the
+     *                            longest page load, script or implicit wait timeout. Defaults to 10 minutes.
+     */
+    public synchronized void setSocketTimeoutMillis(int socketTimeoutMillis){
+        this.socketTimeoutMillis = socketTimeoutMillis;
+    }
+
+    /**
+     *
+     * @param keepAliveMillis is how long an idle connection is kept when the server does not say. Defaults to 60 seconds.
+     *                        It counts from the last response, not from when the connection was opened, so a
+     *                        connection that carries commands at least this often is never closed.
+     */
+    public synchronized void setKeepAliveMillis(long keepAliveMillis){
+        this.keepAliveMillis = keepAliveMillis;
+    }
+
+    /**
+     *
+     * @param url is the address of the grid or driver server.
+     * @return a client that sends its requests over the shared pool. Closing it leaves the pool open.
+     */
+    @Override
+    public synchronized HttpClient createClient(URL url){
+        final ApacheHttpClient delegate = new ApacheHttpClient(client(), url);
+        return new HttpClient() {
+            public org.openqa.selenium.remote.http.HttpResponse execute(HttpRequest request, boolean followRedirects) throws IOException {
+                requests.incrementAndGet();
+                try {
+                    return delegate.execute(request, followRedirects);
+                }catch (IOException | RuntimeException e){
+                    failures.incrementAndGet();
+                    throw e;
+                }
+            }
+
+            public void close(){
+                // the connections belong to the factory and are reused by the next driver.
+            }
+        };
+    }
+
+    /**
+     *
+     * @param remoteAddress is the address of the grid or driver server.
+     * @param capabilities are the capabilities of the new session.
+     * @return a RemoteWebDriver whose commands go through this factory.
+     */
+    public RemoteWebDriver createDriver(URL remoteAddress, Capabilities capabilities){
+        return new RemoteWebDriver(new HttpCommandExecutor(Collections.<String, CommandInfo>emptyMap(), remoteAddress, this), capabilities);
+    }
+
+    /**
+     *
+     * @return the leased, idle, pending and maximum connections of the whole pool.
+     */
+    public synchronized PoolStats getTotalStats(){
+        return connections().getTotalStats();
+    }
+
+    /**
+     *
+     * @param url is the address of a grid or driver server.
+     * @return the leased, idle, pending and maximum connections to its host.
+     */
+    public synchronized PoolStats getHostStats(URL url){
+        int port = url.getPort() != -1 ? url.getPort() : url.getDefaultPort();
+        return connections().getStats(new HttpRoute(new HttpHost(url.getHost(), port, url.getProtocol())));
+    }
+
+    /**
+     *
+     * @return the number of commands sent.
+     */
+    public long getRequests(){
+        return requests.get();
+    }
+
+    /**
+     *
+     * @return the number of commands that failed on the wire, without an answer from the server.
+     */
+    public long getFailures(){
+        return failures.get();
+    }
+
+    /**
+     * Closes all connections. Drivers created by this factory cannot send commands afterwards.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if(client != null){
+            client.close();
+            client = null;
+            connections = null;
+        }
+    }
+
+    private PoolingHttpClientConnectionManager connections(){
+        client();
+        return connections;
+    }
+
+    private CloseableHttpClient client(){
+        if(client == null){
+            // no time to live: a connection in use stays open, only idle ones are closed by the keep-alive below.
+            connections = new PoolingHttpClientConnectionManager();
+            connections.setMaxTotal(maxTotal);
+            connections.setDefaultMaxPerRoute(maxPerHost);
+            // a pooled connection the grid closed while idle is detected before it is used, not by a failed command.
+            connections.setValidateAfterInactivity(2000);
+            RequestConfig config = RequestConfig.custom()
+                    .setConnectTimeout(connectTimeoutMillis)
+                    .setConnectionRequestTimeout(poolTimeoutMillis)
+                    .setSocketTimeout(socketTimeoutMillis)
+                    .build();
+            client = HttpClientBuilder.create()
+                    .setConnectionManager(connections)
+                    .setDefaultRequestConfig(config)
+                    .setKeepAliveStrategy(new KeepAlive(keepAliveMillis))
+                    .evictExpiredConnections()
+                    .evictIdleConnections(keepAliveMillis, TimeUnit.MILLISECONDS)
+                    .build();
+        }
+        return client;
+    }
+
+    /**
+     * Keeps connections as long as the server allows, or for the default when it does not say.
+     */
+    private static final class KeepAlive implements ConnectionKeepAliveStrategy {
+
+        private final long defaultMillis;
+
+        KeepAlive(long defaultMillis){
+            this.defaultMillis = defaultMillis;
+        }
+
+        @Override
+        public long getKeepAliveDuration(HttpResponse response, HttpContext context){
+            long serverMillis = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverMillis > 0 ? serverMillis : defaultMillis;
+        }
+    }
+}
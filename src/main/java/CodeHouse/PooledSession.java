@@ -0,0 +1,58 @@
+package CodeHouse;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * A {@link PageSession} leased from a {@link PagePool}.
+ * Closing it gives the browser back to the pool instead of quitting it.
+ */
+public class PooledSession extends PageSession implements AutoCloseable {
+
+    private final PagePool pool;
+    private final long createdAtMillis = System.currentTimeMillis();
+    private int uses;
+    private boolean leased;
+
+    PooledSession(WebDriver driver, PagePool pool){
+        super(driver);
+        this.pool = pool;
+    }
+
+    synchronized void markLeased(){
+        uses++;
+        leased = true;
+    }
+
+    /**
+     *
+     * @return the number of times this session has been leased.
+     */
+    public synchronized int getUses(){
+        return uses;
+    }
+
+    /**
+     *
+     * @return the time in milliseconds since the browser was started.
+     */
+    public long getAgeMillis(){
+        return System.currentTimeMillis() - createdAtMillis;
+    }
+
+    /**
+     * Returns the session to its pool. Calling it more than once has no effect.
+     */
+    @Override
+    public void close(){
+        synchronized (this){
+            if(!leased){
+                return;
+            }
+            leased = false;
+        }
+        if(isBoundToCurrentThread() && current() == this){
+            unbindCurrentThread();
+        }
+        pool.release(this);
+    }
+}
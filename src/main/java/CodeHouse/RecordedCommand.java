@@ -0,0 +1,211 @@
+package CodeHouse;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * One command of a log written by a {@link CommandRecorder}. The toString form names the command, its
+ * target, its arguments and its outcome on one line without timings, so two recordings of the same flow
+ * can be compared with a text diff to see where a change added or removed commands.
+ */
+public class RecordedCommand {
+
+    private static final int MAX_TEXT = 80;
+
+    /**
+     * Reads driver objects as labels such as driver, element#3 and Options, for descriptions.
+     */
+    private static final CommandCodec LABELS = new CommandCodec(new CommandCodec.Handles() {
+        public boolean write(Object value, DataOutputStream out) {
+            return false;
+        }
+
+        public Object read(int tag, DataInputStream in) throws IOException {
+            switch (tag){
+                case CommandCodec.DRIVER:
+                    return new Label("driver");
+                case CommandCodec.ELEMENT:
+                    return new Label("element#" + CommandCodec.readVarLong(in));
+                case CommandCodec.COORDINATES:
+                    return new Label("coordinates of element#" + CommandCodec.readVarLong(in));
+                default:
+                    String type = CommandCodec.readString(in);
+                    return new Label(type.substring(Math.max(type.lastIndexOf('.'), type.lastIndexOf('$')) + 1));
+            }
+        }
+    });
+
+    private final int index;
+    private final String command;
+    private final byte[] key;
+    private final byte[] result;
+    private final String errorType;
+    private final String errorMessage;
+    private final long micros;
+
+    RecordedCommand(int index, String command, byte[] key, byte[] result, String errorType, String errorMessage, long micros){
+        this.index = index;
+        this.command = command;
+        this.key = key;
+        this.result = result;
+        this.errorType = errorType;
+        this.errorMessage = errorMessage;
+        this.micros = micros;
+    }
+
+    /**
+     *
+     * @return the position of the command in the log, from 0.
+     */
+    public int getIndex(){
+        return index;
+    }
+
+    /**
+     *
+     * @return the command name as Interface.method, for example WebElement.click.
+     */
+    public String getCommand(){
+        return command;
+    }
+
+    /**
+     *
+     * @return the object the command ran on, for example driver, element#3 or Options.
+     */
+    public String getTarget(){
+        return describe(LABELS.decodeCommand(key)[0]);
+    }
+
+    /**
+     *
+     * @return the arguments of the command in parentheses. Long strings are shortened.
+     */
+    public String getArguments(){
+        Object[] command = LABELS.decodeCommand(key);
+        StringBuilder arguments = new StringBuilder("(");
+        for(int i = 1; i < command.length; i++){
+            arguments.append(i > 1 ? ", " : "").append(describe(command[i]));
+        }
+        return arguments.append(')').toString();
+    }
+
+    /**
+     *
+     * @return the value the command returned, or a description of the error it failed with.
+     */
+    public String getOutcome(){
+        return isFailed() ? "failed with " + errorType + ": " + describe(errorMessage) : describe(LABELS.decode(result));
+    }
+
+    public boolean isFailed(){
+        return errorType != null;
+    }
+
+    /**
+     *
+     * @return the class name of the exception the command failed with, or null if it did not fail.
+     */
+    public String getErrorType(){
+        return errorType;
+    }
+
+    public String getErrorMessage(){
+        return errorMessage;
+    }
+
+    /**
+     *
+     * @return how long the command took while it was recorded.
+     */
+    public long getMicros(){
+        return micros;
+    }
+
+    byte[] getKey(){
+        return key;
+    }
+
+    byte[] getResult(){
+        return result;
+    }
+
+    /**
+     *
+     * @return the method name of the command, which is what a replay matches on together with the target and arguments.
+     */
+    String getMethodName(){
+        return command.substring(command.lastIndexOf('.') + 1);
+    }
+
+    @Override
+    public String toString(){
+        return command + " on " + getTarget() + " " + getArguments() + " -> " + getOutcome();
+    }
+
+    /**
+     *
+     * @return a one line description of a command that was run, in the form of {@link #toString()} without the outcome.
+     */
+    static String describe(String command, Object[] decoded){
+        StringBuilder text = new StringBuilder(command).append(" on ").append(describe(decoded[0])).append(" (");
+        for(int i = 1; i < decoded.length; i++){
+            text.append(i > 1 ? ", " : "").append(describe(decoded[i]));
+        }
+        return text.append(')').toString();
+    }
+
+    static CommandCodec labels(){
+        return LABELS;
+    }
+
+    private static String describe(Object value){
+        if(value == null){
+            return "null";
+        }
+        if(value instanceof CharSequence){
+            String text = value.toString().replace("\n", "\\n");
+            return "\"" + (text.length() > MAX_TEXT ? text.substring(0, MAX_TEXT) + "...\" (" + text.length() + " chars)" : text + "\"");
+        }
+        if(value instanceof byte[]){
+            return "<" + ((byte[]) value).length + " bytes>";
+        }
+        if(value instanceof Collection){
+            StringBuilder list = new StringBuilder("[");
+            for(Iterator<?> it = ((Collection<?>) value).iterator(); it.hasNext();){
+                list.append(describe(it.next())).append(it.hasNext() ? ", " : "");
+            }
+            return list.append(']').toString();
+        }
+        if(value instanceof Map){
+            StringBuilder map = new StringBuilder("{");
+            for(Iterator<? extends Map.Entry<?, ?>> it = ((Map<?, ?>) value).entrySet().iterator(); it.hasNext();){
+                Map.Entry<?, ?> entry = it.next();
+                map.append(entry.getKey()).append('=').append(describe(entry.getValue())).append(it.hasNext() ? ", " : "");
+            }
+            return map.append('}').toString();
+        }
+        return value.toString();
+    }
+
+    /**
+     * Stands for a driver object in a description.
+     */
+    private static final class Label {
+
+        private final String text;
+
+        Label(String text){
+            this.text = text;
+        }
+
+        @Override
+        public String toString(){
+            return text;
+        }
+    }
+}
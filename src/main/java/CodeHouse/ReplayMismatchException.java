@@ -0,0 +1,47 @@
+package CodeHouse;
+
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * Thrown by a {@link CommandReplay} driver when the code under test runs a command other than the next one
+ * in the recording, or runs more or fewer commands than were recorded.
+ */
+public class ReplayMismatchException extends WebDriverException {
+
+    private final int index;
+    private final RecordedCommand expected;
+    private final String actual;
+
+    public ReplayMismatchException(int index, RecordedCommand expected, String actual){
+        super(expected == null ? "The recording ended after " + index + " command(s), but " + actual + " was run"
+                : actual == null ? "Command " + index + " of the recording, " + expected + ", was not run"
+                : "Command " + index + " of the recording is " + expected + ", but " + actual + " was run");
+        this.index = index;
+        this.expected = expected;
+        this.actual = actual;
+    }
+
+    /**
+     *
+     * @return the position in the recording where the replay went another way, from 0.
+     */
+    public int getIndex(){
+        return index;
+    }
+
+    /**
+     *
+     * @return the recorded command at that position, or null if the recording had ended.
+     */
+    public RecordedCommand getExpected(){
+        return expected;
+    }
+
+    /**
+     *
+     * @return the command that was run instead, or null if the replay stopped before it.
+     */
+    public String getActual(){
+        return actual;
+    }
+}
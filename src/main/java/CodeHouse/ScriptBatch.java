@@ -0,0 +1,169 @@
+package CodeHouse;
+
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Queues several JavaScript snippets and sends them to the browser in one executeScript call.
+ * Each snippet is written like a normal executeScript body: it reads its own arguments[i] and
+ * uses return for its value. A failing snippet does not stop the others; its error is thrown
+ * by {@link Result#get()}.
+ *
+ * <pre>
+ *     ScriptBatch batch = page.newScriptBatch();
+ *     ScriptBatch.Result&lt;Long&gt; height = batch.add("return window.innerHeight;", Long.class);
+ *     ScriptBatch.Result&lt;String&gt; title = batch.add("return document.title;", String.class);
+ *     batch.execute();
+ * </pre>
+ */
+public class ScriptBatch {
+
+    private final JavascriptExecutor executor;
+    private final List<String> scripts = new ArrayList<String>();
+    private final List<Object> arguments = new ArrayList<Object>();
+    private final List<Result<?>> results = new ArrayList<Result<?>>();
+
+    /**
+     *
+     * @param executor is the driver the batch is sent to.
+     */
+    public ScriptBatch(JavascriptExecutor executor){
+        this.executor = executor;
+    }
+
+    /**
+     *
+     * @param script is the snippet to run, using arguments[i] and return like in executeScript.
+     * @param type is the type the result is converted to. Supported are String, Boolean, Long, Integer, Double and Object.
+     * @param args are the arguments of this snippet only. WebElements are allowed.
+     * @param <T> is the type of the result.
+     * @return the handle that holds the result once the batch is executed.
+     */
+    public <T> Result<T> add(String script, Class<T> type, Object... args){
+        Result<T> result = new Result<T>(type);
+        scripts.add(script);
+        List<Object> snippetArgs = new ArrayList<Object>();
+        for(Object arg : args){
+            snippetArgs.add(arg);
+        }
+        arguments.add(snippetArgs);
+        results.add(result);
+        return result;
+    }
+
+    /**
+     *
+     * @param script is the snippet to run, for example an action with no return value.
+     * @param args are the arguments of this snippet only.
+     * @return the handle that holds the raw result once the batch is executed.
+     */
+    public Result<Object> add(String script, Object... args){
+        return add(script, Object.class, args);
+    }
+
+    /**
+     *
+     * @return the number of queued snippets.
+     */
+    public int size(){
+        return scripts.size();
+    }
+
+    /**
+     * Sends all queued snippets in one round trip and fills their results. The batch is empty afterwards.
+     */
+    public void execute(){
+        if(scripts.isEmpty()){
+            return;
+        }
+        StringBuilder body = new StringBuilder("var args = arguments[0], out = [];\n");
+        for(int i = 0; i < scripts.size(); i++){
+            body.append("try { out.push({v: (function () {\n")
+                    .append(scripts.get(i))
+                    .append("\n}).apply(window, args[").append(i).append("])}); }")
+                    .append(" catch (e) { out.push({e: String(e && e.message ? e.message : e)}); }\n");
+        }
+        body.append("return out;");
+        List<?> values = (List<?>) executor.executeScript(body.toString(), new ArrayList<Object>(arguments));
+        for(int i = 0; i < results.size(); i++){
+            Map<?, ?> value = (Map<?, ?>) values.get(i);
+            results.get(i).complete(value.get("v"), (String) value.get("e"));
+        }
+        scripts.clear();
+        arguments.clear();
+        results.clear();
+    }
+
+    /**
+     * The result of one snippet of a batch.
+     * @param <T> is the type of the result.
+     */
+    public static class Result<T> {
+
+        private final Class<T> type;
+        private boolean done;
+        private Object value;
+        private String error;
+
+        Result(Class<T> type){
+            this.type = type;
+        }
+
+        void complete(Object value, String error){
+            this.value = value;
+            this.error = error;
+            this.done = true;
+        }
+
+        /**
+         *
+         * @return true once the batch holding this result has been executed.
+         */
+        public boolean isDone(){
+            return done;
+        }
+
+        /**
+         *
+         * @return the converted value of the snippet.
+         * @throws IllegalStateException if the batch was not executed yet.
+         * @throws JavascriptException if the snippet threw an error.
+         */
+        public T get(){
+            if(!done){
+                throw new IllegalStateException("The batch holding this result has not been executed");
+            }
+            if(error != null){
+                throw new JavascriptException(error);
+            }
+            return convert(value, type);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T convert(Object value, Class<T> type){
+            if(value == null || type == Object.class){
+                return (T) value;
+            }
+            if(type == String.class){
+                return (T) String.valueOf(value);
+            }
+            if(value instanceof Number){
+                Number number = (Number) value;
+                if(type == Long.class){
+                    return (T) Long.valueOf(number.longValue());
+                }
+                if(type == Integer.class){
+                    return (T) Integer.valueOf(number.intValue());
+                }
+                if(type == Double.class){
+                    return (T) Double.valueOf(number.doubleValue());
+                }
+            }
+            return type.cast(value);
+        }
+    }
+}
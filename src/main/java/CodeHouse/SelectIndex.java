@@ -0,0 +1,265 @@
+package CodeHouse;
+
+import org.openqa.selenium.InvalidElementStateException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.UnexpectedTagNameException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * An index of the options of one select element, mapping values and visible texts to option indexes.
+ * It is built with one script, which also installs a MutationObserver on the element that marks the
+ * index dirty when options are added, removed or changed. Every selection is then a single script call
+ * that checks the mark and sets the options by index. When the mark is set, or the element was replaced,
+ * the index is rebuilt once and the selection is retried.
+ * Options are selected like FormFill does it: the selected state is set directly and input and change
+ * events are fired, once per call and only when something changed.
+ */
+public class SelectIndex {
+
+    private static final String BUILD_SCRIPT =
+            "var el = arguments[0], token = arguments[1];\n" +
+            "if (el.tagName !== 'SELECT') return el.tagName.toLowerCase();\n" +
+            "if (!el.__codeBreezeObserver && window.MutationObserver) {\n" +
+            "  el.__codeBreezeObserver = new MutationObserver(function () { el.__codeBreezeDirty = true; });\n" +
+            "  el.__codeBreezeObserver.observe(el, {childList: true, subtree: true, characterData: true, attributes: true, attributeFilter: ['value', 'label', 'disabled']});\n" +
+            "}\n" +
+            "el.__codeBreezeSelectIndex = token;\n" +
+            "el.__codeBreezeDirty = !window.MutationObserver;\n" +
+            "var values = [], texts = [];\n" +
+            "for (var i = 0; i < el.options.length; i++) {\n" +
+            "  values.push(el.options[i].value);\n" +
+            "  texts.push(el.options[i].text.replace(/\\s+/g, ' ').trim());\n" +
+            "}\n" +
+            "return {multiple: el.multiple, values: values, texts: texts};";
+
+    private static final String APPLY_SCRIPT =
+            "var el = arguments[0], token = arguments[1], indexes = arguments[2], select = arguments[3];\n" +
+            "if (el.__codeBreezeSelectIndex !== token || el.__codeBreezeDirty) return 'stale';\n" +
+            "if (el.disabled) return 'disabled select';\n" +
+            "var changed = false;\n" +
+            "if (indexes === null) { indexes = []; for (var i = 0; i < el.options.length; i++) indexes.push(i); }\n" +
+            "for (var j = 0; j < indexes.length; j++) {\n" +
+            "  var o = el.options[indexes[j]];\n" +
+            "  if (!o) return 'stale';\n" +
+            "  if (select && o.disabled) return 'disabled';\n" +
+            "}\n" +
+            "for (var k = 0; k < indexes.length; k++) {\n" +
+            "  var option = el.options[indexes[k]];\n" +
+            "  if (option.selected !== select) { option.selected = select; changed = true; }\n" +
+            "}\n" +
+            "if (changed) {\n" +
+            "  el.dispatchEvent(new Event('input', {bubbles: true}));\n" +
+            "  el.dispatchEvent(new Event('change', {bubbles: true}));\n" +
+            "}\n" +
+            "return null;";
+
+    private final JavascriptExecutor executor;
+    private final WebElement element;
+    private String token;
+    private boolean multiple;
+    private int optionCount;
+    private Map<String, List<Integer>> byValue = Collections.emptyMap();
+    private Map<String, List<Integer>> byText = Collections.emptyMap();
+    private int builds;
+
+    /**
+     *
+     * @param executor is the driver the index works with.
+     * @param element is the select element. It is indexed on first use.
+     */
+    public SelectIndex(JavascriptExecutor executor, WebElement element){
+        this.executor = executor;
+        this.element = element;
+    }
+
+    /**
+     *
+     * @param value is the value attribute of the options to select.
+     * @throws NoSuchElementException if no option has this value.
+     */
+    public synchronized void selectByValue(String value){
+        apply(() -> lookup(byValue, value, "value"), true);
+    }
+
+    /**
+     *
+     * @param visibleText is the text of the options to select, compared with collapsed white space.
+     * @throws NoSuchElementException if no option has this text.
+     */
+    public synchronized void selectByVisibleText(String visibleText){
+        apply(() -> lookup(byText, normalize(visibleText), "text"), true);
+    }
+
+    /**
+     *
+     * @param index is the index of the option to select.
+     * @throws NoSuchElementException if there is no option at this index.
+     */
+    public synchronized void selectByIndex(int index){
+        apply(() -> position(index), true);
+    }
+
+    /**
+     *
+     * @param value is the value attribute of the options to deselect.
+     * @throws UnsupportedOperationException if the element is not a multi-select.
+     */
+    public synchronized void deselectByValue(String value){
+        apply(() -> lookup(byValue, value, "value"), false);
+    }
+
+    /**
+     *
+     * @param visibleText is the text of the options to deselect.
+     * @throws UnsupportedOperationException if the element is not a multi-select.
+     */
+    public synchronized void deselectByVisibleText(String visibleText){
+        apply(() -> lookup(byText, normalize(visibleText), "text"), false);
+    }
+
+    /**
+     *
+     * @param index is the index of the option to deselect.
+     * @throws UnsupportedOperationException if the element is not a multi-select.
+     */
+    public synchronized void deselectByIndex(int index){
+        apply(() -> position(index), false);
+    }
+
+    /**
+     * Deselects all options.
+     * @throws UnsupportedOperationException if the element is not a multi-select.
+     */
+    public synchronized void deselectAll(){
+        apply(() -> null, false);
+    }
+
+    /**
+     *
+     * @return true if the select element allows more than one selected option.
+     */
+    public synchronized boolean isMultiple(){
+        ensureBuilt();
+        return multiple;
+    }
+
+    /**
+     *
+     * @return the number of options as of the last build.
+     */
+    public synchronized int getOptionCount(){
+        ensureBuilt();
+        return optionCount;
+    }
+
+    /**
+     *
+     * @return how often the index was built, the first build included.
+     */
+    public synchronized int getBuilds(){
+        return builds;
+    }
+
+    /**
+     * Reads all options again in one script call.
+     */
+    public synchronized void rebuild(){
+        String newToken = UUID.randomUUID().toString();
+        Object result = executor.executeScript(BUILD_SCRIPT, element, newToken);
+        if(result instanceof String){
+            throw new UnexpectedTagNameException("select", (String) result);
+        }
+        Map<?, ?> options = (Map<?, ?>) result;
+        List<?> values = (List<?>) options.get("values");
+        List<?> texts = (List<?>) options.get("texts");
+        Map<String, List<Integer>> newByValue = new HashMap<String, List<Integer>>();
+        Map<String, List<Integer>> newByText = new HashMap<String, List<Integer>>();
+        for(int i = 0; i < values.size(); i++){
+            add(newByValue, (String) values.get(i), i);
+            add(newByText, (String) texts.get(i), i);
+        }
+        this.multiple = Boolean.TRUE.equals(options.get("multiple"));
+        this.optionCount = values.size();
+        this.byValue = newByValue;
+        this.byText = newByText;
+        this.token = newToken;
+        builds++;
+    }
+
+    private void ensureBuilt(){
+        if(token == null){
+            rebuild();
+        }
+    }
+
+    private void apply(Supplier<List<Integer>> indexes, boolean select){
+        ensureBuilt();
+        for(int attempt = 0; ; attempt++){
+            if(!select && !multiple){
+                throw new UnsupportedOperationException("You may only deselect options of a multi-select");
+            }
+            List<Integer> positions;
+            try {
+                positions = indexes.get();
+            }catch (NoSuchElementException nsee){
+                // the option may have been added since the last build, as in cascading dropdowns.
+                if(attempt > 0){
+                    throw nsee;
+                }
+                rebuild();
+                continue;
+            }
+            Object result = executor.executeScript(APPLY_SCRIPT, element, token, positions, select);
+            if(result == null){
+                return;
+            }
+            if("disabled select".equals(result)){
+                throw new InvalidElementStateException("You may not select or deselect options of a disabled select element");
+            }
+            if("disabled".equals(result)){
+                throw new InvalidElementStateException("You may not select a disabled option");
+            }
+            if(attempt > 0){
+                throw new InvalidElementStateException("The options of the select element kept changing while selecting");
+            }
+            rebuild();
+        }
+    }
+
+    private List<Integer> lookup(Map<String, List<Integer>> index, String key, String kind){
+        List<Integer> positions = index.get(key);
+        if(positions == null){
+            throw new NoSuchElementException("Cannot locate option with " + kind + ": " + key);
+        }
+        return multiple ? positions : positions.subList(0, 1);
+    }
+
+    private List<Integer> position(int index){
+        if(index < 0 || index >= optionCount){
+            throw new NoSuchElementException("Cannot locate option with index: " + index);
+        }
+        return Collections.singletonList(index);
+    }
+
+    private static void add(Map<String, List<Integer>> index, String key, int position){
+        List<Integer> positions = index.get(key);
+        if(positions == null){
+            positions = new ArrayList<Integer>(1);
+            index.put(key, positions);
+        }
+        positions.add(position);
+    }
+
+    private static String normalize(String text){
+        return text.replaceAll("\\s+", " ").trim();
+    }
+}
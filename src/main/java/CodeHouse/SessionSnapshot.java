@@ -0,0 +1,237 @@
+package CodeHouse;
+
+import com.google.gson.Gson;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The cookies, localStorage and sessionStorage of one origin, taken after a login so that later sessions can
+ * start logged in without going through the login flow again. Taking a snapshot is one script call and one cookie read.
+ * Restoring it is one navigation to the origin, one addCookie per cookie and one script for both storages.
+ * Snapshots are written to disk as gzipped JSON. See {@link SessionSnapshotCache} for a per user cache with a time to live.
+ */
+public class SessionSnapshot {
+
+    private static final Logger LOGGER = Logger.getLogger(SessionSnapshot.class.getName());
+    private static final Gson GSON = new Gson();
+
+    private static final String READ_SCRIPT =
+            "function dump(name) {\n" +
+            "  var out = {};\n" +
+            "  try { var s = window[name]; for (var i = 0; i < s.length; i++) { var k = s.key(i); out[k] = s.getItem(k); } } catch (e) {}\n" +
+            "  return out;\n" +
+            "}\n" +
+            "return {origin: location.origin, local: dump('localStorage'), session: dump('sessionStorage')};";
+
+    private static final String WRITE_SCRIPT =
+            "function load(name, values) {\n" +
+            "  try { var s = window[name]; for (var k in values) { s.setItem(k, values[k]); } } catch (e) {}\n" +
+            "}\n" +
+            "load('localStorage', arguments[0]);\n" +
+            "load('sessionStorage', arguments[1]);";
+
+    private String origin;
+    private long createdAtMillis;
+    private List<CookieData> cookies = new ArrayList<CookieData>();
+    private Map<String, String> localStorage = new LinkedHashMap<String, String>();
+    private Map<String, String> sessionStorage = new LinkedHashMap<String, String>();
+
+    private SessionSnapshot(){
+    }
+
+    /**
+     *
+     * @param driver is a driver on a page of the logged in site.
+     * @return the cookies and storage of the current origin.
+     */
+    public static SessionSnapshot capture(WebDriver driver){
+        SessionSnapshot snapshot = new SessionSnapshot();
+        Map<?, ?> state = (Map<?, ?>) ((JavascriptExecutor) driver).executeScript(READ_SCRIPT);
+        snapshot.origin = (String) state.get("origin");
+        snapshot.localStorage = strings((Map<?, ?>) state.get("local"));
+        snapshot.sessionStorage = strings((Map<?, ?>) state.get("session"));
+        for(Cookie cookie : driver.manage().getCookies()){
+            snapshot.cookies.add(new CookieData(cookie));
+        }
+        snapshot.createdAtMillis = System.currentTimeMillis();
+        return snapshot;
+    }
+
+    /**
+     * Restores the snapshot into the driver. The driver is left on the origin of the snapshot.
+     * @param driver is a driver, usually a fresh one.
+     * @return the number of cookies that were restored. Cookies the browser refuses are skipped and logged.
+     */
+    public int restore(WebDriver driver){
+        String current = driver.getCurrentUrl();
+        if(current == null || !current.startsWith(origin)){
+            driver.get(origin + "/");
+        }
+        int restored = 0;
+        long now = System.currentTimeMillis();
+        for(CookieData cookie : cookies){
+            if(cookie.expiry != null && cookie.expiry <= now){
+                continue;
+            }
+            try {
+                driver.manage().addCookie(cookie.toCookie());
+                restored++;
+            }catch (WebDriverException wde){
+                LOGGER.fine("Could not restore cookie " + cookie.name + ": " + wde.getMessage());
+            }
+        }
+        ((JavascriptExecutor) driver).executeScript(WRITE_SCRIPT, localStorage, sessionStorage);
+        return restored;
+    }
+
+    /**
+     *
+     * @param ttlMillis is how long a snapshot may be used after it was taken.
+     * @return true if the snapshot is older than the time to live, or one of its cookies has expired.
+     */
+    public boolean isExpired(long ttlMillis){
+        long now = System.currentTimeMillis();
+        if(now - createdAtMillis > ttlMillis){
+            return true;
+        }
+        for(CookieData cookie : cookies){
+            if(cookie.expiry != null && cookie.expiry <= now){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     *
+     * @param file is where the snapshot is written, as gzipped JSON. The file is replaced atomically.
+     * @throws IOException if the file cannot be written.
+     */
+    public void write(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(temporary)), StandardCharsets.UTF_8)) {
+                GSON.toJson(this, writer);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     *
+     * @param file is a file written by {@link #write(Path)}.
+     * @return the snapshot.
+     * @throws IOException if the file cannot be read.
+     */
+    public static SessionSnapshot read(Path file) throws IOException {
+        try (Reader reader = new InputStreamReader(new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8)) {
+            SessionSnapshot snapshot = GSON.fromJson(reader, SessionSnapshot.class);
+            if(snapshot == null || snapshot.origin == null){
+                throw new IOException("Not a session snapshot: " + file);
+            }
+            return snapshot;
+        }catch (com.google.gson.JsonParseException jpe){
+            throw new IOException("Not a session snapshot: " + file, jpe);
+        }
+    }
+
+    /**
+     *
+     * @return the origin the snapshot was taken on, for example https://example.com.
+     */
+    public String getOrigin(){
+        return origin;
+    }
+
+    public long getCreatedAtMillis(){
+        return createdAtMillis;
+    }
+
+    public int getCookieCount(){
+        return cookies.size();
+    }
+
+    /**
+     *
+     * @return the localStorage entries of the origin.
+     */
+    public Map<String, String> getLocalStorage(){
+        return localStorage;
+    }
+
+    /**
+     *
+     * @return the sessionStorage entries of the window the snapshot was taken in.
+     */
+    public Map<String, String> getSessionStorage(){
+        return sessionStorage;
+    }
+
+    private static Map<String, String> strings(Map<?, ?> values){
+        Map<String, String> copy = new LinkedHashMap<String, String>();
+        if(values != null){
+            for(Map.Entry<?, ?> entry : values.entrySet()){
+                copy.put(String.valueOf(entry.getKey()), entry.getValue() == null ? null : String.valueOf(entry.getValue()));
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * The fields of a Cookie in a form Gson can write.
+     */
+    private static final class CookieData {
+
+        private String name;
+        private String value;
+        private String domain;
+        private String path;
+        private Long expiry;
+        private boolean secure;
+        private boolean httpOnly;
+
+        CookieData(Cookie cookie){
+            this.name = cookie.getName();
+            this.value = cookie.getValue();
+            this.domain = cookie.getDomain();
+            this.path = cookie.getPath();
+            this.expiry = cookie.getExpiry() == null ? null : cookie.getExpiry().getTime();
+            this.secure = cookie.isSecure();
+            this.httpOnly = cookie.isHttpOnly();
+        }
+
+        Cookie toCookie(){
+            return new Cookie.Builder(name, value)
+                    .domain(domain)
+                    .path(path)
+                    .expiresOn(expiry == null ? null : new Date(expiry))
+                    .isSecure(secure)
+                    .isHttpOnly(httpOnly)
+                    .build();
+        }
+    }
+}
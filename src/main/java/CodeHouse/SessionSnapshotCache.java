@@ -0,0 +1,154 @@
+package CodeHouse;
+
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps one {@link SessionSnapshot} per user, in memory and in a directory, so that a suite logs in once per user
+ * and every other test restores the snapshot into its own driver instead.
+ * Snapshots older than the time to live, or with an expired cookie, are dropped and taken again after the next login.
+ * When several threads ask for the same user at once, one of them logs in and the others wait for its snapshot.
+ *
+ * <pre>
+ *     SessionSnapshotCache logins = new SessionSnapshotCache(Paths.get("target/sessions"), TimeUnit.MINUTES.toMillis(30));
+ *     page.restoreOrLogin(logins, "admin", () -> loginPage.loginAs("admin"));
+ * </pre>
+ */
+public class SessionSnapshotCache {
+
+    private static final Logger LOGGER = Logger.getLogger(SessionSnapshotCache.class.getName());
+
+    private final Path directory;
+    private final long ttlMillis;
+    private final ConcurrentMap<String, SessionSnapshot> snapshots = new ConcurrentHashMap<String, SessionSnapshot>();
+    private final ConcurrentMap<String, Object> locks = new ConcurrentHashMap<String, Object>();
+
+    /**
+     *
+     * @param directory is where snapshots are kept between runs, or null to keep them in memory only.
+     * @param ttlMillis is how long a snapshot may be used after it was taken.
+     */
+    public SessionSnapshotCache(Path directory, long ttlMillis){
+        if(ttlMillis <= 0){
+            throw new IllegalArgumentException("The time to live must be positive");
+        }
+        this.directory = directory;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     *
+     * @param user is the name the snapshot was stored under.
+     * @return the snapshot of the user, or null if there is none or it has expired.
+     */
+    public SessionSnapshot get(String user){
+        SessionSnapshot snapshot = snapshots.get(user);
+        if(snapshot == null && directory != null){
+            snapshot = load(user);
+        }
+        if(snapshot != null && snapshot.isExpired(ttlMillis)){
+            invalidate(user);
+            return null;
+        }
+        return snapshot;
+    }
+
+    /**
+     *
+     * @param user is the name to store the snapshot under.
+     * @param snapshot is the snapshot taken after the user logged in.
+     */
+    public void put(String user, SessionSnapshot snapshot){
+        snapshots.put(user, snapshot);
+        if(directory != null){
+            try {
+                snapshot.write(fileOf(user));
+            }catch (IOException ioe){
+                LOGGER.log(Level.WARNING, "Could not write the session snapshot of " + user, ioe);
+            }
+        }
+    }
+
+    /**
+     * Drops the snapshot of the user, for example when a restored session turns out to be logged out on the server.
+     * @param user is the name the snapshot was stored under.
+     */
+    public void invalidate(String user){
+        snapshots.remove(user);
+        if(directory != null){
+            try {
+                Files.deleteIfExists(fileOf(user));
+            }catch (IOException ioe){
+                LOGGER.log(Level.WARNING, "Could not delete the session snapshot of " + user, ioe);
+            }
+        }
+    }
+
+    /**
+     *
+     * @param driver is the driver to log in.
+     * @param user is the name the snapshot is stored under.
+     * @param login logs the user in on the driver. It runs when there is no usable snapshot.
+     * @return true if a snapshot was restored, false if the login ran.
+     */
+    public boolean restoreOrLogin(WebDriver driver, String user, Consumer<WebDriver> login){
+        return restoreOrLogin(driver, user, login, null);
+    }
+
+    /**
+     *
+     * @param driver is the driver to log in.
+     * @param user is the name the snapshot is stored under.
+     * @param login logs the user in on the driver. It runs when there is no usable snapshot.
+     * @param loggedIn tells whether a restored session is really logged in, or null to trust the snapshot.
+     *                 When it says no, the snapshot is dropped and the login runs.
+     * @return true if a snapshot was restored, false if the login ran.
+     */
+    public boolean restoreOrLogin(WebDriver driver, String user, Consumer<WebDriver> login, Predicate<WebDriver> loggedIn){
+        Object lock = locks.computeIfAbsent(user, key -> new Object());
+        synchronized (lock){
+            SessionSnapshot snapshot = get(user);
+            if(snapshot != null){
+                snapshot.restore(driver);
+                if(loggedIn == null || loggedIn.test(driver)){
+                    LOGGER.fine("Restored the session of " + user + " from " + snapshot.getOrigin());
+                    return true;
+                }
+                LOGGER.info("The restored session of " + user + " is not logged in, logging in again.");
+                invalidate(user);
+            }
+            login.accept(driver);
+            put(user, SessionSnapshot.capture(driver));
+            return false;
+        }
+    }
+
+    private SessionSnapshot load(String user){
+        try {
+            SessionSnapshot snapshot = SessionSnapshot.read(fileOf(user));
+            SessionSnapshot known = snapshots.putIfAbsent(user, snapshot);
+            return known != null ? known : snapshot;
+        }catch (NoSuchFileException nsfe){
+            return null;
+        }catch (IOException ioe){
+            LOGGER.log(Level.WARNING, "Could not read the session snapshot of " + user, ioe);
+            return null;
+        }
+    }
+
+    private Path fileOf(String user){
+        // keep names readable but unique: characters a file system may not like are replaced, the hash tells them apart.
+        String safe = user.replaceAll("[^A-Za-z0-9._-]", "_");
+        return directory.resolve(safe + "-" + Integer.toHexString(user.hashCode()) + ".json.gz");
+    }
+}
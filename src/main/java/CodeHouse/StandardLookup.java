@@ -0,0 +1,27 @@
+package CodeHouse;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+
+/**
+ * The lookups offered as constants of {@link ElementLookup}.
+ */
+enum StandardLookup implements ElementLookup {
+
+    DEFAULT, CACHE_ALL, NO_CACHE;
+
+    @Override
+    public WebElement find(Page page, By locator, boolean cacheLookup){
+        if(this == CACHE_ALL || (this == DEFAULT && cacheLookup)){
+            return page.findCachedElement(locator);
+        }
+        return page.getDriver().findElement(locator);
+    }
+
+    @Override
+    public List<WebElement> findAll(Page page, By locator){
+        return page.getDriver().findElements(locator);
+    }
+}
@@ -0,0 +1,241 @@
+package CodeHouse;
+
+import org.openqa.selenium.ElementNotInteractableException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Checks a condition against the driver until it is met, with the backoff of a {@link WaitPolicy}.
+ * A condition is met when it returns something other than null or false.
+ * Element lookups that fail with NotFoundException or StaleElementReferenceException are retried.
+ * So are elements that exist but are not interactable yet. Any other error, such as an invalid selector
+ * or a dead session, cannot be fixed by waiting and ends the wait at once.
+ * Every wait is reported to the registered {@link WaitListener}s.
+ * {@link PageCondition}s are polled too unless the mode is {@link WaitMode#OBSERVER}, in which case the page
+ * watches them and answers in one round trip.
+ */
+public class WaitEngine {
+
+    private static final long SCRIPT_TIMEOUT_MARGIN_MILLIS = 5000;
+
+    private final WebDriver driver;
+    private final PageSession session;
+    private final List<WaitListener> listeners = new CopyOnWriteArrayList<WaitListener>();
+    private volatile WaitPolicy defaultPolicy = WaitPolicy.defaults();
+    private volatile WaitMode mode = WaitMode.POLLING;
+    private volatile WaitRecord lastRecord;
+    private long scriptTimeoutMillis;
+
+    /**
+     *
+     * @param driver is the driver passed to the conditions.
+     */
+    public WaitEngine(WebDriver driver){
+        this.driver = driver;
+        this.session = null;
+    }
+
+    /**
+     * Shares the script timeout bookkeeping of the session with its other async scripts.
+     * @param session is the session whose driver is passed to the conditions.
+     */
+    WaitEngine(PageSession session){
+        this.driver = session.getDriver();
+        this.session = session;
+    }
+
+    /**
+     *
+     * @param defaultPolicy is the policy used by waits that do not bring their own.
+     */
+    public void setDefaultPolicy(WaitPolicy defaultPolicy){
+        this.defaultPolicy = defaultPolicy;
+    }
+
+    /**
+     *
+     * @return the policy used by waits that do not bring their own.
+     */
+    public WaitPolicy getDefaultPolicy(){
+        return defaultPolicy;
+    }
+
+    /**
+     *
+     * @param mode is how {@link PageCondition}s are waited for.
+     */
+    public void setMode(WaitMode mode){
+        this.mode = mode;
+    }
+
+    public WaitMode getMode(){
+        return mode;
+    }
+
+    /**
+     *
+     * @param listener is notified after every wait.
+     */
+    public void addListener(WaitListener listener){
+        listeners.add(listener);
+    }
+
+    /**
+     *
+     * @param listener is the listener to remove.
+     */
+    public void removeListener(WaitListener listener){
+        listeners.remove(listener);
+    }
+
+    /**
+     *
+     * @return the record of the last finished wait, or null.
+     */
+    public WaitRecord getLastRecord(){
+        return lastRecord;
+    }
+
+    /**
+     * Waits with the default policy.
+     * @param description names the condition in errors and records.
+     * @param condition is checked until it returns something other than null or false.
+     * @param <T> is the type returned by the condition.
+     * @return the value returned by the condition.
+     */
+    public <T> T until(String description, Function<? super WebDriver, T> condition){
+        return until(description, condition, defaultPolicy);
+    }
+
+    /**
+     *
+     * @param description names the condition in errors and records.
+     * @param condition is checked until it returns something other than null or false.
+     * @param policy is the timeout and backoff of this wait.
+     * @param <T> is the type returned by the condition.
+     * @return the value returned by the condition.
+     * @throws TimeoutException if the condition is not met in time.
+     */
+    public <T> T until(String description, Function<? super WebDriver, T> condition, WaitPolicy policy){
+        long start = System.currentTimeMillis();
+        long deadline = start + policy.getTimeoutMillis();
+        long poll = policy.getInitialPollMillis();
+        int attempts = 0;
+        RuntimeException lastError = null;
+        while (true) {
+            attempts++;
+            try {
+                T value = condition.apply(driver);
+                if(value != null && !Boolean.FALSE.equals(value)){
+                    finish(description, WaitRecord.Outcome.SATISFIED, start, attempts);
+                    return value;
+                }
+            }catch (NotFoundException | StaleElementReferenceException retryable){
+                lastError = retryable;
+            }catch (RuntimeException hard){
+                if(!isRetryable(hard)){
+                    finish(description, WaitRecord.Outcome.FAILED, start, attempts);
+                    throw hard;
+                }
+                lastError = hard;
+            }
+            long remaining = deadline - System.currentTimeMillis();
+            if(remaining <= 0 || attempts >= policy.getMaxAttempts()){
+                finish(description, WaitRecord.Outcome.TIMED_OUT, start, attempts);
+                throw new TimeoutException("Expected condition failed: waiting for " + description + " (tried "
+                        + attempts + " time(s) over " + (System.currentTimeMillis() - start) + " ms with " + policy + ")", lastError);
+            }
+            sleep(Math.min(poll, remaining));
+            poll = policy.nextPoll(poll);
+        }
+    }
+
+    /**
+     * Waits for a page condition with the default policy.
+     * @param condition is the condition to wait for.
+     */
+    public void until(PageCondition condition){
+        until(condition, defaultPolicy);
+    }
+
+    /**
+     * In observer mode the page is asked once and answers when the condition holds or the timeout passes.
+     * When the page cannot answer, because the element went stale, the check failed or the driver refused
+     * the async script, the rest of the timeout is spent polling.
+     * @param condition is the condition to wait for.
+     * @param policy is the timeout of the wait, and the backoff when polling.
+     * @throws TimeoutException if the condition is not met in time.
+     */
+    public void until(PageCondition condition, WaitPolicy policy){
+        if(mode == WaitMode.POLLING || !(driver instanceof JavascriptExecutor)){
+            until(condition.getDescription(), condition.getFallback(), policy);
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Object result;
+        try {
+            ensureScriptTimeout(policy.getTimeoutMillis() + SCRIPT_TIMEOUT_MARGIN_MILLIS);
+            result = ((JavascriptExecutor) driver).executeAsyncScript(PageCondition.OBSERVE_SCRIPT,
+                    condition.getElement(), condition.getKind(), condition.getExpected(), policy.getTimeoutMillis());
+        }catch (WebDriverException wde){
+            result = null;
+        }
+        if(Boolean.TRUE.equals(result)){
+            finish(condition.getDescription(), WaitRecord.Outcome.SATISFIED, start, 1);
+            return;
+        }
+        if(Boolean.FALSE.equals(result)){
+            finish(condition.getDescription(), WaitRecord.Outcome.TIMED_OUT, start, 1);
+            throw new TimeoutException("Expected condition failed: waiting for " + condition.getDescription()
+                    + " (observed in the page for " + (System.currentTimeMillis() - start) + " ms)");
+        }
+        long remaining = Math.max(0, policy.getTimeoutMillis() - (System.currentTimeMillis() - start));
+        until(condition.getDescription(), condition.getFallback(), policy.withTimeout(remaining));
+    }
+
+    /**
+     * Elements that exist but cannot be used yet are worth another check; any other error fails the wait at once.
+     */
+    static boolean isRetryable(RuntimeException e){
+        return e instanceof ElementNotInteractableException;
+    }
+
+    private void ensureScriptTimeout(long millis){
+        if(session != null){
+            session.ensureScriptTimeout(millis);
+            return;
+        }
+        synchronized (this){
+            if(millis > scriptTimeoutMillis){
+                driver.manage().timeouts().setScriptTimeout(millis, TimeUnit.MILLISECONDS);
+                scriptTimeoutMillis = millis;
+            }
+        }
+    }
+
+    private void finish(String description, WaitRecord.Outcome outcome, long start, int attempts){
+        WaitRecord record = new WaitRecord(description, outcome, System.currentTimeMillis() - start, attempts);
+        lastRecord = record;
+        for(WaitListener listener : listeners){
+            listener.onWaitFinished(record);
+        }
+    }
+
+    private static void sleep(long millis){
+        try {
+            Thread.sleep(millis);
+        }catch (InterruptedException ie){
+            Thread.currentThread().interrupt();
+            throw new WebDriverException("Interrupted while waiting", ie);
+        }
+    }
+}
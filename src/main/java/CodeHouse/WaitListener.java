@@ -0,0 +1,13 @@
+package CodeHouse;
+
+/**
+ * Receives a {@link WaitRecord} after every wait of a {@link WaitEngine}.
+ */
+public interface WaitListener {
+
+    /**
+     *
+     * @param record describes the finished wait.
+     */
+    void onWaitFinished(WaitRecord record);
+}
@@ -0,0 +1,14 @@
+package CodeHouse;
+
+/**
+ * How a {@link WaitEngine} waits for a {@link PageCondition}.
+ */
+public enum WaitMode {
+    /** the condition is checked from the JVM, one round trip per check, with the backoff of the {@link WaitPolicy}. */
+    POLLING,
+    /**
+     * the page watches the condition with MutationObserver, IntersectionObserver and DOM events and answers
+     * as soon as it holds, in one executeAsyncScript call. Falls back to polling when the page cannot answer.
+     */
+    OBSERVER
+}
@@ -0,0 +1,112 @@
+package CodeHouse;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How long and how often a {@link WaitEngine} checks a condition.
+ * The first check is immediate. The pause between checks starts at the initial poll and grows by the
+ * multiplier after every failed check, up to the max poll. Policies are immutable; the with* methods return copies.
+ */
+public class WaitPolicy {
+
+    private static final WaitPolicy DEFAULTS = new WaitPolicy(TimeUnit.SECONDS.toMillis(30), 50, 1000, 1.5, Integer.MAX_VALUE);
+
+    private final long timeoutMillis;
+    private final long initialPollMillis;
+    private final long maxPollMillis;
+    private final double multiplier;
+    private final int maxAttempts;
+
+    private WaitPolicy(long timeoutMillis, long initialPollMillis, long maxPollMillis, double multiplier, int maxAttempts){
+        if(timeoutMillis < 0 || initialPollMillis < 0 || maxPollMillis < initialPollMillis || multiplier < 1 || maxAttempts < 1){
+            throw new IllegalArgumentException("Invalid wait policy : timeout=" + timeoutMillis + " initialPoll=" + initialPollMillis
+                    + " maxPoll=" + maxPollMillis + " multiplier=" + multiplier + " maxAttempts=" + maxAttempts);
+        }
+        this.timeoutMillis = timeoutMillis;
+        this.initialPollMillis = initialPollMillis;
+        this.maxPollMillis = maxPollMillis;
+        this.multiplier = multiplier;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     *
+     * @return 30 seconds timeout, polling after 50 ms and backing off by 1.5 up to one second.
+     */
+    public static WaitPolicy defaults(){
+        return DEFAULTS;
+    }
+
+    /**
+     *
+     * @param timeoutMillis is the time after which the wait gives up.
+     * @return a copy of this policy with the new timeout.
+     */
+    public WaitPolicy withTimeout(long timeoutMillis){
+        return new WaitPolicy(timeoutMillis, initialPollMillis, maxPollMillis, multiplier, maxAttempts);
+    }
+
+    /**
+     *
+     * @param timeInSeconds is the time after which the wait gives up.
+     * @return a copy of this policy with the new timeout.
+     */
+    public WaitPolicy withTimeoutInSeconds(int timeInSeconds){
+        return withTimeout(TimeUnit.SECONDS.toMillis(timeInSeconds));
+    }
+
+    /**
+     *
+     * @param initialPollMillis is the pause after the first failed check.
+     * @param maxPollMillis is the longest pause between two checks.
+     * @param multiplier is the factor the pause grows by after each failed check. Use 1 for a fixed interval.
+     * @return a copy of this policy with the new backoff.
+     */
+    public WaitPolicy withBackoff(long initialPollMillis, long maxPollMillis, double multiplier){
+        return new WaitPolicy(timeoutMillis, initialPollMillis, maxPollMillis, multiplier, maxAttempts);
+    }
+
+    /**
+     *
+     * @param maxAttempts is the maximum number of checks before the wait gives up, even if time is left.
+     * @return a copy of this policy with the new attempt limit.
+     */
+    public WaitPolicy withMaxAttempts(int maxAttempts){
+        return new WaitPolicy(timeoutMillis, initialPollMillis, maxPollMillis, multiplier, maxAttempts);
+    }
+
+    public long getTimeoutMillis(){
+        return timeoutMillis;
+    }
+
+    public long getInitialPollMillis(){
+        return initialPollMillis;
+    }
+
+    public long getMaxPollMillis(){
+        return maxPollMillis;
+    }
+
+    public double getMultiplier(){
+        return multiplier;
+    }
+
+    public int getMaxAttempts(){
+        return maxAttempts;
+    }
+
+    /**
+     *
+     * @param previousPollMillis is the pause used before the last check.
+     * @return the pause to use before the next check.
+     */
+    long nextPoll(long previousPollMillis){
+        return Math.min(maxPollMillis, (long) Math.ceil(previousPollMillis * multiplier));
+    }
+
+    @Override
+    public String toString(){
+        return "WaitPolicy{timeout=" + timeoutMillis + "ms, poll=" + initialPollMillis + ".." + maxPollMillis
+                + "ms x" + multiplier + (maxAttempts == Integer.MAX_VALUE ? "" : ", maxAttempts=" + maxAttempts) + "}";
+    }
+}
@@ -0,0 +1,56 @@
+package CodeHouse;
+
+/**
+ * What happened during one wait of a {@link WaitEngine}.
+ */
+public class WaitRecord {
+
+    /**
+     * How a wait ended.
+     */
+    public enum Outcome {
+        /** the condition was met. */
+        SATISFIED,
+        /** the timeout or the attempt limit was reached. */
+        TIMED_OUT,
+        /** the condition threw an error that cannot go away by waiting. */
+        FAILED
+    }
+
+    private final String description;
+    private final Outcome outcome;
+    private final long elapsedMillis;
+    private final int attempts;
+
+    WaitRecord(String description, Outcome outcome, long elapsedMillis, int attempts){
+        this.description = description;
+        this.outcome = outcome;
+        this.elapsedMillis = elapsedMillis;
+        this.attempts = attempts;
+    }
+
+    public String getDescription(){
+        return description;
+    }
+
+    public Outcome getOutcome(){
+        return outcome;
+    }
+
+    public long getElapsedMillis(){
+        return elapsedMillis;
+    }
+
+    /**
+     *
+     * @return the number of times the condition was checked.
+     */
+    public int getAttempts(){
+        return attempts;
+    }
+
+    @Override
+    public String toString(){
+        return "Wait for " + description + " " + outcome + " after " + elapsedMillis + " ms and " + attempts + " attempt(s)";
+    }
+}
@@ -0,0 +1,61 @@
+package CodeHouse;
+
+/**
+ * What a {@link WindowRegistry} knows about one browser window.
+ * Title and URL are the values from the last time the registry switched to the window.
+ */
+public class WindowInfo {
+
+    private final String handle;
+    private final String title;
+    private final String url;
+    private final String opener;
+
+    WindowInfo(String handle, String title, String url, String opener){
+        this.handle = handle;
+        this.title = title;
+        this.url = url;
+        this.opener = opener;
+    }
+
+    public String getHandle(){
+        return handle;
+    }
+
+    /**
+     *
+     * @return the cached title, or null if the registry never switched to the window.
+     */
+    public String getTitle(){
+        return title;
+    }
+
+    /**
+     *
+     * @return the cached URL, or null if the registry never switched to the window.
+     */
+    public String getUrl(){
+        return url;
+    }
+
+    /**
+     *
+     * @return the handle of the window that opened this one, or null if it is not known.
+     */
+    public String getOpener(){
+        return opener;
+    }
+
+    /**
+     *
+     * @return true once title and URL have been read.
+     */
+    public boolean isDescribed(){
+        return url != null;
+    }
+
+    @Override
+    public String toString(){
+        return handle + " \"" + title + "\" " + url + (opener != null ? " opened by " + opener : "");
+    }
+}
@@ -0,0 +1,255 @@
+package CodeHouse;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps track of the open windows of a session with their title, URL and opener, so that switching to a window
+ * takes a fixed number of driver calls instead of one call per open window.
+ * Switching to a handle is one switch plus one script that reads title and URL. Switching by title or URL pattern
+ * uses the cached values, and only visits windows it has never seen when nothing cached matches.
+ * New windows are detected with a single getWindowHandles call.
+ * Switch windows through the registry, or call {@link #invalidate()} after switching or closing windows directly.
+ */
+public class WindowRegistry {
+
+    private static final String DESCRIBE_SCRIPT =
+            "try { window.__codeBreezeHandle = arguments[0]; } catch (e) {}\n" +
+            "var opener = null;\n" +
+            "try { opener = window.opener && window.opener.__codeBreezeHandle || null; } catch (e) {}\n" +
+            "return [document.title, location.href, opener];";
+
+    private final WebDriver driver;
+    private final Map<String, WindowInfo> windows = new LinkedHashMap<String, WindowInfo>();
+    private String current;
+    private boolean synced;
+
+    /**
+     *
+     * @param driver is the driver whose windows are tracked.
+     */
+    public WindowRegistry(WebDriver driver){
+        this.driver = driver;
+    }
+
+    /**
+     * Reads the open handles in one call, adds the new ones and forgets the closed ones.
+     * @return the handles of windows that were not known before, in the order the driver reports them.
+     */
+    public synchronized List<String> detectNewWindows(){
+        if(current == null){
+            try {
+                current = driver.getWindowHandle();
+            }catch (NoSuchWindowException nswe){
+                // the window we were on is closed; there is no current window until the next switch.
+            }
+        }
+        Set<String> handles = driver.getWindowHandles();
+        windows.keySet().retainAll(handles);
+        List<String> added = new ArrayList<String>();
+        for(String handle : handles){
+            if(!windows.containsKey(handle)){
+                // until the window tells otherwise, it was opened by the window we were on.
+                windows.put(handle, new WindowInfo(handle, null, null, synced ? current : null));
+                added.add(handle);
+            }
+        }
+        synced = true;
+        return added;
+    }
+
+    /**
+     *
+     * @param timeoutMillis is how long to wait for a new window.
+     * @return the handle of the first window that was not known before.
+     * @throws TimeoutException if no window opened in time.
+     */
+    public synchronized String awaitNewWindow(long timeoutMillis){
+        sync();
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        long pause = 50;
+        while(true){
+            List<String> added = detectNewWindows();
+            if(!added.isEmpty()){
+                return added.get(0);
+            }
+            if(System.currentTimeMillis() >= deadline){
+                throw new TimeoutException("No new window opened within " + timeoutMillis + " ms");
+            }
+            try {
+                Thread.sleep(Math.min(pause, Math.max(1, deadline - System.currentTimeMillis())));
+            }catch (InterruptedException ie){
+                Thread.currentThread().interrupt();
+                throw new WebDriverException("Interrupted while waiting for a new window", ie);
+            }
+            pause = Math.min(pause * 2, 500);
+        }
+    }
+
+    /**
+     *
+     * @param handle is the window to switch to.
+     * @return the refreshed info of the window.
+     * @throws NoSuchWindowException if the window is closed.
+     */
+    public synchronized WindowInfo switchTo(String handle){
+        sync();
+        try {
+            driver.switchTo().window(handle);
+        }catch (NoSuchWindowException nswe){
+            windows.remove(handle);
+            throw nswe;
+        }
+        current = handle;
+        return describe(handle);
+    }
+
+    /**
+     *
+     * @param titlePattern is matched against the whole title.
+     * @return the info of the window switched to.
+     * @throws NoSuchWindowException if no open window has a matching title.
+     */
+    public synchronized WindowInfo switchToTitle(Pattern titlePattern){
+        return switchToMatching(titlePattern, true);
+    }
+
+    /**
+     *
+     * @param urlPattern is matched against the whole URL.
+     * @return the info of the window switched to.
+     * @throws NoSuchWindowException if no open window has a matching URL.
+     */
+    public synchronized WindowInfo switchToUrl(Pattern urlPattern){
+        return switchToMatching(urlPattern, false);
+    }
+
+    /**
+     *
+     * @return the handle of the window the registry last switched to.
+     */
+    public synchronized String getCurrentHandle(){
+        sync();
+        return current;
+    }
+
+    /**
+     *
+     * @param handle is a window handle.
+     * @return the cached info of the window, or null if the window is not known.
+     */
+    public synchronized WindowInfo getInfo(String handle){
+        return windows.get(handle);
+    }
+
+    /**
+     *
+     * @return the cached info of all known windows, in the order they were first seen.
+     */
+    public synchronized List<WindowInfo> getWindows(){
+        return new ArrayList<WindowInfo>(windows.values());
+    }
+
+    /**
+     * Makes the next call read the open handles and the current window again.
+     */
+    public synchronized void invalidate(){
+        synced = false;
+        current = null;
+    }
+
+    private void sync(){
+        if(!synced){
+            current = null;
+            detectNewWindows();
+        }
+    }
+
+    private WindowInfo switchToMatching(Pattern pattern, boolean byTitle){
+        sync();
+        String start = current;
+        for(WindowInfo info : new ArrayList<WindowInfo>(windows.values())){
+            if(info.isDescribed() && matches(pattern, info, byTitle)){
+                WindowInfo switched = trySwitchTo(info.getHandle());
+                if(switched != null && matches(pattern, switched, byTitle)){
+                    return switched;
+                }
+            }
+        }
+        // nothing cached matches: look at the windows that were never described, then at the rest.
+        List<WindowInfo> candidates = new ArrayList<WindowInfo>();
+        detectNewWindows();
+        for(WindowInfo info : windows.values()){
+            if(!info.isDescribed()){
+                candidates.add(0, info);
+            }else {
+                candidates.add(info);
+            }
+        }
+        for(WindowInfo info : candidates){
+            WindowInfo switched = trySwitchTo(info.getHandle());
+            if(switched != null && matches(pattern, switched, byTitle)){
+                return switched;
+            }
+        }
+        // the search visited other windows; a caller that handles the error goes on in the window it started in.
+        restore(start);
+        throw new NoSuchWindowException("No open window has a " + (byTitle ? "title" : "URL") + " matching " + pattern);
+    }
+
+    private void restore(String handle){
+        if(handle == null || handle.equals(current)){
+            return;
+        }
+        try {
+            driver.switchTo().window(handle);
+            current = handle;
+        }catch (NoSuchWindowException nswe){
+            windows.remove(handle);
+        }
+    }
+
+    private WindowInfo trySwitchTo(String handle){
+        try {
+            return switchTo(handle);
+        }catch (NoSuchWindowException nswe){
+            return null;
+        }
+    }
+
+    private static boolean matches(Pattern pattern, WindowInfo info, boolean byTitle){
+        String value = byTitle ? info.getTitle() : info.getUrl();
+        return value != null && pattern.matcher(value).matches();
+    }
+
+    private WindowInfo describe(String handle){
+        WindowInfo known = windows.get(handle);
+        String opener = known != null ? known.getOpener() : null;
+        String title = null;
+        String url = null;
+        if(driver instanceof JavascriptExecutor){
+            List<?> values = (List<?>) ((JavascriptExecutor) driver).executeScript(DESCRIBE_SCRIPT, handle);
+            title = (String) values.get(0);
+            url = (String) values.get(1);
+            if(values.get(2) != null){
+                opener = (String) values.get(2);
+            }
+        }else {
+            title = driver.getTitle();
+            url = driver.getCurrentUrl();
+        }
+        WindowInfo info = new WindowInfo(handle, title, url, opener);
+        windows.put(handle, info);
+        return info;
+    }
+}
@@ -0,0 +1,40 @@
+package CodeHouse;
+
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks on which threads the futures of AsyncPage complete.
+ */
+public class AsyncPageTest {
+
+    @Test
+    public void stagesChainedOnADelayRunOnTheExecutor() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "async-page-test"));
+        try {
+            AsyncPage page = new AsyncPage(new Page(new PageSession(driver())), executor);
+            String thread = page.delay(20).thenApply(ignored -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+            Assert.assertEquals(thread, "async-page-test");
+        }finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static WebDriver driver(){
+        return (WebDriver) Proxy.newProxyInstance(AsyncPageTest.class.getClassLoader(), new Class<?>[]{WebDriver.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()){
+                        case "equals": return proxy == args[0];
+                        case "hashCode": return System.identityHashCode(proxy);
+                        case "toString": return "driver";
+                        default: throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,160 @@
+package CodeHouse;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks that every value of the command log reads back as it was written.
+ */
+public class CommandCodecTest {
+
+    private static final Object ELEMENT = new Object();
+
+    private final CommandCodec codec = new CommandCodec(new CommandCodec.Handles() {
+        public boolean write(Object value, DataOutputStream out) throws IOException {
+            if(value != ELEMENT){
+                return false;
+            }
+            out.writeByte(CommandCodec.ELEMENT);
+            CommandCodec.writeVarLong(out, 7);
+            return true;
+        }
+
+        public Object read(int tag, DataInputStream in) throws IOException {
+            Assert.assertEquals(tag, CommandCodec.ELEMENT);
+            Assert.assertEquals(CommandCodec.readVarLong(in), 7);
+            return ELEMENT;
+        }
+    });
+
+    @Test
+    public void varLongs() throws IOException {
+        for(long value : new long[]{0, 1, -1, 63, -64, 64, -65, 127, 128, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE}){
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            CommandCodec.writeVarLong(new DataOutputStream(bytes), value);
+            Assert.assertEquals(CommandCodec.readVarLong(input(bytes)), value);
+        }
+        Assert.assertEquals(encodedLength(63), 1);
+        Assert.assertEquals(encodedLength(-64), 1);
+        Assert.assertEquals(encodedLength(64), 2);
+        Assert.assertEquals(encodedLength(Long.MIN_VALUE), 10);
+    }
+
+    @Test
+    public void strings() throws IOException {
+        for(String value : new String[]{null, "", "a", "\u00fcmlaut and \u6f22\u5b57", repeat('x', 300)}){
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            CommandCodec.writeString(new DataOutputStream(bytes), value);
+            Assert.assertEquals(CommandCodec.readString(input(bytes)), value);
+        }
+    }
+
+    @Test
+    public void scalars(){
+        for(Object value : new Object[]{null, true, false, 0, -5, Integer.MAX_VALUE, 5L, Long.MIN_VALUE, 1.5, "text"}){
+            Assert.assertEquals(roundTrip(value), value);
+        }
+        Assert.assertEquals(roundTrip((short) 3), 3);
+        Assert.assertEquals(roundTrip(2.5f), 2.5);
+        Assert.assertEquals(roundTrip(new StringBuilder("built")), "built");
+        Assert.assertEquals((byte[]) roundTrip(new byte[]{1, 2, 3}), new byte[]{1, 2, 3});
+    }
+
+    @Test
+    public void collections(){
+        Assert.assertEquals(roundTrip(Arrays.asList(1, "two", null, Arrays.asList(3L))), Arrays.asList(1, "two", null, Arrays.asList(3L)));
+        Assert.assertEquals(roundTrip(new Object[]{"a", 1}), Arrays.asList("a", 1));
+        Assert.assertEquals(roundTrip(new LinkedHashSet<Object>(Arrays.asList("b", "a"))), new LinkedHashSet<Object>(Arrays.asList("b", "a")));
+        Map<String, Object> map = new LinkedHashMap<String, Object>();
+        map.put("x", 1);
+        map.put("nested", Collections.singletonMap("y", true));
+        Assert.assertEquals(roundTrip(map), map);
+        Assert.assertEquals(roundTrip(Collections.singletonMap(3, "number key")), Collections.singletonMap("3", "number key"));
+    }
+
+    @Test
+    public void geometry(){
+        Assert.assertEquals(roundTrip(new Dimension(800, 600)), new Dimension(800, 600));
+        Assert.assertEquals(roundTrip(new Point(-10, 20)), new Point(-10, 20));
+        Rectangle rectangle = (Rectangle) roundTrip(new Rectangle(1, 2, 30, 40));
+        Assert.assertEquals(rectangle.getX(), 1);
+        Assert.assertEquals(rectangle.getY(), 2);
+        Assert.assertEquals(rectangle.getHeight(), 30);
+        Assert.assertEquals(rectangle.getWidth(), 40);
+    }
+
+    @Test
+    public void cookies(){
+        Date expiry = new Date(TimeUnit.SECONDS.toMillis(1893456000L));
+        Cookie cookie = (Cookie) roundTrip(new Cookie("session", "abc", "example.com", "/shop", expiry, true, true));
+        Assert.assertEquals(cookie.getName(), "session");
+        Assert.assertEquals(cookie.getValue(), "abc");
+        Assert.assertEquals(cookie.getDomain(), "example.com");
+        Assert.assertEquals(cookie.getPath(), "/shop");
+        Assert.assertEquals(cookie.getExpiry(), expiry);
+        Assert.assertTrue(cookie.isSecure());
+        Assert.assertTrue(cookie.isHttpOnly());
+
+        Cookie session = (Cookie) roundTrip(new Cookie("plain", "v"));
+        Assert.assertNull(session.getExpiry());
+        Assert.assertNull(session.getDomain());
+        Assert.assertFalse(session.isSecure());
+    }
+
+    @Test
+    public void locatorsAndOtherValuesAreReadAsText(){
+        Assert.assertEquals(roundTrip(By.id("user")), "By.id: user");
+        Assert.assertEquals(roundTrip(TimeUnit.SECONDS), "SECONDS");
+        Assert.assertEquals(roundTrip(new Object()), Object.class.getName());
+    }
+
+    @Test
+    public void commands(){
+        Object[] command = codec.decodeCommand(codec.encodeCommand(ELEMENT, new Object[]{"keys", Arrays.asList(ELEMENT), null}));
+        Assert.assertEquals(command.length, 4);
+        Assert.assertSame(command[0], ELEMENT);
+        Assert.assertEquals(command[1], "keys");
+        Assert.assertSame(((List<?>) command[2]).get(0), ELEMENT);
+        Assert.assertNull(command[3]);
+        Assert.assertEquals(codec.decodeCommand(codec.encodeCommand(null, new Object[0])), new Object[]{null});
+    }
+
+    private Object roundTrip(Object value){
+        return codec.decode(codec.encode(value));
+    }
+
+    private static DataInputStream input(ByteArrayOutputStream bytes){
+        return new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    private static int encodedLength(long value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CommandCodec.writeVarLong(new DataOutputStream(bytes), value);
+        return bytes.size();
+    }
+
+    private static String repeat(char c, int times){
+        char[] chars = new char[times];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+}
@@ -0,0 +1,140 @@
+package CodeHouse;
+
+import org.openqa.selenium.InvalidSelectorException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Checks every combinator, attribute operator and pseudo class of {@link CssToXPath} against a small {@link DomSnapshot}.
+ */
+public class CssToXPathTest {
+
+    private DomSnapshot snapshot;
+
+    @BeforeClass
+    public void capture(){
+        Object html = element("html", attributes(),
+                element("body", attributes(),
+                        element("ul", attributes("id", "list", "class", "items"),
+                                element("li", attributes("id", "l1", "class", "a first", "data-x", "one two"), "first"),
+                                element("li", attributes("id", "l2", "lang", "en-US"), "second"),
+                                element("p", attributes("id", "p1", "title", "it's \"x\""), "para"),
+                                element("li", attributes("id", "l3", "href", "/doc/page.pdf"), "third"),
+                                element("li", attributes("id", "l4"))),
+                        element("div", attributes("id", "d1"),
+                                element("span", attributes("id", "s1")),
+                                element("em", attributes("id", "e1")),
+                                element("span", attributes("id", "s2"))),
+                        element("a@b", attributes("id", "odd"),
+                                element("i", attributes("id", "i1"), "inside"))));
+        snapshot = DomSnapshot.capture(new JavascriptExecutor() {
+            public Object executeScript(String script, Object... args){
+                return html;
+            }
+
+            public Object executeAsyncScript(String script, Object... args){
+                throw new UnsupportedOperationException();
+            }
+        });
+    }
+
+    @Test
+    public void simpleSelectors(){
+        assertIds("li", "l1", "l2", "l3", "l4");
+        assertIds("ul > *", "l1", "l2", "p1", "l3", "l4");
+        assertIds("#d1", "d1");
+        assertIds(".first", "l1");
+        assertIds("li.a.first", "l1");
+        assertIds(".a.missing");
+    }
+
+    @Test
+    public void attributeOperators(){
+        assertIds("[lang]", "l2");
+        assertIds("[lang='en-US']", "l2");
+        assertIds("[lang=\"en-US\"]", "l2");
+        assertIds("[lang=en]");
+        assertIds("[data-x~=two]", "l1");
+        assertIds("[data-x~=tw]");
+        assertIds("[lang|=en]", "l2");
+        assertIds("[lang|=e]");
+        assertIds("[href^='/doc']", "l3");
+        assertIds("[href$='.pdf']", "l3");
+        assertIds("[href$=pd]");
+        assertIds("[href*=page]", "l3");
+        assertIds("p[title=\"it's \\\"x\\\"\"]", "p1");
+    }
+
+    @Test
+    public void combinators(){
+        assertIds("body span", "s1", "s2");
+        assertIds("div > span", "s1", "s2");
+        assertIds("body > span");
+        assertIds("#s1 + em", "e1");
+        assertIds("#s1 + span");
+        assertIds("#s1 ~ span", "s2");
+        assertIds("#s2, #s1", "s1", "s2");
+    }
+
+    @Test
+    public void pseudoClasses(){
+        assertIds("ul > :first-child", "l1");
+        assertIds("ul > :last-child", "l4");
+        assertIds("i:only-child", "i1");
+        assertIds("li:only-child");
+        assertIds("ul > :nth-child(2)", "l2");
+        assertIds("ul > :nth-child(odd)", "l1", "p1", "l4");
+        assertIds("ul > :nth-child(even)", "l2", "l3");
+        assertIds("span:first-of-type", "s1");
+        assertIds("span:last-of-type", "s2");
+        assertIds("li:first-of-type", "l1");
+        assertIds("li:last-of-type", "l4");
+        assertIds("p:first-of-type", "p1");
+        assertIds("li:empty", "l4");
+        assertIds("div > :empty", "s1", "e1", "s2");
+        assertIds("li:not(.a)", "l2", "l3", "l4");
+        assertIds("ul > :not(li)", "p1");
+    }
+
+    @Test
+    public void elementsWithNamesThatAreNotXmlNames(){
+        Assert.assertEquals(snapshot.size(), 14);
+        Assert.assertEquals(snapshot.findElement("#odd").getTagName(), "a@b");
+        assertIds("#odd > i", "i1");
+        Assert.assertEquals(snapshot.findElement("#odd").getText(), "inside");
+    }
+
+    @Test
+    public void unsupportedSelectors(){
+        for(String css : new String[]{":first-of-type", "*:last-of-type", "li:hover", "li:nth-child(2n+1)", "[lang!=en]", "li >", "li )"}){
+            try {
+                CssToXPath.translate(css);
+                Assert.fail("Expected an InvalidSelectorException for " + css);
+            }catch (InvalidSelectorException expected){
+                Assert.assertTrue(expected.getMessage().contains(css), expected.getMessage());
+            }
+        }
+    }
+
+    private void assertIds(String css, String... ids){
+        List<String> found = new ArrayList<String>();
+        for(DomSnapshot.Node node : snapshot.findElements(css)){
+            found.add(node.getAttribute("id"));
+        }
+        Assert.assertEquals(found, Arrays.asList(ids), css);
+    }
+
+    private static List<Object> element(String tag, List<String> attributes, Object... children){
+        return Arrays.asList(tag, attributes, Arrays.asList(children), 0L, null);
+    }
+
+    private static List<String> attributes(String... namesAndValues){
+        return Arrays.asList(namesAndValues);
+    }
+}
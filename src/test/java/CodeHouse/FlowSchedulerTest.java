@@ -0,0 +1,53 @@
+package CodeHouse;
+
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks that FlowScheduler reports a result for every flow.
+ */
+public class FlowSchedulerTest {
+
+    @Test
+    public void flowsThatThrowErrorsFailWithoutStoppingTheWorker(){
+        PagePool pool = new PagePool(FlowSchedulerTest::driver, 1);
+        FlowScheduler scheduler = new FlowScheduler(pool, 1, new FlowHistory());
+        scheduler.setResetBetweenFlows(false);
+        Map<String, FlowScheduler.Flow> flows = new LinkedHashMap<String, FlowScheduler.Flow>();
+        flows.put("overflow", page -> {
+            throw new StackOverflowError();
+        });
+        flows.put("missingClass", page -> {
+            throw new NoClassDefFoundError("Missing");
+        });
+        flows.put("passing", page -> { });
+
+        List<FlowScheduler.FlowResult> results = scheduler.runAll(flows);
+        pool.close();
+
+        Assert.assertEquals(results.size(), 3);
+        Assert.assertTrue(results.get(0).getError() instanceof StackOverflowError, String.valueOf(results.get(0)));
+        Assert.assertTrue(results.get(1).getError() instanceof NoClassDefFoundError, String.valueOf(results.get(1)));
+        Assert.assertTrue(results.get(2).isPassed(), String.valueOf(results.get(2)));
+    }
+
+    private static WebDriver driver(){
+        return (WebDriver) Proxy.newProxyInstance(FlowSchedulerTest.class.getClassLoader(), new Class<?>[]{WebDriver.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()){
+                        case "equals": return proxy == args[0];
+                        case "hashCode": return System.identityHashCode(proxy);
+                        case "toString": return "driver";
+                        case "getWindowHandle": return "main";
+                        case "quit": return null;
+                        default: throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
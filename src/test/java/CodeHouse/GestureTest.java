@@ -0,0 +1,46 @@
+package CodeHouse;
+
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.Keys;
+import org.openqa.selenium.Platform;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * Checks how {@link Gesture} picks the shortcut modifier of the browser's platform.
+ */
+public class GestureTest {
+
+    @Test
+    public void macBrowsersUseCommand(){
+        Assert.assertEquals(Gesture.shortcutModifier(driver("platformName", "macOS")), Keys.COMMAND);
+        Assert.assertEquals(Gesture.shortcutModifier(driver("platform", Platform.SIERRA)), Keys.COMMAND);
+        Assert.assertEquals(Gesture.shortcutModifier(driver("platform", "MAC")), Keys.COMMAND);
+    }
+
+    @Test
+    public void otherBrowsersUseControl(){
+        Assert.assertEquals(Gesture.shortcutModifier(driver("platformName", "windows")), Keys.CONTROL);
+        Assert.assertEquals(Gesture.shortcutModifier(driver("platform", Platform.LINUX)), Keys.CONTROL);
+        Assert.assertEquals(Gesture.shortcutModifier(driver("platformName", "some new os")), Keys.CONTROL);
+        Assert.assertEquals(Gesture.shortcutModifier(driver(null, null)), Keys.CONTROL);
+    }
+
+    private static WebDriver driver(String capability, Object platform){
+        DesiredCapabilities capabilities = new DesiredCapabilities();
+        if(capability != null){
+            capabilities.setCapability(capability, platform);
+        }
+        return (WebDriver) Proxy.newProxyInstance(GestureTest.class.getClassLoader(), new Class<?>[]{WebDriver.class, HasCapabilities.class},
+                (proxy, method, args) -> {
+                    if(method.getName().equals("getCapabilities")){
+                        return capabilities;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,60 @@
+package CodeHouse;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks the bucket boundaries and percentiles of {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void smallLatenciesHaveTheirOwnBucket(){
+        for(int micros = 0; micros < 8; micros++){
+            Assert.assertEquals(LatencyHistogram.bucketOf(micros), micros);
+            Assert.assertEquals(LatencyHistogram.upperBoundOf(micros), micros);
+        }
+        Assert.assertEquals(LatencyHistogram.bucketOf(8), 8);
+        Assert.assertEquals(LatencyHistogram.bucketOf(9), 8);
+        Assert.assertEquals(LatencyHistogram.bucketOf(10), 9);
+    }
+
+    @Test
+    public void bucketsAreContiguous(){
+        int last = LatencyHistogram.bucketOf(Long.MAX_VALUE);
+        for(int bucket = 0; bucket < last; bucket++){
+            long upper = LatencyHistogram.upperBoundOf(bucket);
+            Assert.assertEquals(LatencyHistogram.bucketOf(upper), bucket, "upper bound of bucket " + bucket);
+            Assert.assertEquals(LatencyHistogram.bucketOf(upper + 1), bucket + 1, "first value after bucket " + bucket);
+        }
+        Assert.assertEquals(LatencyHistogram.bucketOf(Long.MAX_VALUE / 2), last);
+    }
+
+    @Test
+    public void bucketsAreAccurateToAQuarter(){
+        for(long micros = 1; micros < 1000000; micros += 1 + micros / 100){
+            long upper = LatencyHistogram.upperBoundOf(LatencyHistogram.bucketOf(micros));
+            Assert.assertTrue(upper >= micros && upper <= micros * 5 / 4, micros + " reported as " + upper);
+        }
+    }
+
+    @Test
+    public void snapshot(){
+        LatencyHistogram histogram = new LatencyHistogram();
+        for(int micros = 1; micros <= 100; micros++){
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(micros), micros % 10 == 0);
+        }
+        histogram.record(-5, false);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        Assert.assertEquals(snapshot.getCount(), 101);
+        Assert.assertEquals(snapshot.getErrors(), 10);
+        Assert.assertEquals(snapshot.getTotalMicros(), 5050);
+        Assert.assertEquals(snapshot.getMaxMicros(), 100);
+        Assert.assertEquals(snapshot.getPercentileMicros(50), 55);
+        Assert.assertEquals(snapshot.getPercentileMicros(99), 100);
+        Assert.assertEquals(snapshot.getPercentileMicros(100), 100);
+        Assert.assertEquals(new LatencyHistogram().snapshot().getPercentileMicros(99), 0);
+    }
+}
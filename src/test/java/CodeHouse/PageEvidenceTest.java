@@ -0,0 +1,101 @@
+package CodeHouse;
+
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * Checks that Page captures evidence for the errors its helpers throw, and not for the ones they only log.
+ */
+public class PageEvidenceTest {
+
+    private final List<String> captures = Collections.synchronizedList(new ArrayList<String>());
+    private PageSession session;
+    private EvidenceCollector collector;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        captures.clear();
+        WebDriver driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{WebDriver.class},
+                (proxy, method, args) -> {
+                    if(method.getDeclaringClass() == Object.class){
+                        return objectMethod(proxy, method, args);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        collector = new EvidenceCollector(Files.createTempDirectory("evidence"), 1, 1) {
+            @Override
+            public Future<Evidence> capture(WebDriver driver, String name){
+                captures.add(name);
+                return null;
+            }
+        };
+        session = new PageSession(driver);
+        session.setEvidenceCollector(collector);
+    }
+
+    @AfterMethod
+    public void tearDown(){
+        collector.close();
+    }
+
+    @Test
+    public void toleratedElementErrorsAreNotCaptured(){
+        new Page(session).deselectByValue(failing(new NoSuchElementException("gone")), "v");
+        Assert.assertEquals(captures, Collections.emptyList());
+    }
+
+    @Test
+    public void thrownElementErrorsAreCaptured(){
+        session.setExecutionPolicy(ExecutionPolicy.defaults().withElementErrorsTolerated(false));
+        try {
+            new Page(session).deselectByValue(failing(new NoSuchElementException("gone")), "v");
+            Assert.fail("Expected a NoSuchElementException");
+        }catch (NoSuchElementException expected){
+            Assert.assertEquals(captures, Arrays.asList("deselectByValue failed: NoSuchElementException"));
+        }
+    }
+
+    @Test
+    public void otherErrorsOfTolerantHelpersAreCaptured(){
+        try {
+            new Page(session).deselectByValue(failing(new WebDriverException("crashed")), "v");
+            Assert.fail("Expected a WebDriverException");
+        }catch (WebDriverException expected){
+            Assert.assertEquals(captures, Arrays.asList("deselectByValue failed: WebDriverException"));
+        }
+    }
+
+    private static WebElement failing(RuntimeException error){
+        return (WebElement) Proxy.newProxyInstance(PageEvidenceTest.class.getClassLoader(), new Class<?>[]{WebElement.class},
+                (proxy, method, args) -> {
+                    if(method.getDeclaringClass() == Object.class){
+                        return objectMethod(proxy, method, args);
+                    }
+                    throw error;
+                });
+    }
+
+    private static Object objectMethod(Object proxy, Method method, Object[] args){
+        switch (method.getName()){
+            case "equals": return proxy == args[0];
+            case "hashCode": return System.identityHashCode(proxy);
+            default: return "proxy";
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package CodeHouse;
+
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks that PagePool quits every browser it cannot reuse.
+ */
+public class PagePoolTest {
+
+    @Test
+    public void sessionsThatFailTheirResetAreQuit(){
+        AtomicInteger quits = new AtomicInteger();
+        PagePool pool = new PagePool(() -> driver(quits), 1);
+        pool.lease().close();
+
+        Assert.assertEquals(quits.get(), 1);
+        PoolMetrics metrics = pool.getMetrics();
+        Assert.assertEquals(metrics.getResetFailures(), 1);
+        Assert.assertEquals(metrics.getEvicted(), 1);
+        Assert.assertEquals(metrics.getIdle(), 0);
+        Assert.assertEquals(metrics.getLeased(), 0);
+        pool.close();
+    }
+
+    /**
+     * @return a driver whose browser state cannot be reset because of a bug outside the driver.
+     */
+    private static WebDriver driver(AtomicInteger quits){
+        return (WebDriver) Proxy.newProxyInstance(PagePoolTest.class.getClassLoader(), new Class<?>[]{WebDriver.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()){
+                        case "equals": return proxy == args[0];
+                        case "hashCode": return System.identityHashCode(proxy);
+                        case "toString": return "driver";
+                        case "getWindowHandle": return "main";
+                        case "quit":
+                            quits.incrementAndGet();
+                            return null;
+                        default: throw new IllegalStateException(method.getName() + " is not available");
+                    }
+                });
+    }
+}
@@ -0,0 +1,89 @@
+package CodeHouse;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.pool.PoolStats;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Checks that the commands of PooledHttpClientFactory reuse their connections, against a local stub of a driver server.
+ */
+public class PooledHttpClientFactoryTest {
+
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private HttpServer server;
+    private ExecutorService executor;
+    private URL url;
+    private PooledHttpClientFactory factory;
+
+    @BeforeMethod
+    public void start() throws IOException {
+        clientPorts.clear();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            byte[] body = "{\"status\":0,\"value\":null}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        executor = Executors.newFixedThreadPool(2);
+        server.setExecutor(executor);
+        server.start();
+        url = new URL("http://localhost:" + server.getAddress().getPort() + "/wd/hub");
+        factory = new PooledHttpClientFactory();
+    }
+
+    @AfterMethod
+    public void stop() throws IOException {
+        factory.close();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void sequentialCommandsShareOneConnection() throws IOException {
+        HttpClient client = factory.createClient(url);
+        for(int i = 0; i < 20; i++){
+            Assert.assertEquals(client.execute(new HttpRequest(HttpMethod.GET, "/status"), true).getStatus(), 200);
+        }
+        client.close();
+        factory.createClient(url).execute(new HttpRequest(HttpMethod.GET, "/status"), true);
+
+        PoolStats stats = factory.getTotalStats();
+        Assert.assertEquals(stats.getLeased(), 0);
+        Assert.assertEquals(stats.getAvailable(), 1);
+        Assert.assertEquals(factory.getHostStats(url).getAvailable(), 1);
+        Assert.assertEquals(clientPorts.size(), 1, "connections opened");
+        Assert.assertEquals(factory.getRequests(), 21);
+        Assert.assertEquals(factory.getFailures(), 0);
+    }
+
+    @Test
+    public void busyConnectionsOutliveTheKeepAlive() throws Exception {
+        factory.setKeepAliveMillis(300);
+        HttpClient client = factory.createClient(url);
+        long end = System.currentTimeMillis() + 1200;
+        while(System.currentTimeMillis() < end){
+            client.execute(new HttpRequest(HttpMethod.GET, "/status"), true);
+            Thread.sleep(50);
+        }
+        Assert.assertEquals(factory.getTotalStats().getAvailable(), 1);
+        Assert.assertEquals(clientPorts.size(), 1, "connections opened");
+    }
+}
@@ -0,0 +1,66 @@
+package CodeHouse;
+
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Checks the window switching of {@link WindowRegistry} against an in-memory driver.
+ */
+public class WindowRegistryTest {
+
+    private final Map<String, String> titles = new LinkedHashMap<String, String>();
+    private String browserWindow = "main";
+
+    @Test
+    public void failedSearchesReturnToTheStartingWindow(){
+        titles.put("main", "Shop");
+        titles.put("popup", "Help");
+        titles.put("report", "Report");
+        WindowRegistry registry = new WindowRegistry(driver());
+
+        Assert.assertEquals(registry.switchToTitle(Pattern.compile("Help")).getHandle(), "popup");
+        Assert.assertEquals(browserWindow, "popup");
+        try {
+            registry.switchToTitle(Pattern.compile("Checkout"));
+            Assert.fail("Expected a NoSuchWindowException");
+        }catch (NoSuchWindowException expected){
+            Assert.assertEquals(browserWindow, "popup");
+            Assert.assertEquals(registry.getCurrentHandle(), "popup");
+        }
+    }
+
+    private WebDriver driver(){
+        WebDriver.TargetLocator locator = (WebDriver.TargetLocator) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.TargetLocator.class}, (proxy, method, args) -> {
+                    if(!method.getName().equals("window")){
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    if(!titles.containsKey(args[0])){
+                        throw new NoSuchWindowException((String) args[0]);
+                    }
+                    browserWindow = (String) args[0];
+                    return null;
+                });
+        return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{WebDriver.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()){
+                        case "equals": return proxy == args[0];
+                        case "hashCode": return System.identityHashCode(proxy);
+                        case "toString": return "driver";
+                        case "getWindowHandle": return browserWindow;
+                        case "getWindowHandles": return titles.keySet();
+                        case "getTitle": return titles.get(browserWindow);
+                        case "getCurrentUrl": return "http://shop/" + browserWindow;
+                        case "switchTo": return locator;
+                        default: throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}